@@ -0,0 +1,44 @@
+package bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import util.AggregateList;
+
+import java.lang.invoke.MethodHandles;
+import java.util.concurrent.TimeUnit;
+
+// Cost of AggregateList.factory(), firstFactory() is the cost of the first call in a fresh JVM
+// (the hidden class is generated and defined), cachedFactory() is the cost of the next calls
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class AggregateListFactoryBenchmark {
+  private record Tuple(int left, String right) {}
+
+  private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+  @Benchmark
+  @BenchmarkMode(Mode.SingleShotTime)
+  @Fork(value = 10, jvmArgs = {"--enable-preview"})
+  @Warmup(iterations = 0)
+  @Measurement(iterations = 1)
+  public AggregateList.Factory<Tuple> firstFactory() {
+    return AggregateList.factory(LOOKUP, Tuple.class);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @Fork(value = 1, jvmArgs = {"--enable-preview"})
+  @Warmup(iterations = 5, time = 1)
+  @Measurement(iterations = 5, time = 1)
+  public AggregateList.Factory<Tuple> cachedFactory() {
+    return AggregateList.factory(LOOKUP, Tuple.class);
+  }
+}
@@ -0,0 +1,139 @@
+package bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import util.AggregateList;
+import util.FlatListFactory;
+import util.GenericAggregateList;
+import util.GenericFlatList;
+
+import java.lang.invoke.MethodHandles;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static util.GenericFlatList.FLAT;
+
+// Same sums as AggregateListBenchmark but the factory is also used with ArrayList and GenericAggregateList columns
+// before the measurement. Each combination of column classes has its own generated class, so the calls to get()
+// of sumAggregateList() stay monomorphic and the result should be close to sumSpecializedList().
+// sumFlatAggregateList() uses the hidden classes of FlatListFactory as columns, the factory is also used
+// with the flat lists of other properties (another hidden class), the calls should stay monomorphic too
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgs = {"--enable-preview", "--add-exports=java.base/jdk.internal.value=ALL-UNNAMED", "--add-exports=java.base/jdk.internal.misc=ALL-UNNAMED"})
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class AggregateListSpecializationBenchmark {
+  private static final int SIZE = 1024;
+
+  private value record Tuple(int left, int right) {}
+
+  private static final class SpecializedList extends AbstractList<Tuple> {
+    private final List<GenericFlatList<Integer>> lists;
+
+    SpecializedList(List<GenericFlatList<Integer>> lists) {
+      this.lists = lists;
+    }
+
+    @Override
+    public int size() {
+      return lists.getFirst().size();
+    }
+
+    @Override
+    public Tuple get(int index) {
+      return new Tuple(lists.get(0).get(index), lists.get(1).get(index));
+    }
+  }
+
+  private static final AggregateList.Factory<Tuple> FACTORY =
+      AggregateList.factory(MethodHandles.lookup(), Tuple.class);
+
+  private SpecializedList specializedList;
+  private AggregateList<Tuple> aggregateList;
+  private AggregateList<Tuple> flatAggregateList;
+
+  private static int sumOther(List<Tuple> list) {
+    var sum = 0;
+    for (var i = 0; i < list.size(); i++) {
+      var tuple = list.get(i);
+      sum += tuple.left + tuple.right;
+    }
+    return sum;
+  }
+
+  @Setup
+  public void setup() {
+    var list0 = new GenericFlatList<Integer>(Integer.class, FLAT, SIZE);
+    var list1 = new GenericFlatList<Integer>(Integer.class, FLAT, SIZE);
+    var flatList = FlatListFactory.create(Integer.class, FlatListFactory.FLAT, SIZE);
+    var nonFlatList = FlatListFactory.create(Integer.class, FlatListFactory.NON_FLAT, SIZE);
+    var arrayList = new ArrayList<Integer>();
+    for (var i = 0; i < SIZE; i++) {
+      list0.add(i);
+      list1.add(i);
+      flatList.add(i);
+      nonFlatList.add(i);
+      arrayList.add(i);
+    }
+    var genericAggregateList = new GenericAggregateList<>(SIZE, i -> i);
+    specializedList = new SpecializedList(List.of(list0, list1));
+    aggregateList = FACTORY.create(list0, list1);
+    flatAggregateList = FACTORY.create(flatList, flatList);
+
+    // use the factory with other column classes
+    var others = List.of(
+        FACTORY.create(arrayList, arrayList),
+        FACTORY.create(genericAggregateList, genericAggregateList),
+        FACTORY.create(arrayList, genericAggregateList),
+        FACTORY.create(nonFlatList, nonFlatList),
+        FACTORY.create(flatList, nonFlatList));
+    for (var round = 0; round < 10_000; round++) {
+      for (var other : others) {
+        sumOther(other);
+      }
+    }
+  }
+
+  @Benchmark
+  public int sumSpecializedList() {
+    var sum = 0;
+    for (var i = 0; i < specializedList.size(); i++) {
+      var tuple = specializedList.get(i);
+      sum += tuple.left + tuple.right;
+    }
+    return sum;
+  }
+
+  @Benchmark
+  public int sumAggregateList() {
+    var sum = 0;
+    for (var i = 0; i < aggregateList.size(); i++) {
+      var tuple = aggregateList.get(i);
+      sum += tuple.left + tuple.right;
+    }
+    return sum;
+  }
+
+  @Benchmark
+  public int sumFlatAggregateList() {
+    var sum = 0;
+    for (var i = 0; i < flatAggregateList.size(); i++) {
+      var tuple = flatAggregateList.get(i);
+      sum += tuple.left + tuple.right;
+    }
+    return sum;
+  }
+}
@@ -0,0 +1,95 @@
+package bench;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import primitive.weather.WeatherComputation;
+import primitive.weather.WeatherService.HourlyData;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Answering the WeatherResult of one month (720 hours) and of ten years (87_600 hours) in twenty years of hours,
+// by scanning the columns vs by querying a RangeIndex; buildIndex() is the cost of building the index
+// and reports the memory used by the index as the secondary result memoryBytes
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgs = {"--enable-preview"})
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class RangeIndexBenchmark {
+  private static final int SIZE = 175_200;
+
+  private HourlyData hourlyData;
+  private HourlyData month;
+  private HourlyData decade;
+  private WeatherComputation.RangeIndex rangeIndex;
+
+  @Setup
+  public void setup() {
+    var random = new Random(0);
+    var temperatures = new float[SIZE];
+    var windspeeds = new float[SIZE];
+    var precipitations = new float[SIZE];
+    for (var i = 0; i < SIZE; i++) {
+      temperatures[i] = -20.0f + 60.0f * random.nextFloat();
+      windspeeds[i] = 100.0f * random.nextFloat();
+      precipitations[i] = random.nextFloat() < 0.8f ? 0.0f : 10.0f * random.nextFloat();
+    }
+    hourlyData = new HourlyData(temperatures, windspeeds, precipitations);
+    month = slice(hourlyData, 10_000, 10_720);
+    decade = slice(hourlyData, 40_000, 127_600);
+    rangeIndex = WeatherComputation.rangeIndex(hourlyData);
+  }
+
+  // reported by JMH next to the score of buildIndex()
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class IndexCounters {
+    public long memoryBytes;
+  }
+
+  private static HourlyData slice(HourlyData data, int from, int to) {
+    return new HourlyData(
+        Arrays.copyOfRange(data.temperatures(), from, to),
+        Arrays.copyOfRange(data.windspeeds(), from, to),
+        Arrays.copyOfRange(data.precipitations(), from, to));
+  }
+
+  @Benchmark
+  public WeatherComputation.WeatherResult scanMonth() {
+    return WeatherComputation.computeHourlyData(month);
+  }
+
+  @Benchmark
+  public WeatherComputation.WeatherResult queryMonth() {
+    return rangeIndex.query(10_000, 10_720);
+  }
+
+  @Benchmark
+  public WeatherComputation.WeatherResult scanDecade() {
+    return WeatherComputation.computeHourlyData(decade);
+  }
+
+  @Benchmark
+  public WeatherComputation.WeatherResult queryDecade() {
+    return rangeIndex.query(40_000, 127_600);
+  }
+
+  @Benchmark
+  public WeatherComputation.RangeIndex buildIndex(IndexCounters counters) {
+    var index = WeatherComputation.rangeIndex(hourlyData);
+    counters.memoryBytes = index.memoryBytes();
+    return index;
+  }
+}
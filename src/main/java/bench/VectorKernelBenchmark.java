@@ -0,0 +1,82 @@
+package bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import primitive.weather.WeatherComputation;
+import primitive.weather.WeatherService.HourlyData;
+import util.FloatKernels;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Scalar loops of primitive.weather.WeatherComputation vs the SIMD kernels of FloatKernels,
+// 8_760 hours is one year, 175_200 hours is twenty years, 1_752_000 hours is ten locations over twenty years.
+// If jdk.incubator.vector is not added, FloatKernels falls back to scalar loops (see isVectorized()),
+// the JVM arguments are listed by JMH at the start of the run.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(
+    value = 1,
+    jvmArgs = {
+        "--enable-preview",
+        "--add-modules=jdk.incubator.vector"})
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class VectorKernelBenchmark {
+
+  @Param({"8760", "175200", "1752000"})
+  private int size;
+
+  private HourlyData hourlyData;
+  private float[] temperatures;
+
+  @Setup
+  public void setup() {
+    var random = new Random(0);
+    var windspeeds = new float[size];
+    var precipitations = new float[size];
+    temperatures = new float[size];
+    for (var i = 0; i < size; i++) {
+      temperatures[i] = -20.0f + 60.0f * random.nextFloat();
+      windspeeds[i] = 100.0f * random.nextFloat();
+      precipitations[i] = random.nextFloat() < 0.8f ? 0.0f : 10.0f * random.nextFloat();
+    }
+    hourlyData = new HourlyData(temperatures, windspeeds, precipitations);
+  }
+
+  @Benchmark
+  public WeatherComputation.WeatherResult scalarComputation() {
+    return WeatherComputation.computeHourlyData(hourlyData);
+  }
+
+  @Benchmark
+  public WeatherComputation.WeatherResult vectorizedComputation() {
+    return WeatherComputation.computeHourlyDataVectorized(hourlyData);
+  }
+
+  @Benchmark
+  public int scalarCountGreaterThan() {
+    var count = 0;
+    for (var temperature : temperatures) {
+      if (temperature > 30.0f) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  @Benchmark
+  public int vectorizedCountGreaterThan() {
+    return FloatKernels.countGreaterThan(temperatures, 0, temperatures.length, 30.0f);
+  }
+}
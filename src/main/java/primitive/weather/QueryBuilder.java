@@ -1,17 +1,22 @@
 package primitive.weather;
 
+import primitive.weather.WeatherService.HourlyData;
 import primitive.weather.WeatherService.LatLong;
 
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
 import java.util.Objects;
+import java.util.StringJoiner;
 
 public final class QueryBuilder {
   private LatLong latLong;
   private LocalDate startDate;
   private LocalDate endDate;
+  private List<String> variables = HourlyData.VARIABLES;
 
   public QueryBuilder(LatLong latLong, LocalDate startDate, LocalDate endDate) {
     this.latLong = Objects.requireNonNull(latLong, "LatLong is required");
@@ -37,13 +42,54 @@ public final class QueryBuilder {
     return this;
   }
 
+  // Only the columns of the variables are queried, see HourlyData.VARIABLES
+  public QueryBuilder variables(List<String> variables) {
+    this.variables = HourlyData.COLUMNS.checkNames(Objects.requireNonNull(variables));
+    return this;
+  }
+
+  public List<String> variables() {
+    return variables;
+  }
+
+  // Number of hourly values of the response, both dates are inclusive
+  public int hourCount() {
+    return Math.toIntExact((ChronoUnit.DAYS.between(startDate, endDate) + 1) * 24);
+  }
+
   private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
 
   public URI toURI() {
-    var names = "temperature_2m,wind_speed_10m,precipitation";
+    return toURI(String.valueOf(latLong.latitude()), String.valueOf(latLong.longitude()), startDate, endDate,
+        variables);
+  }
+
+  // One query for several locations, the response is an array with one element per location
+  public static URI toURI(List<LatLong> latLongs, LocalDate startDate, LocalDate endDate) {
+    Objects.requireNonNull(latLongs, "LatLongs are required");
+    Objects.requireNonNull(startDate, "StartDate is required");
+    Objects.requireNonNull(endDate, "EndDate is required");
+    if (latLongs.isEmpty()) {
+      throw new IllegalArgumentException("LatLongs must not be empty");
+    }
+    if (!startDate.isBefore(endDate)) {
+      throw new IllegalArgumentException("StartDate must be before endDate");
+    }
+    var latitudes = new StringJoiner(",");
+    var longitudes = new StringJoiner(",");
+    for (var latLong : latLongs) {
+      latitudes.add(String.valueOf(latLong.latitude()));
+      longitudes.add(String.valueOf(latLong.longitude()));
+    }
+    return toURI(latitudes.toString(), longitudes.toString(), startDate, endDate, HourlyData.VARIABLES);
+  }
+
+  private static URI toURI(String latitudes, String longitudes, LocalDate startDate, LocalDate endDate,
+                           List<String> variables) {
+    var names = String.join(",", variables);
     var query =
-        "latitude=" + latLong.latitude() +
-            "&longitude=" + latLong.longitude() +
+        "latitude=" + latitudes +
+            "&longitude=" + longitudes +
             "&start_date=" + DATE_FORMATTER.format(startDate) +
             "&end_date=" + DATE_FORMATTER.format(endDate) +
             "&hourly=" + names;
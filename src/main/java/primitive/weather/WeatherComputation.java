@@ -1,9 +1,22 @@
 package primitive.weather;
 
+import java.lang.invoke.MethodHandles;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
 import java.util.stream.IntStream;
 
 import primitive.weather.WeatherService.*;
+import util.AlertEngine;
+import util.FloatKernels;
+import util.ParallelReduce;
+import util.PrefixSum;
+import util.SlidingWindow;
+import util.SparseTable;
+import util.TimeBuckets;
+import util.ZoneMap;
 
 public class WeatherComputation {
   public record WeatherData(float temperature, float windspeed, float precipitation) { }
@@ -41,17 +54,22 @@ public class WeatherComputation {
 
 
   public static WeatherResult computeHourlyData(HourlyData data) {
-    var minTemperature = Float.MAX_VALUE;
-    var maxTemperature = Float.MIN_VALUE;
-    var maxWindspeed = 0.0f;
-    var totalPrecipitation = 0.0f;
     var temperatures = data.temperatures();
     var windspeeds = data.windspeeds();
     var precipitations = data.precipitations();
     if (temperatures.length != windspeeds.length || temperatures.length != precipitations.length) {
       throw new IllegalStateException("temperature size != windspeed size or precipitation size != precipitation size");
     }
-    for(var i = 0; i < temperatures.length; i++) {
+    return computeHourlyData(temperatures, windspeeds, precipitations, 0, temperatures.length);
+  }
+
+  private static WeatherResult computeHourlyData(float[] temperatures, float[] windspeeds,
+                                                float[] precipitations, int start, int end) {
+    var minTemperature = Float.MAX_VALUE;
+    var maxTemperature = Float.MIN_VALUE;
+    var maxWindspeed = 0.0f;
+    var totalPrecipitation = 0.0f;
+    for(var i = start; i < end; i++) {
       minTemperature = Math.min(minTemperature,  temperatures[i]);
       maxTemperature = Math.max(maxTemperature,  temperatures[i]);
       maxWindspeed = Math.max(maxWindspeed, windspeeds[i]);
@@ -59,4 +77,293 @@ public class WeatherComputation {
     }
     return new WeatherResult(minTemperature, maxTemperature, maxWindspeed, totalPrecipitation);
   }
+
+  // Same result as computeHourlyData() but each column is aggregated by a SIMD kernel,
+  // the total precipitation may differ by a rounding error (see FloatKernels)
+  public static WeatherResult computeHourlyDataVectorized(HourlyData data) {
+    var temperatures = data.temperatures();
+    var windspeeds = data.windspeeds();
+    var precipitations = data.precipitations();
+    if (temperatures.length != windspeeds.length || temperatures.length != precipitations.length) {
+      throw new IllegalStateException("temperature size != windspeed size or precipitation size != precipitation size");
+    }
+    var length = temperatures.length;
+    return new WeatherResult(
+        Math.min(Float.MAX_VALUE, FloatKernels.min(temperatures, 0, length)),
+        Math.max(Float.MIN_VALUE, FloatKernels.max(temperatures, 0, length)),
+        Math.max(0.0f, FloatKernels.max(windspeeds, 0, length)),
+        FloatKernels.sum(precipitations, 0, length));
+  }
+
+  // Combines the results of two consecutive ranges, the operation is associative
+  public static WeatherResult combine(WeatherResult result1, WeatherResult result2) {
+    return new WeatherResult(
+        Math.min(result1.minTemperature(), result2.minTemperature()),
+        Math.max(result1.maxTemperature(), result2.maxTemperature()),
+        Math.max(result1.maxWindspeed(), result2.maxWindspeed()),
+        result1.totalPrecipitation() + result2.totalPrecipitation());
+  }
+
+  // Default number of hours under which a range is computed sequentially
+  public static final int DEFAULT_THRESHOLD = 16_384;
+
+  public static WeatherResult computeWeatherDataParallel(List<WeatherData> weatherDataList) {
+    return computeWeatherDataParallel(weatherDataList, DEFAULT_THRESHOLD);
+  }
+
+  public static WeatherResult computeWeatherDataParallel(List<WeatherData> weatherDataList, int threshold) {
+    Objects.requireNonNull(weatherDataList);
+    if (!(weatherDataList instanceof RandomAccess)) {
+      // the ranges are split using indexes
+      return computeWeatherData(weatherDataList);
+    }
+    return ParallelReduce.reduce(weatherDataList.size(), threshold,
+        (start, end) -> computeWeatherData(weatherDataList.subList(start, end)),
+        WeatherComputation::combine);
+  }
+
+  public static WeatherResult computeHourlyDataParallel(HourlyData data) {
+    return computeHourlyDataParallel(data, DEFAULT_THRESHOLD);
+  }
+
+  public static WeatherResult computeHourlyDataParallel(HourlyData data, int threshold) {
+    var temperatures = data.temperatures();
+    var windspeeds = data.windspeeds();
+    var precipitations = data.precipitations();
+    if (temperatures.length != windspeeds.length || temperatures.length != precipitations.length) {
+      throw new IllegalStateException("temperature size != windspeed size or precipitation size != precipitation size");
+    }
+    return ParallelReduce.reduce(temperatures.length, threshold,
+        (start, end) -> computeHourlyData(temperatures, windspeeds, precipitations, start, end),
+        WeatherComputation::combine);
+  }
+
+  // Columnar results, one element per bucket
+  public record Rollup(TimeBuckets buckets, float[] minTemperatures, float[] maxTemperatures,
+                       float[] maxWindspeeds, float[] totalPrecipitations) {}
+
+  // Min/max/total of each day, month or year of the hourly data, data starts at midnight of startDate.
+  // If parallel is true, the buckets are computed by several threads.
+  public static Rollup rollup(HourlyData data, LocalDate startDate, ChronoUnit unit, boolean parallel) {
+    var temperatures = data.temperatures();
+    var windspeeds = data.windspeeds();
+    var precipitations = data.precipitations();
+    if (temperatures.length != windspeeds.length || temperatures.length != precipitations.length) {
+      throw new IllegalStateException("temperature size != windspeed size or precipitation size != precipitation size");
+    }
+    var buckets = TimeBuckets.of(startDate, temperatures.length, unit);
+    var size = buckets.size();
+    var rollup = new Rollup(buckets, new float[size], new float[size], new float[size], new float[size]);
+    var bucketStream = IntStream.range(0, size);
+    if (parallel) {
+      bucketStream = bucketStream.parallel();
+    }
+    // each bucket only writes its own index
+    bucketStream.forEach(bucket -> {
+      var result = computeHourlyData(temperatures, windspeeds, precipitations, buckets.start(bucket), buckets.end(bucket));
+      rollup.minTemperatures[bucket] = result.minTemperature();
+      rollup.maxTemperatures[bucket] = result.maxTemperature();
+      rollup.maxWindspeeds[bucket] = result.maxWindspeed();
+      rollup.totalPrecipitations[bucket] = result.totalPrecipitation();
+    });
+    return rollup;
+  }
+
+  // The columns of the alert rules are the components of HourlyData: 0 temperatures, 1 windspeeds, 2 precipitations
+  public static AlertEngine compileAlertRules(List<? extends AlertEngine.Rule> rules) {
+    return AlertEngine.compile(MethodHandles.lookup(), List.of(float[].class, float[].class, float[].class), rules);
+  }
+
+  public static List<AlertEngine.Alert> alerts(AlertEngine engine, HourlyData data) {
+    return engine.alerts(data.temperatures(), data.windspeeds(), data.precipitations());
+  }
+
+  // Index built once per HourlyData that answers the WeatherResult of any range of hours in O(1),
+  // buildNanos and memoryBytes() report the cost of the index
+  public record RangeIndex(SparseTable minTemperatures, SparseTable maxTemperatures, SparseTable maxWindspeeds,
+                           PrefixSum totalPrecipitations, long buildNanos) {
+    // Same result as computeHourlyData() on the hours [fromHour, toHour), apart from the total precipitation
+    // that comes from the prefix sums, so it may differ by a rounding error (see PrefixSum)
+    public WeatherResult query(int fromHour, int toHour) {
+      return new WeatherResult(
+          Math.min(Float.MAX_VALUE, minTemperatures.query(fromHour, toHour)),
+          Math.max(Float.MIN_VALUE, maxTemperatures.query(fromHour, toHour)),
+          Math.max(0.0f, maxWindspeeds.query(fromHour, toHour)),
+          totalPrecipitations.sum(fromHour, toHour));
+    }
+
+    public long memoryBytes() {
+      return minTemperatures.memoryBytes() + maxTemperatures.memoryBytes() + maxWindspeeds.memoryBytes()
+          + totalPrecipitations.memoryBytes();
+    }
+  }
+
+  public static RangeIndex rangeIndex(HourlyData data) {
+    var temperatures = data.temperatures();
+    var windspeeds = data.windspeeds();
+    var precipitations = data.precipitations();
+    if (temperatures.length != windspeeds.length || temperatures.length != precipitations.length) {
+      throw new IllegalStateException("temperature size != windspeed size or precipitation size != precipitation size");
+    }
+    var start = System.nanoTime();
+    var minTemperatures = SparseTable.ofMin(temperatures);
+    var maxTemperatures = SparseTable.ofMax(temperatures);
+    var maxWindspeeds = SparseTable.ofMax(windspeeds);
+    var totalPrecipitations = new PrefixSum(precipitations);
+    return new RangeIndex(minTemperatures, maxTemperatures, maxWindspeeds, totalPrecipitations, System.nanoTime() - start);
+  }
+
+  // Block summaries of the columns of an HourlyData
+  public record ZoneMaps(ZoneMap temperatures, ZoneMap windspeeds, ZoneMap precipitations) {
+    public ZoneMaps {
+      if (temperatures.size() != windspeeds.size() || temperatures.size() != precipitations.size()
+          || temperatures.blockSize() != windspeeds.blockSize() || temperatures.blockSize() != precipitations.blockSize()) {
+        throw new IllegalArgumentException("zone maps must have the same size and the same block size");
+      }
+    }
+  }
+
+  public static ZoneMaps zoneMaps(HourlyData data) {
+    var temperatures = data.temperatures();
+    var windspeeds = data.windspeeds();
+    var precipitations = data.precipitations();
+    if (temperatures.length != windspeeds.length || temperatures.length != precipitations.length) {
+      throw new IllegalStateException("temperature size != windspeed size or precipitation size != precipitation size");
+    }
+    return new ZoneMaps(ZoneMap.of(temperatures), ZoneMap.of(windspeeds), ZoneMap.of(precipitations));
+  }
+
+  // Same result as computeHourlyData() on the hours [fromHour, toHour), apart from the total precipitation
+  // that uses the sums of the blocks, so it may differ by a rounding error (see ZoneMap),
+  // the blocks fully inside the range are not scanned, their summaries are used instead
+  public static WeatherResult computeHourlyData(HourlyData data, ZoneMaps zoneMaps, int fromHour, int toHour) {
+    var temperatures = data.temperatures();
+    var windspeeds = data.windspeeds();
+    var precipitations = data.precipitations();
+    if (temperatures.length != windspeeds.length || temperatures.length != precipitations.length) {
+      throw new IllegalStateException("temperature size != windspeed size or precipitation size != precipitation size");
+    }
+    if (zoneMaps.temperatures().size() != temperatures.length) {
+      throw new IllegalArgumentException("zone maps size != hourly data size");
+    }
+    Objects.checkFromToIndex(fromHour, toHour, temperatures.length);
+    var blockSize = zoneMaps.temperatures().blockSize();
+    var firstBlock = (int) (((long) fromHour + blockSize - 1) / blockSize);
+    var endBlock = toHour / blockSize;
+    if (firstBlock >= endBlock) {
+      return computeHourlyData(temperatures, windspeeds, precipitations, fromHour, toHour);
+    }
+    var result = computeHourlyData(temperatures, windspeeds, precipitations, fromHour, firstBlock * blockSize);
+    for (var block = firstBlock; block < endBlock; block++) {
+      var blockResult = new WeatherResult(
+          zoneMaps.temperatures().min(block),
+          zoneMaps.temperatures().max(block),
+          zoneMaps.windspeeds().max(block),
+          zoneMaps.precipitations().sum(block));
+      result = combine(result, blockResult);
+    }
+    return combine(result, computeHourlyData(temperatures, windspeeds, precipitations, endBlock * blockSize, toHour));
+  }
+
+  // Number of hours with a wind speed strictly above the threshold,
+  // the blocks with a maximum below the threshold are skipped
+  public static int countWindspeedAbove(HourlyData data, ZoneMaps zoneMaps, float threshold) {
+    return zoneMaps.windspeeds().countGreaterThan(data.windspeeds(), threshold);
+  }
+
+  // Same alerts as alerts(engine, data), the blocks of hours where a group of threshold rules
+  // can not become true are skipped
+  public static List<AlertEngine.Alert> alerts(AlertEngine engine, HourlyData data, ZoneMaps zoneMaps) {
+    return engine.alerts(
+        new ZoneMap[] { zoneMaps.temperatures(), zoneMaps.windspeeds(), zoneMaps.precipitations() },
+        new Object[] { data.temperatures(), data.windspeeds(), data.precipitations() });
+  }
+
+  // Aggregation of the last hours of a location, updated in O(1) amortized when a new hour arrives,
+  // the oldest hour is evicted once the window is full
+  public static final class RollingWindow {
+    private final SlidingWindow temperatures;
+    private final SlidingWindow windspeeds;
+    private final SlidingWindow precipitations;
+
+    public RollingWindow(int hours) {
+      if (hours <= 0) {
+        throw new IllegalArgumentException("Invalid hours: " + hours);
+      }
+      temperatures = new SlidingWindow(hours);
+      windspeeds = new SlidingWindow(hours);
+      precipitations = new SlidingWindow(hours);
+    }
+
+    public int hours() {
+      return temperatures.capacity();
+    }
+
+    public int size() {
+      return temperatures.size();
+    }
+
+    public void append(WeatherData weatherData) {
+      temperatures.append(weatherData.temperature());
+      windspeeds.append(weatherData.windspeed());
+      precipitations.append(weatherData.precipitation());
+    }
+
+    public void appendAll(HourlyData data) {
+      var temperatureColumn = data.temperatures();
+      var windspeedColumn = data.windspeeds();
+      var precipitationColumn = data.precipitations();
+      if (temperatureColumn.length != windspeedColumn.length || temperatureColumn.length != precipitationColumn.length) {
+        throw new IllegalStateException("temperature size != windspeed size or precipitation size != precipitation size");
+      }
+      for (var i = 0; i < temperatureColumn.length; i++) {
+        temperatures.append(temperatureColumn[i]);
+        windspeeds.append(windspeedColumn[i]);
+        precipitations.append(precipitationColumn[i]);
+      }
+    }
+
+    // Same result as computeHourlyData() on the hours of the window, apart from the total precipitation
+    // that comes from a running sum, so it may differ by a rounding error (see SlidingWindow)
+    public WeatherResult result() {
+      return new WeatherResult(
+          Math.min(Float.MAX_VALUE, temperatures.min()),
+          Math.max(Float.MIN_VALUE, temperatures.max()),
+          Math.max(0.0f, windspeeds.max()),
+          precipitations.sum());
+    }
+
+    public long memoryBytes() {
+      return temperatures.memoryBytes() + windspeeds.memoryBytes() + precipitations.memoryBytes();
+    }
+  }
+
+  // Rolling windows of the last day, the last week and the last month of a location
+  public record RollingWindows(RollingWindow lastDay, RollingWindow lastWeek, RollingWindow lastMonth) {
+    public RollingWindows {
+      Objects.requireNonNull(lastDay);
+      Objects.requireNonNull(lastWeek);
+      Objects.requireNonNull(lastMonth);
+    }
+
+    public RollingWindows() {
+      this(new RollingWindow(24), new RollingWindow(7 * 24), new RollingWindow(30 * 24));
+    }
+
+    public void append(WeatherData weatherData) {
+      lastDay.append(weatherData);
+      lastWeek.append(weatherData);
+      lastMonth.append(weatherData);
+    }
+
+    public void appendAll(HourlyData data) {
+      lastDay.appendAll(data);
+      lastWeek.appendAll(data);
+      lastMonth.appendAll(data);
+    }
+
+    public long memoryBytes() {
+      return lastDay.memoryBytes() + lastWeek.memoryBytes() + lastMonth.memoryBytes();
+    }
+  }
 }
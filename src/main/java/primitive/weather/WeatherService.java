@@ -4,10 +4,21 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectReader;
+import util.Batch;
+import util.ColumnFile;
 import util.Fetch;
+import util.MemoryCache;
+import util.RecordColumns;
+import util.YearChunk;
 
 import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.net.URI;
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
 
 public final class WeatherService {
 
@@ -16,15 +27,176 @@ public final class WeatherService {
           .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
           .reader();
 
+  // Decoded HourlyData, 4 bytes per value
+  private static final MemoryCache<URI, HourlyData> MEMORY_CACHE =
+      new MemoryCache<>(256L << 20, data ->
+          4L * (data.temperatures().length + data.windspeeds().length + data.precipitations().length));
+
+  // The returned HourlyData may be shared with other callers and must not be modified
   public static HourlyData getHourlyData(LatLong latLong, LocalDate startDate, LocalDate endDate)
       throws IOException {
+    return getHourlyData(latLong, startDate, endDate, HourlyData.VARIABLES);
+  }
+
+  // Only the columns of the variables are downloaded, parsed and cached, the other columns are empty
+  public static HourlyData getHourlyData(LatLong latLong, LocalDate startDate, LocalDate endDate,
+                                         List<String> variables) throws IOException {
+    return getHourlyData(latLong, startDate, endDate, variables, DEFAULT_MAX_CONCURRENCY);
+  }
+
+  // At most chunkConcurrency chunks are fetched at the same time
+  private static HourlyData getHourlyData(LatLong latLong, LocalDate startDate, LocalDate endDate,
+                                          List<String> variables, int chunkConcurrency) throws IOException {
+    var queryBuilder = new QueryBuilder(latLong, startDate, endDate).variables(variables);  // check the arguments
+    var projection = queryBuilder.variables();
+
+    // fetch and cache year by year, so overlapping date ranges share the same chunks
+    var chunks = YearChunk.split(startDate, endDate);
+    var chunkData = Batch.map(chunks, chunkConcurrency,
+        chunk -> getChunkHourlyData(
+            new QueryBuilder(latLong, chunk.startDate(), chunk.endDate()).variables(projection)));
+    return concat(chunks, chunkData);
+  }
+
+  private static HourlyData getChunkHourlyData(QueryBuilder queryBuilder) throws IOException {
+    var uri = queryBuilder.toURI();
+    var variables = queryBuilder.variables();
+    return MEMORY_CACHE.get(uri, _ -> loadHourlyData(uri, variables));
+  }
+
+  // Stitch the hours of each chunk that are part of the date range
+  private static HourlyData concat(List<YearChunk> chunks, List<HourlyData> chunkData) {
+    if (chunks.size() == 1) {
+      var chunk = chunks.getFirst();
+      var data = chunkData.getFirst();
+      var length = HourlyData.COLUMNS.rowCount(data);
+      if (chunk.sliceStart(length) == 0 && chunk.sliceEnd(length) == length) {
+        return data;
+      }
+    }
+    return new HourlyData(
+        concat(chunks, chunkData, HourlyData::temperatures),
+        concat(chunks, chunkData, HourlyData::windspeeds),
+        concat(chunks, chunkData, HourlyData::precipitations));
+  }
+
+  private static float[] concat(List<YearChunk> chunks, List<HourlyData> chunkData,
+                                Function<? super HourlyData, float[]> column) {
+    var length = 0;
+    for (var i = 0; i < chunks.size(); i++) {
+      var chunk = chunks.get(i);
+      var values = column.apply(chunkData.get(i));
+      length += chunk.sliceEnd(values.length) - chunk.sliceStart(values.length);
+    }
+    var result = new float[length];
+    var offset = 0;
+    for (var i = 0; i < chunks.size(); i++) {
+      var chunk = chunks.get(i);
+      var values = column.apply(chunkData.get(i));
+      var from = chunk.sliceStart(values.length);
+      var to = chunk.sliceEnd(values.length);
+      System.arraycopy(values, from, result, offset, to - from);
+      offset += to - from;
+    }
+    return result;
+  }
+
+  // Use the binary columns if available, otherwise parse the JSON and store the columns
+  private static HourlyData loadHourlyData(URI uri, List<String> variables) throws IOException {
+    var columns = ColumnFile.readFromCache(uri);
+    if (columns != null && columns.length == variables.size()) {
+      return HourlyData.COLUMNS.create(variables, columns);
+    }
+    var data = fetchHourlyData(uri);
+    var dataColumns = new float[variables.size()][];
+    for (var i = 0; i < dataColumns.length; i++) {
+      dataColumns[i] = HourlyData.COLUMNS.column(data, variables.get(i));
+    }
+    ColumnFile.storeIntoCache(uri, dataColumns);
+    return data;
+  }
+
+  private static HourlyData fetchHourlyData(URI uri) throws IOException {
+    try (var input = Fetch.cache(uri, Fetch::fetch)) {
+      var response = OBJECT_READER.readValue(input, OpenMeteoResponse.class);
+      return response.hourly();
+    }
+  }
+
+  // The hourly data of several locations, fetched and parsed with one request, in the same order as the locations
+  public static List<HourlyData> getBatchedHourlyData(List<LatLong> latLongs, LocalDate startDate, LocalDate endDate)
+      throws IOException {
+    var uri = QueryBuilder.toURI(latLongs, startDate, endDate);
+    var dataList = fetchBatchedHourlyData(uri, latLongs.size());
 
-    var uri = new QueryBuilder(latLong).dateRange(startDate, endDate).toURI();
+    // a query of a single location on the same date range can reuse the data
+    for (var i = 0; i < dataList.size(); i++) {
+      cacheChunks(latLongs.get(i), startDate, endDate, dataList.get(i));
+    }
+    return dataList;
+  }
+
+  // Store the hours of each chunk under the key used by getChunkHourlyData()
+  private static void cacheChunks(LatLong latLong, LocalDate startDate, LocalDate endDate, HourlyData data) {
+    for (var chunk : YearChunk.split(startDate, endDate)) {
+      if (chunk.startDate().isBefore(startDate)) {
+        continue;  // the chunk also fetches the days of the month (or the day) before the date range, they are not part of the data
+      }
+      var queryBuilder = new QueryBuilder(latLong, chunk.startDate(), chunk.endDate());
+      var fromHour = Math.toIntExact(ChronoUnit.DAYS.between(startDate, chunk.startDate()) * 24);
+      var slice = new YearChunk(chunk.startDate(), chunk.endDate(), fromHour, fromHour + queryBuilder.hourCount());
+      MEMORY_CACHE.put(queryBuilder.toURI(), concat(List.of(slice), List.of(data)));
+    }
+  }
+
+  // Demultiplex the array of responses, one per location
+  private static List<HourlyData> fetchBatchedHourlyData(URI uri, int locationCount) throws IOException {
+    try (var input = Fetch.cache(uri, Fetch::fetch)) {
+      // a single location is not wrapped in an array
+      var responses = OBJECT_READER
+          .with(DeserializationFeature.ACCEPT_SINGLE_VALUE_AS_ARRAY)
+          .readValue(input, OpenMeteoResponse[].class);
+      if (responses.length != locationCount) {
+        throw new IOException("Invalid number of responses: " + responses.length + " for " + locationCount + " locations");
+      }
+      var dataList = new ArrayList<HourlyData>(responses.length);
+      for (var response : responses) {
+        var data = response.hourly();
+        checkHourCount(data, hourCount);
+        dataList.add(data);
+      }
+      return List.copyOf(dataList);
+    }
+  }
+
+  // A response with missing hours must not be cached as complete year chunks
+  private static void checkHourCount(HourlyData data, int hourCount) throws IOException {
+    for (var variable : HourlyData.VARIABLES) {
+      var size = HourlyData.COLUMNS.size(data, variable);
+      if (size != hourCount) {
+        throw new IOException("Invalid number of hours for " + variable + ": " + size + " instead of " + hourCount);
+      }
+    }
+  }
 
-    var body = Fetch.cache(uri, Fetch::fetch);
+  // Default number of requests running at the same time
+  public static final int DEFAULT_MAX_CONCURRENCY = 8;
 
-    var response = OBJECT_READER.readValue(body, OpenMeteoResponse.class);
-    return response.hourly();
+  // The hourly data of several locations, fetched concurrently, in the same order as the locations.
+  // The chunks of a location are fetched one after the other, so at most maxConcurrency requests run at the same time
+  public static List<HourlyData> getHourlyData(List<LatLong> latLongs, LocalDate startDate, LocalDate endDate,
+                                               int maxConcurrency) throws IOException {
+    return Batch.map(latLongs, maxConcurrency,
+        latLong -> getHourlyData(latLong, startDate, endDate, HourlyData.VARIABLES, 1));
+  }
+
+  public static List<HourlyData> getHourlyData(List<LatLong> latLongs, LocalDate startDate, LocalDate endDate)
+      throws IOException {
+    return getHourlyData(latLongs, startDate, endDate, DEFAULT_MAX_CONCURRENCY);
+  }
+
+  public static MemoryCache.Stats memoryCacheStats() {
+    return MEMORY_CACHE.stats();
   }
 
   public record LatLong(double latitude, double longitude) {}
@@ -33,7 +205,20 @@ public final class WeatherService {
       @JsonProperty("temperature_2m") float[] temperatures,
       @JsonProperty("wind_speed_10m") float[] windspeeds,
       @JsonProperty("precipitation") float[] precipitations
-  ) {}
+  ) {
+    // One column per component, named by the Open-Meteo hourly variable of its @JsonProperty
+    static final RecordColumns<HourlyData> COLUMNS = RecordColumns.of(MethodHandles.lookup(), HourlyData.class);
+
+    // All the variables, in the order of the components
+    public static final List<String> VARIABLES = COLUMNS.names();
+
+    // The columns of the variables that are not queried are empty
+    public HourlyData {
+      temperatures = temperatures == null ? new float[0] : temperatures;
+      windspeeds = windspeeds == null ? new float[0] : windspeeds;
+      precipitations = precipitations == null ? new float[0] : precipitations;
+    }
+  }
 
   private record OpenMeteoResponse(HourlyData hourly) {}
 }
@@ -9,14 +9,37 @@ import java.util.List;
 import java.util.ListIterator;
 import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Spliterator;
 
-public interface AggregateList<E> extends List<E> {
+public interface AggregateList<E> extends List<E>, RandomAccess {
   E get(int index);
 
   E set(int index, E element);
 
   int size();
 
+  // Calls the consumer with the components of each element, the elements are not created.
+  // consumerType is a functional interface with one parameter per record component,
+  // e.g. interface TupleConsumer { void accept(int left, String right); }
+  // The components are the values of the lists as is, the canonical constructor of the record is not called,
+  // so a validation or a normalization done by the constructor is skipped, unlike with get().
+  <C> void forEachComponents(Class<C> consumerType, C consumer);
+
+  // Folds the components of each element, the elements are not created.
+  // reducerType is a functional interface that takes the accumulated value then one parameter per record component
+  // and returns the new accumulated value, e.g. interface TupleReducer { long apply(long sum, int left, String right); }
+  // As with forEachComponents(), the components are not validated nor normalized by the canonical constructor.
+  default <C, R> R reduce(Class<C> reducerType, R initial, C reducer) {
+    return reduce(0, size(), reducerType, initial, reducer);
+  }
+
+  // Same as reduce() on the elements in [fromIndex, toIndex), so several threads can fold parts of the list
+  // without creating the elements
+  <C, R> R reduce(int fromIndex, int toIndex, Class<C> reducerType, R initial, C reducer);
+
+  // indexOf() and lastIndexOf() are generated to compare the components column by column
+  // if the record uses the default equals()
   @Override
   default int indexOf(Object o) {
     if (o == null) {
@@ -122,6 +145,12 @@ public interface AggregateList<E> extends List<E> {
     };
   }
 
+  @Override
+  default Spliterator<E> spliterator() {
+    // get() always creates a new record, so elements are never null
+    return new IndexSpliterator<>(this::get, 0, size(), Spliterator.NONNULL);
+  }
+
   @Override
   default Object[] toArray() {
     var size = size();
@@ -139,7 +168,21 @@ public interface AggregateList<E> extends List<E> {
 
   @Override
   default boolean containsAll(Collection<?> c) {
-    return new HashSet<>(this).containsAll(c);
+    // with a few elements, scanning the columns is cheaper than creating and hashing all the records
+    if (c.size() <= 8) {
+      for (var e : c) {
+        if (!contains(e)) {
+          return false;
+        }
+      }
+      return true;
+    }
+    // otherwise only the argument is hashed
+    var remaining = new HashSet<Object>(c);
+    for (var i = 0; i < size() && !remaining.isEmpty(); i++) {
+      remaining.remove(get(i));
+    }
+    return remaining.isEmpty();
   }
 
   @Override
@@ -219,6 +262,17 @@ public interface AggregateList<E> extends List<E> {
     return list.asList().toString();
   }
 
+  static void defaultForEachComponents(MethodHandles.Lookup implLookup, Class<?> recordType, util.AggregateList<?> list,
+                                       Class<?> consumerType, Object consumer) { // called by generated code
+    AggregateListGenerator.forEachComponents(implLookup, recordType, list, consumerType, consumer);
+  }
+
+  static Object defaultReduce(MethodHandles.Lookup implLookup, Class<?> recordType, util.AggregateList<?> list,
+                              int fromIndex, int toIndex,
+                              Class<?> reducerType, Object initial, Object reducer) { // called by generated code
+    return AggregateListGenerator.reduce(implLookup, recordType, list, fromIndex, toIndex, reducerType, initial, reducer);
+  }
+
   interface Factory<E> {
     AggregateList<E> create(List<?> list0);
     AggregateList<E> create(List<?> list0, List<?> list1);
@@ -228,8 +282,14 @@ public interface AggregateList<E> extends List<E> {
     AggregateList<E> create(List<?> list0, List<?> list1, List<?> list2, List<?> list3, List<?> list4, List<?> list5);
     AggregateList<E> create(List<?> list0, List<?> list1, List<?> list2, List<?> list3, List<?> list4, List<?> list5, List<?> list6);
     AggregateList<E> create(List<?> list0, List<?> list1, List<?> list2, List<?> list3, List<?> list4, List<?> list5, List<?> list6, List<?> list7);
+
+    // one list per record component, whatever the number of components,
+    // the methods above are faster for the records with at most 8 components
+    // (not an overload of create(), create(null) would be ambiguous)
+    AggregateList<E> createFromLists(List<?>... lists);
   }
 
+  // the implementation is generated once per lookup class and record type, the next calls return the same factory
   static <E> AggregateList.Factory<E> factory(MethodHandles.Lookup lookup, Class<E> recordType) {
     Objects.requireNonNull(lookup);
     Objects.requireNonNull(recordType);
@@ -1,14 +1,26 @@
 package util;
 
+import java.io.IOException;
 import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
 import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.UndeclaredThrowableException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 import java.lang.classfile.*;
+import java.lang.classfile.instruction.FieldInstruction;
+import java.lang.classfile.instruction.InvokeDynamicInstruction;
+import java.lang.classfile.instruction.InvokeInstruction;
+import java.lang.classfile.instruction.LoadInstruction;
+import java.lang.classfile.instruction.ReturnInstruction;
 import java.lang.constant.ClassDesc;
 import java.lang.constant.MethodTypeDesc;
 import java.lang.reflect.RecordComponent;
@@ -68,7 +80,8 @@ final class AggregateListGenerator {
 
   private static final ClassDesc CD_AGGREGATE_LIST = ClassDesc.of(AggregateList.class.getName());
 
-  private static byte[] generateAggregateListImpl(Class<?> lookupClass, Class<?> recordType, RecordComponent[] components) {;
+  private static byte[] generateAggregateListImpl(Class<?> lookupClass, Class<?> recordType, RecordComponent[] components,
+                                                  List<Class<?>> fieldTypes) {
     var thisClass = ClassDesc.of(lookupClass.getPackageName(), "AggregateListImpl");
     return ClassFile.of().build(thisClass, cb -> {
       // Class modifiers and extends/implements
@@ -80,24 +93,49 @@ final class AggregateListGenerator {
       // Generate fields (list0, list1, etc.)
       for (var i = 0; i < components.length; i++) {
         var fieldName = "list" + i;
-        cb.withField(fieldName, CD_List, fb -> {
+        cb.withField(fieldName, fieldDesc(fieldTypes.get(i)), fb -> {
           fb.withFlags(ACC_PRIVATE | ACC_FINAL | ACC_STRICT);
         });
       }
 
       var recordDesc = ClassDesc.of(recordType.getName());
-      generateConstructor(cb, thisClass, components);
-      generateGetMethod(cb, thisClass, recordDesc, components);
-      generateSetMethod(cb, thisClass, recordDesc, components);
-      generateSizeMethod(cb, thisClass);
+      generateConstructor(cb, thisClass, components, fieldTypes);
+      generateGetMethod(cb, thisClass, recordDesc, components, fieldTypes);
+      generateSetMethod(cb, thisClass, recordDesc, components, fieldTypes);
+      generateSizeMethod(cb, thisClass, fieldTypes);
 
       generateEqualsMethod(cb);
       generateHashCodeMethod(cb);
       generateToStringMethod(cb);
+
+      generateForEachComponentsMethod(cb, recordDesc);
+      generateReduceMethod(cb, recordDesc);
+
+      // if equals(), the canonical constructor or an accessor is not the default one, indexOf() has to call equals()
+      if (hasDefaultRecordMethods(recordType, components)) {
+        generateIndexOfMethod(cb, thisClass, recordDesc, components, fieldTypes, false);
+        generateIndexOfMethod(cb, thisClass, recordDesc, components, fieldTypes, true);
+      }
     });
   }
 
-  private static void generateConstructor(ClassBuilder cb, ClassDesc thisClass, RecordComponent[] components) {
+  // A field is typed with the class of the column, a superclass of it or with List if no class is accessible
+  private static ClassDesc fieldDesc(Class<?> fieldType) {
+    return fieldType == List.class ? CD_List : ClassDesc.ofDescriptor(fieldType.descriptorString());
+  }
+
+  // Calls a method of List on a field, invokevirtual on the column class lets the JIT bind the call
+  // without type profile
+  private static void invokeList(CodeBuilder codeb, Class<?> fieldType, String name, MethodTypeDesc desc) {
+    if (fieldType == List.class) {
+      codeb.invokeinterface(CD_List, name, desc);
+      return;
+    }
+    codeb.invokevirtual(fieldDesc(fieldType), name, desc);
+  }
+
+  private static void generateConstructor(ClassBuilder cb, ClassDesc thisClass, RecordComponent[] components,
+                                          List<Class<?>> fieldTypes) {
     var constructorDesc = MethodTypeDesc.of(CD_void,
         Collections.nCopies(components.length, CD_List));
     cb.withMethod(INIT_NAME, constructorDesc, ACC_PUBLIC, mb -> {
@@ -107,7 +145,11 @@ final class AggregateListGenerator {
           var fieldName = "list" + i;
           codeb.aload(0);  // this
           codeb.aload(i + 1);  // parameter
-          codeb.putfield(thisClass, fieldName, CD_List);
+          var fieldType = fieldTypes.get(i);
+          if (fieldType != List.class) {
+            codeb.checkcast(fieldDesc(fieldType));
+          }
+          codeb.putfield(thisClass, fieldName, fieldDesc(fieldType));
         }
 
         // Call super()
@@ -186,7 +228,8 @@ final class AggregateListGenerator {
     }
   }
 
-  private static void generateGetMethod(ClassBuilder cb, ClassDesc thisClass, ClassDesc recordDesc, RecordComponent[] components) {
+  private static void generateGetMethod(ClassBuilder cb, ClassDesc thisClass, ClassDesc recordDesc, RecordComponent[] components,
+                                        List<Class<?>> fieldTypes) {
     var getDesc = MethodTypeDesc.of(CD_Object, CD_int);
     cb.withMethod("get", getDesc, ACC_PUBLIC, mb -> {
       mb.withCode(codeb -> {
@@ -198,9 +241,9 @@ final class AggregateListGenerator {
         for (var i = 0; i < components.length; i++) {
           var fieldName = "list" + i;
           codeb.aload(0);  // this
-          codeb.getfield(thisClass, fieldName, CD_List);
+          codeb.getfield(thisClass, fieldName, fieldDesc(fieldTypes.get(i)));
           codeb.iload(1);  // index parameter
-          codeb.invokeinterface(CD_List, "get",
+          invokeList(codeb, fieldTypes.get(i), "get",
               MethodTypeDesc.of(CD_Object, CD_int));
           unbox(codeb, components[i].getType());
         }
@@ -218,7 +261,8 @@ final class AggregateListGenerator {
     });
   }
 
-  private static void generateSetMethod(ClassBuilder cb, ClassDesc thisClass, ClassDesc recordDesc, RecordComponent[] components) {
+  private static void generateSetMethod(ClassBuilder cb, ClassDesc thisClass, ClassDesc recordDesc, RecordComponent[] components,
+                                        List<Class<?>> fieldTypes) {
     var setDesc = MethodTypeDesc.of(CD_Object, CD_int, CD_Object);
     cb.withMethod("set", setDesc, ACC_PUBLIC, mb -> {
       mb.withCode(codeb -> {
@@ -233,14 +277,14 @@ final class AggregateListGenerator {
         // Set each component in the corresponding list
         for (var i = 0; i < components.length; i++) {
           codeb.aload(0);  // this
-          codeb.getfield(thisClass, "list" + i, CD_List);
+          codeb.getfield(thisClass, "list" + i, fieldDesc(fieldTypes.get(i)));
           codeb.iload(1);  // index
           codeb.aload(2);  // element parameter
           codeb.checkcast(recordDesc);
           codeb.invokevirtual(recordDesc, components[i].getName(),
               MethodTypeDesc.of(ClassDesc.ofDescriptor(components[i].getType().descriptorString())));  // call record accessor
           box(codeb, components[i].getType());
-          codeb.invokeinterface(CD_List, "set",
+          invokeList(codeb, fieldTypes.get(i), "set",
               MethodTypeDesc.of(CD_Object, CD_int, CD_Object));
           codeb.pop();  // discard return value
         }
@@ -252,12 +296,12 @@ final class AggregateListGenerator {
     });
   }
 
-  private static void generateSizeMethod(ClassBuilder cb, ClassDesc thisClass) {
+  private static void generateSizeMethod(ClassBuilder cb, ClassDesc thisClass, List<Class<?>> fieldTypes) {
     cb.withMethod("size", MethodTypeDesc.of(CD_int), ACC_PUBLIC, mb -> {
       mb.withCode(codeb -> {
         codeb.aload(0);  // this
-        codeb.getfield(thisClass, "list0", CD_List);
-        codeb.invokeinterface(CD_List, "size", MethodTypeDesc.of(CD_int));
+        codeb.getfield(thisClass, "list0", fieldDesc(fieldTypes.getFirst()));
+        invokeList(codeb, fieldTypes.getFirst(), "size", MethodTypeDesc.of(CD_int));
         codeb.ireturn();
       });
     });
@@ -299,115 +343,745 @@ final class AggregateListGenerator {
 
 
 
-  static <E> AggregateList.Factory<E> factory(MethodHandles.Lookup lookup, Class<E> recordType) {
-    record AggregateFactoryImpl<E>(MethodHandle mh) implements AggregateList.Factory<E> {
-      @Override
-      @SuppressWarnings("unchecked")
-      public AggregateList<E> create(List<?> list0) {
-        Objects.requireNonNull(list0);
-        try {
-          return (AggregateList<E>) mh.invokeExact(list0);
-        } catch (RuntimeException | Error e) {
-          throw e;
-        } catch (Throwable e) {
-          throw new UndeclaredThrowableException(e);
-        }
+  private static final ClassDesc CD_OBJECTS = ClassDesc.of("java.util.Objects");
+  private static final ClassDesc CD_OBJECT_METHODS = ClassDesc.of("java.lang.runtime.ObjectMethods");
+
+  // true if indexOf() can compare the components of the argument with the values of the columns,
+  // the record must use the default equals(), the implicit canonical constructor (get() creates a record
+  // with the values of the columns as is) and the implicit accessors (they return the fields compared by equals())
+  private static boolean hasDefaultRecordMethods(Class<?> recordType, RecordComponent[] components) {
+    var className = recordType.getName();
+    try (var input = recordType.getResourceAsStream(className.substring(className.lastIndexOf('.') + 1) + ".class")) {
+      if (input == null) {
+        return false;
       }
+      var classModel = ClassFile.of().parse(input.readAllBytes());
+      return hasDefaultEquals(classModel)
+          && hasImplicitCanonicalConstructor(classModel, components)
+          && hasImplicitAccessors(classModel, components);
+    } catch (IOException | IllegalArgumentException e) {
+      return false;
+    }
+  }
 
-      @Override
-      @SuppressWarnings("unchecked")
-      public AggregateList<E> create(List<?> list0, List<?> list1) {
-        checkListSize(list0, list1);
-        try {
-          return (AggregateList<E>) mh.invokeExact(list0, list1);
-        } catch (RuntimeException | Error e) {
-          throw e;
-        } catch (Throwable e) {
-          throw new UndeclaredThrowableException(e);
-        }
+  // true if equals() is the one generated by javac for a record (calls ObjectMethods.bootstrap),
+  // so two records are equal if their components are equal.
+  // The bytecode is read from the .class resource of the record, a record without a readable resource
+  // (a record defined at runtime or by a class loader that does not expose its classes) is considered
+  // as having its own equals(), so it loses the generated indexOf()/lastIndexOf() and uses the default ones
+  private static boolean hasDefaultEquals(ClassModel classModel) {
+    return classModel.methods().stream()
+        .filter(method -> method.methodName().equalsString("equals")
+            && method.methodType().equalsString("(Ljava/lang/Object;)Z"))
+        .flatMap(method -> method.code().stream())
+        .flatMap(CodeModel::elementStream)
+        .anyMatch(element -> element instanceof InvokeDynamicInstruction indy
+            && indy.bootstrapMethod().owner().equals(CD_OBJECT_METHODS));
+  }
+
+  private static List<Instruction> instructions(ClassModel classModel, String name, MethodTypeDesc desc) {
+    return classModel.methods().stream()
+        .filter(method -> method.methodName().equalsString(name)
+            && method.methodType().equalsString(desc.descriptorString()))
+        .flatMap(method -> method.code().stream())
+        .flatMap(CodeModel::elementStream)
+        .<Instruction>mapMulti((element, consumer) -> {
+          if (element instanceof Instruction instruction) {
+            consumer.accept(instruction);
+          }
+        })
+        .toList();
+  }
+
+  private static ClassDesc componentDesc(RecordComponent component) {
+    return ClassDesc.ofDescriptor(component.getType().descriptorString());
+  }
+
+  // true if the canonical constructor only calls super() and stores each parameter in its field,
+  // a compact constructor that validates or normalizes a parameter does something else
+  private static boolean hasImplicitCanonicalConstructor(ClassModel classModel, RecordComponent[] components) {
+    var constructorDesc = MethodTypeDesc.of(CD_void,
+        Arrays.stream(components).map(AggregateListGenerator::componentDesc).toList());
+    var slotMap = new HashMap<String, Integer>();
+    var slot = 1;
+    for (var component : components) {
+      slotMap.put(component.getName(), slot);
+      slot += TypeKind.from(component.getType()).slotSize();
+    }
+    var instructions = instructions(classModel, INIT_NAME, constructorDesc);
+    if (instructions.isEmpty()) {
+      return false;
+    }
+    for (var i = 0; i < instructions.size(); i++) {
+      var ok = switch (instructions.get(i)) {
+        // this.field = parameter
+        case FieldInstruction field when field.opcode() == Opcode.PUTFIELD ->
+            i >= 2
+            && instructions.get(i - 1) instanceof LoadInstruction load
+            && slotMap.getOrDefault(field.name().stringValue(), -1) == load.slot()
+            && instructions.get(i - 2) instanceof LoadInstruction thisLoad && thisLoad.slot() == 0;
+        case LoadInstruction _, ReturnInstruction _ -> true;
+        case InvokeInstruction invoke -> invoke.opcode() == Opcode.INVOKESPECIAL && invoke.name().equalsString(INIT_NAME);
+        default -> false;
+      };
+      if (!ok) {
+        return false;
       }
+    }
+    return true;
+  }
 
-      @Override
-      @SuppressWarnings("unchecked")
-      public AggregateList<E> create(List<?> list0, List<?> list1, List<?> list2) {
-        checkListSize(list0, list1, list2);
-        try {
-          return (AggregateList<E>) mh.invokeExact(list0, list1, list2);
-        } catch (RuntimeException | Error e) {
-          throw e;
-        } catch (Throwable e) {
-          throw new UndeclaredThrowableException(e);
-        }
+  // true if each accessor only returns its field
+  private static boolean hasImplicitAccessors(ClassModel classModel, RecordComponent[] components) {
+    for (var component : components) {
+      var instructions = instructions(classModel, component.getName(), MethodTypeDesc.of(componentDesc(component)));
+      if (instructions.size() != 3
+          || !(instructions.get(0) instanceof LoadInstruction load && load.slot() == 0)
+          || !(instructions.get(1) instanceof FieldInstruction field && field.opcode() == Opcode.GETFIELD
+              && field.name().equalsString(component.getName()))
+          || !(instructions.get(2) instanceof ReturnInstruction)) {
+        return false;
       }
+    }
+    return true;
+  }
 
-      @Override
-      @SuppressWarnings("unchecked")
-      public AggregateList<E> create(List<?> list0, List<?> list1, List<?> list2, List<?> list3) {
-        checkListSize(list0, list1, list2, list3);
-        try {
-          return (AggregateList<E>) mh.invokeExact(list0, list1, list2, list3);
-        } catch (RuntimeException | Error e) {
-          throw e;
-        } catch (Throwable e) {
-          throw new UndeclaredThrowableException(e);
-        }
+  /* model of indexOf, lastIndexOf() loops backward
+  public int indexOf(Object o) {
+    if (!(o instanceof Tuple tuple)) {
+      return -1;  // get() never returns null or a record of another class
+    }
+    Object left = tuple.left();  // boxed once
+    Object right = tuple.right();
+    var size = list0.size();
+    for (var i = 0; i < size; i++) {
+      if (Objects.equals(left, list0.get(i)) && Objects.equals(right, list1.get(i))) {
+        return i;
       }
+    }
+    return -1;
+  }*/
 
-      @Override
-      @SuppressWarnings("unchecked")
-      public AggregateList<E> create(List<?> list0, List<?> list1, List<?> list2, List<?> list3, List<?> list4) {
-        checkListSize(list0, list1, list2, list3, list4);
-        try {
-          return (AggregateList<E>) mh.invokeExact(list0, list1, list2, list3, list4);
-        } catch (RuntimeException | Error e) {
-          throw e;
-        } catch (Throwable e) {
-          throw new UndeclaredThrowableException(e);
+  private static void generateIndexOfMethod(ClassBuilder cb, ClassDesc thisClass, ClassDesc recordDesc, RecordComponent[] components,
+                                            List<Class<?>> fieldTypes, boolean last) {
+    cb.withMethod(last ? "lastIndexOf" : "indexOf", MethodTypeDesc.of(CD_int, CD_Object), ACC_PUBLIC, mb -> {
+      mb.withCode(codeb -> {
+        var notFound = codeb.newLabel();
+        var loop = codeb.newLabel();
+        var next = codeb.newLabel();
+        var componentSlot = 2;
+        var indexSlot = componentSlot + components.length;
+
+        codeb.aload(1);  // o parameter
+        codeb.instanceOf(recordDesc);
+        codeb.ifeq(notFound);
+
+        // destructure the record once
+        for (var i = 0; i < components.length; i++) {
+          var componentType = components[i].getType();
+          codeb.aload(1);
+          codeb.checkcast(recordDesc);
+          codeb.invokevirtual(recordDesc, components[i].getName(),
+              MethodTypeDesc.of(ClassDesc.ofDescriptor(componentType.descriptorString())));  // call record accessor
+          box(codeb, componentType);
+          codeb.astore(componentSlot + i);
+        }
+
+        // index = 0 or index = size - 1
+        if (last) {
+          codeb.aload(0);  // this
+          codeb.getfield(thisClass, "list0", fieldDesc(fieldTypes.getFirst()));
+          invokeList(codeb, fieldTypes.getFirst(), "size", MethodTypeDesc.of(CD_int));
+          codeb.iconst_1();
+          codeb.isub();
+        } else {
+          codeb.iconst_0();
+        }
+        codeb.istore(indexSlot);
+
+        codeb.labelBinding(loop);
+        codeb.iload(indexSlot);
+        if (last) {
+          codeb.iflt(notFound);
+        } else {
+          codeb.aload(0);  // this
+          codeb.getfield(thisClass, "list0", fieldDesc(fieldTypes.getFirst()));
+          invokeList(codeb, fieldTypes.getFirst(), "size", MethodTypeDesc.of(CD_int));
+          codeb.if_icmpge(notFound);
         }
-      }
 
-      @Override
-      @SuppressWarnings("unchecked")
-      public AggregateList<E> create(List<?> list0, List<?> list1, List<?> list2, List<?> list3, List<?> list4, List<?> list5) {
-        checkListSize(list0, list1, list2, list3, list4, list5);
-        try {
-          return (AggregateList<E>) mh.invokeExact(list0, list1, list2, list3, list4, list5);
-        } catch (RuntimeException | Error e) {
-          throw e;
-        } catch (Throwable e) {
-          throw new UndeclaredThrowableException(e);
+        // compare column by column, stop at the first difference
+        for (var i = 0; i < components.length; i++) {
+          codeb.aload(componentSlot + i);
+          codeb.aload(0);  // this
+          codeb.getfield(thisClass, "list" + i, fieldDesc(fieldTypes.get(i)));
+          codeb.iload(indexSlot);
+          invokeList(codeb, fieldTypes.get(i), "get", MethodTypeDesc.of(CD_Object, CD_int));
+          codeb.invokestatic(CD_OBJECTS, "equals", MethodTypeDesc.of(CD_boolean, CD_Object, CD_Object));
+          codeb.ifeq(next);
         }
+        codeb.iload(indexSlot);
+        codeb.ireturn();
+
+        codeb.labelBinding(next);
+        codeb.iinc(indexSlot, last ? -1 : 1);
+        codeb.goto_(loop);
+
+        codeb.labelBinding(notFound);
+        codeb.iconst_m1();
+        codeb.ireturn();
+      });
+    });
+  }
+
+  private static void generateForEachComponentsMethod(ClassBuilder cb, ClassDesc recordDesc) {
+    cb.withMethod("forEachComponents", MethodTypeDesc.of(CD_void, CD_Class, CD_Object), ACC_PUBLIC, mb -> {
+      mb.withCode(codeb -> {
+        // the lookup gives access to the fields of this class
+        codeb.invokestatic(CD_MethodHandles, "lookup", MethodTypeDesc.of(CD_MethodHandles_Lookup));
+        codeb.ldc(recordDesc);
+        codeb.aload(0);  // this
+        codeb.aload(1);  // consumerType parameter
+        codeb.aload(2);  // consumer parameter
+        codeb.invokestatic(CD_AGGREGATE_LIST, "defaultForEachComponents",
+            MethodTypeDesc.of(CD_void, CD_MethodHandles_Lookup, CD_Class, CD_AGGREGATE_LIST, CD_Class, CD_Object), true);
+        codeb.return_();
+      });
+    });
+  }
+
+  private static void generateReduceMethod(ClassBuilder cb, ClassDesc recordDesc) {
+    cb.withMethod("reduce", MethodTypeDesc.of(CD_Object, CD_int, CD_int, CD_Class, CD_Object, CD_Object), ACC_PUBLIC, mb -> {
+      mb.withCode(codeb -> {
+        // the lookup gives access to the fields of this class
+        codeb.invokestatic(CD_MethodHandles, "lookup", MethodTypeDesc.of(CD_MethodHandles_Lookup));
+        codeb.ldc(recordDesc);
+        codeb.aload(0);  // this
+        codeb.iload(1);  // fromIndex parameter
+        codeb.iload(2);  // toIndex parameter
+        codeb.aload(3);  // reducerType parameter
+        codeb.aload(4);  // initial parameter
+        codeb.aload(5);  // reducer parameter
+        codeb.invokestatic(CD_AGGREGATE_LIST, "defaultReduce",
+            MethodTypeDesc.of(CD_Object, CD_MethodHandles_Lookup, CD_Class, CD_AGGREGATE_LIST, CD_int, CD_int, CD_Class, CD_Object, CD_Object), true);
+        codeb.areturn();
+      });
+    });
+  }
+
+  /* model of the loop generated for an implementation and a function type
+  public final class AggregateListLoop {
+    public static long loop(List<?> list0, List<?> list1, TupleReducer reducer, long accumulator,
+                            int fromIndex, int toIndex) {
+      for (var i = fromIndex; i < toIndex; i++) {
+        accumulator = reducer.apply(accumulator, (Integer) list0.get(i), (String) list1.get(i));
+      }
+      return accumulator;
+    }
+
+    public static void loop(List<?> list0, List<?> list1, TupleConsumer consumer) {
+      var size = list0.size();
+      for (var i = 0; i < size; i++) {
+        consumer.accept((Integer) list0.get(i), (String) list1.get(i));
+      }
+    }
+  }*/
+
+  private static byte[] generateLoop(Class<?> implClass, Class<?> functionType, Method method, RecordComponent[] components,
+                                     List<Class<?>> fieldTypes, boolean reduce) {
+    var thisClass = ClassDesc.of(implClass.getPackageName(), "AggregateListLoop");
+    var functionDesc = ClassDesc.ofDescriptor(functionType.descriptorString());
+    var methodDesc = MethodTypeDesc.ofDescriptor(
+        MethodType.methodType(method.getReturnType(), method.getParameterTypes()).toMethodDescriptorString());
+    var accumulatorType = method.getReturnType();
+    var parameterDescs = new ArrayList<ClassDesc>();
+    for (var fieldType : fieldTypes) {
+      parameterDescs.add(fieldDesc(fieldType));
+    }
+    parameterDescs.add(functionDesc);
+    if (reduce) {
+      parameterDescs.add(ClassDesc.ofDescriptor(accumulatorType.descriptorString()));
+      parameterDescs.add(CD_int);  // fromIndex
+      parameterDescs.add(CD_int);  // toIndex
+    }
+    var loopDesc = MethodTypeDesc.of(ClassDesc.ofDescriptor(accumulatorType.descriptorString()), parameterDescs);
+    return ClassFile.of().build(thisClass, cb -> {
+      cb.withVersion(JAVA_27_VERSION, PREVIEW_MINOR_VERSION);
+      cb.withFlags(ACC_PUBLIC | ACC_FINAL | ACC_IDENTITY);
+      cb.withSuperclass(CD_Object);
+
+      cb.withMethod("loop", loopDesc, ACC_PUBLIC | ACC_STATIC, mb -> {
+        mb.withCode(codeb -> {
+          var functionSlot = components.length;
+          var accumulatorSlot = functionSlot + 1;
+          var accumulatorKind = TypeKind.from(accumulatorType);
+          int endSlot;
+          int indexSlot;
+          if (reduce) {
+            // for (var i = fromIndex; i < toIndex; i++)
+            var fromIndexSlot = accumulatorSlot + accumulatorKind.slotSize();
+            endSlot = fromIndexSlot + 1;
+            indexSlot = endSlot + 1;
+            codeb.iload(fromIndexSlot);
+            codeb.istore(indexSlot);
+          } else {
+            // var size = list0.size(); for (var i = 0; i < size; i++)
+            endSlot = accumulatorSlot;
+            indexSlot = endSlot + 1;
+            codeb.aload(0);
+            invokeList(codeb, fieldTypes.getFirst(), "size", MethodTypeDesc.of(CD_int));
+            codeb.istore(endSlot);
+            codeb.iconst_0();
+            codeb.istore(indexSlot);
+          }
+          var loop = codeb.newLabel();
+          var end = codeb.newLabel();
+          codeb.labelBinding(loop);
+          codeb.iload(indexSlot);
+          codeb.iload(endSlot);
+          codeb.if_icmpge(end);
+
+          // call the function with the components of the element at index i
+          codeb.aload(functionSlot);
+          if (reduce) {
+            codeb.loadLocal(accumulatorKind, accumulatorSlot);
+          }
+          for (var i = 0; i < components.length; i++) {
+            codeb.aload(i);
+            codeb.iload(indexSlot);
+            invokeList(codeb, fieldTypes.get(i), "get", MethodTypeDesc.of(CD_Object, CD_int));
+            unbox(codeb, components[i].getType());
+          }
+          codeb.invokeinterface(functionDesc, method.getName(), methodDesc);
+          if (reduce) {
+            codeb.storeLocal(accumulatorKind, accumulatorSlot);
+          }
+          codeb.iinc(indexSlot, 1);
+          codeb.goto_(loop);
+
+          codeb.labelBinding(end);
+          if (reduce) {
+            codeb.loadLocal(accumulatorKind, accumulatorSlot);
+            codeb.return_(accumulatorKind);
+          } else {
+            codeb.return_();
+          }
+        });
+      });
+    });
+  }
+
+  // The abstract method of a functional interface
+  private static Method functionalMethod(Class<?> functionType) {
+    if (!functionType.isInterface()) {
+      throw new IllegalArgumentException("Invalid function type, not an interface: " + functionType.getName());
+    }
+    Method functionalMethod = null;
+    for (var method : functionType.getMethods()) {
+      if (!Modifier.isAbstract(method.getModifiers()) || isObjectMethod(method)) {
+        continue;
+      }
+      if (functionalMethod != null) {
+        throw new IllegalArgumentException("Invalid function type, more than one abstract method: " + functionType.getName());
+      }
+      functionalMethod = method;
+    }
+    if (functionalMethod == null) {
+      throw new IllegalArgumentException("Invalid function type, no abstract method: " + functionType.getName());
+    }
+    return functionalMethod;
+  }
+
+  private static boolean isObjectMethod(Method method) {
+    try {
+      Object.class.getMethod(method.getName(), method.getParameterTypes());
+      return true;
+    } catch (NoSuchMethodException _) {
+      return false;
+    }
+  }
+
+  // Loops already generated for an implementation class, by consumer type and by reducer type
+  private record Loops(ConcurrentHashMap<Class<?>, MethodHandle> forEachLoops,
+                       ConcurrentHashMap<Class<?>, MethodHandle> reduceLoops) {}
+
+  private static final ClassValue<Loops> LOOPS = new ClassValue<>() {
+    @Override
+    protected Loops computeValue(Class<?> implClass) {
+      return new Loops(new ConcurrentHashMap<>(), new ConcurrentHashMap<>());
+    }
+  };
+
+  private static void checkImplLookup(MethodHandles.Lookup implLookup, AggregateList<?> list) {
+    if (implLookup.lookupClass() != list.getClass() || !implLookup.hasFullPrivilegeAccess()) {
+      throw new IllegalArgumentException("Invalid lookup: " + implLookup);
+    }
+  }
+
+  static void forEachComponents(MethodHandles.Lookup implLookup, Class<?> recordType, AggregateList<?> list,
+                                Class<?> consumerType, Object consumer) {
+    checkImplLookup(implLookup, list);
+    consumerType.cast(Objects.requireNonNull(consumer));
+    var loop = LOOPS.get(list.getClass()).forEachLoops()
+        .computeIfAbsent(consumerType, _ -> loopMH(implLookup, recordType, consumerType, false));
+    try {
+      loop.invokeExact(list, consumer);
+    } catch (RuntimeException | Error e) {
+      throw e;
+    } catch (Throwable e) {
+      throw new UndeclaredThrowableException(e);
+    }
+  }
+
+  static Object reduce(MethodHandles.Lookup implLookup, Class<?> recordType, AggregateList<?> list,
+                       int fromIndex, int toIndex, Class<?> reducerType, Object initial, Object reducer) {
+    checkImplLookup(implLookup, list);
+    Objects.checkFromToIndex(fromIndex, toIndex, list.size());
+    reducerType.cast(Objects.requireNonNull(reducer));
+    var loop = LOOPS.get(list.getClass()).reduceLoops()
+        .computeIfAbsent(reducerType, _ -> loopMH(implLookup, recordType, reducerType, true));
+    try {
+      return (Object) loop.invokeExact(list, reducer, initial, fromIndex, toIndex);
+    } catch (RuntimeException | Error e) {
+      throw e;
+    } catch (Throwable e) {
+      throw new UndeclaredThrowableException(e);
+    }
+  }
+
+  // Method handle (AggregateList, function) -> void or (AggregateList, function, initial, fromIndex, toIndex) -> Object
+  // that calls the generated loop with the fields of the implementation
+  private static MethodHandle loopMH(MethodHandles.Lookup implLookup, Class<?> recordType, Class<?> functionType, boolean reduce) {
+    var components = recordType.getRecordComponents();
+    var method = functionalMethod(functionType);
+    var parameterTypes = method.getParameterTypes();
+    var accumulatorType = method.getReturnType();
+    var offset = reduce ? 1 : 0;
+    if (parameterTypes.length != offset + components.length
+        || (reduce ? accumulatorType == void.class || parameterTypes[0] != accumulatorType : accumulatorType != void.class)) {
+      throw new IllegalArgumentException("Invalid function type, wrong signature: " + functionType.getName());
+    }
+    for (var i = 0; i < components.length; i++) {
+      var parameterType = parameterTypes[offset + i];
+      var componentType = components[i].getType();
+      if (parameterType != componentType && (componentType.isPrimitive() || !parameterType.isAssignableFrom(componentType))) {
+        throw new IllegalArgumentException("Invalid function type, parameter " + (offset + i) + " is not a " + componentType.getName() + ": " + functionType.getName());
+      }
+    }
+
+    var implClass = implLookup.lookupClass();
+    var fieldTypes = new ArrayList<Class<?>>();
+    var getters = new MethodHandle[components.length];
+    try {
+      implLookup.accessClass(functionType);
+      for (var i = 0; i < components.length; i++) {
+        var fieldType = implClass.getDeclaredField("list" + i).getType();
+        fieldTypes.add(fieldType);
+        getters[i] = implLookup.findGetter(implClass, "list" + i, fieldType);
+      }
+    } catch (NoSuchFieldException e) {
+      throw (NoSuchFieldError) new NoSuchFieldError().initCause(e);
+    } catch (IllegalAccessException e) {
+      throw (IllegalAccessError) new IllegalAccessError().initCause(e);
+    }
+
+    var classBytes = generateLoop(implClass, functionType, method, components, fieldTypes, reduce);
+    MethodHandle loop;
+    try {
+      var loopLookup = implLookup.defineHiddenClass(classBytes, true, NESTMATE, STRONG);
+      var loopParameterTypes = new ArrayList<Class<?>>(fieldTypes);
+      loopParameterTypes.add(functionType);
+      if (reduce) {
+        loopParameterTypes.add(accumulatorType);
+        loopParameterTypes.add(int.class);
+        loopParameterTypes.add(int.class);
+      }
+      loop = loopLookup.findStatic(loopLookup.lookupClass(), "loop", MethodType.methodType(accumulatorType, loopParameterTypes));
+    } catch (NoSuchMethodException e) {
+      throw (NoSuchMethodError) new NoSuchMethodError().initCause(e);
+    } catch (IllegalAccessException e) {
+      throw (IllegalAccessError) new IllegalAccessError().initCause(e);
+    }
+
+    // (list0, list1, ..., function[, accumulator, fromIndex, toIndex])
+    //   -> (implementation, function[, accumulator, fromIndex, toIndex])
+    loop = MethodHandles.filterArguments(loop, 0, getters);
+    var reorder = new int[components.length + 1 + (reduce ? 3 : 0)];
+    reorder[components.length] = 1;
+    if (reduce) {
+      reorder[components.length + 1] = 2;
+      reorder[components.length + 2] = 3;
+      reorder[components.length + 3] = 4;
+      loop = MethodHandles.permuteArguments(loop,
+          MethodType.methodType(accumulatorType, implClass, functionType, accumulatorType, int.class, int.class), reorder);
+      return loop.asType(MethodType.methodType(Object.class, AggregateList.class, Object.class, Object.class, int.class, int.class));
+    }
+    loop = MethodHandles.permuteArguments(loop, MethodType.methodType(void.class, implClass, functionType), reorder);
+    return loop.asType(MethodType.methodType(void.class, AggregateList.class, Object.class));
+  }
+
+  // A generated implementation for some field types, its hidden class and its constructor,
+  // mh takes one list per component, spreader takes all the lists as an array
+  private record Implementation(Class<?> implClass, MethodHandle mh, MethodHandle spreader) {}
+
+  // Factories per lookup class then per record type, so the hidden classes are only defined once
+  // per (lookup class, record type, field types) and are unloaded with the lookup class
+  private static final ClassValue<ConcurrentHashMap<Class<?>, AggregateFactoryImpl<?>>> FACTORIES = new ClassValue<>() {
+    @Override
+    protected ConcurrentHashMap<Class<?>, AggregateFactoryImpl<?>> computeValue(Class<?> lookupClass) {
+      return new ConcurrentHashMap<>();
+    }
+  };
+
+  // Maximum number of implementations per record type,
+  // after that the columns of a new combination of classes are typed as List
+  private static final int MAX_IMPLEMENTATIONS = 8;
+
+  // Maximum number of combinations of column classes remembered per record type,
+  // the map keeps the column classes alive, so after that a new combination is not remembered
+  private static final int MAX_COLUMN_IMPLEMENTATIONS = 32;
+
+  @SuppressWarnings("unchecked")
+  static <E> AggregateList.Factory<E> factory(MethodHandles.Lookup lookup, Class<E> recordType) {
+    // the hidden class is defined by the first lookup, the others must have the same access
+    if (!lookup.hasFullPrivilegeAccess()) {
+      throw new IllegalAccessError("lookup must have full privilege access: " + lookup);
+    }
+    var factories = FACTORIES.get(lookup.lookupClass());
+    return (AggregateList.Factory<E>) factories.computeIfAbsent(recordType, _ -> new AggregateFactoryImpl<>(lookup, recordType));
+  }
+
+  // Hidden classes already generated for a lookup class
+  static List<Class<?>> implementationClasses(Class<?> lookupClass) {
+    Objects.requireNonNull(lookupClass);
+    return FACTORIES.get(lookupClass).values().stream()
+        .<Class<?>>mapMulti((factory, consumer) -> {
+          for (var implementation : factory.implementations.values()) {
+            consumer.accept(implementation.implClass());
+          }
+        })
+        .toList();
+  }
+
+  // The implementation is specialized on the classes of the columns, each combination of column classes has
+  // its own hidden class, so the calls to get() are monomorphic even if the factory is used with different lists
+  private static final class AggregateFactoryImpl<E> implements AggregateList.Factory<E> {
+    private final MethodHandles.Lookup lookup;
+    private final Class<?> recordType;
+    private final RecordComponent[] components;
+    // by field types, or by column classes if a column class can not be named (for example a hidden class)
+    private final ConcurrentHashMap<List<Class<?>>, Implementation> implementations = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<List<Class<?>>, Implementation> columnImplementations = new ConcurrentHashMap<>();  // by column classes
+    private volatile ColumnImplementation lastColumnImplementation;  // the last combination of column classes used
+
+    // The implementation of a combination of column classes
+    private record ColumnImplementation(Class<?>[] columnClasses, Implementation implementation) {}
+
+    private AggregateFactoryImpl(MethodHandles.Lookup lookup, Class<?> recordType) {
+      this.lookup = lookup;
+      this.recordType = recordType;
+      this.components = recordType.getRecordComponents();
+    }
+
+    private Implementation implementation(List<?>... lists) {
+      if (lists.length != components.length) {
+        throw new IllegalArgumentException("Invalid number of lists: " + lists.length + " (expected " + components.length + ")");
+      }
+      // fast path, a factory is usually called with the same column classes
+      var last = lastColumnImplementation;
+      if (last != null && hasColumnClasses(last.columnClasses, lists)) {
+        return last.implementation;
+      }
+      var columnClasses = new Class<?>[lists.length];
+      for (var i = 0; i < lists.length; i++) {
+        columnClasses[i] = lists[i].getClass();
       }
+      var key = List.of(columnClasses);
+      var implementation = columnImplementations.get(key);
+      if (implementation == null) {
+        implementation = columnImplementations.size() >= MAX_COLUMN_IMPLEMENTATIONS ?
+            columnImplementation(key) :
+            columnImplementations.computeIfAbsent(key, this::columnImplementation);
+      }
+      lastColumnImplementation = new ColumnImplementation(columnClasses, implementation);
+      return implementation;
+    }
 
-      @Override
-      @SuppressWarnings("unchecked")
-      public AggregateList<E> create(List<?> list0, List<?> list1, List<?> list2, List<?> list3, List<?> list4, List<?> list5, List<?> list6) {
-        checkListSize(list0, list1, list2, list3, list4, list5, list6);
-        try {
-          return (AggregateList<E>) mh.invokeExact(list0, list1, list2, list3, list4, list5, list6);
-        } catch (RuntimeException | Error e) {
-          throw e;
-        } catch (Throwable e) {
-          throw new UndeclaredThrowableException(e);
+    private static boolean hasColumnClasses(Class<?>[] columnClasses, List<?>[] lists) {
+      for (var i = 0; i < lists.length; i++) {
+        if (lists[i].getClass() != columnClasses[i]) {
+          return false;
         }
       }
+      return true;
+    }
 
-      @Override
-      @SuppressWarnings("unchecked")
-      public AggregateList<E> create(List<?> list0, List<?> list1, List<?> list2, List<?> list3, List<?> list4, List<?> list5, List<?> list6, List<?> list7) {
-        checkListSize(list0, list1, list2, list3, list4, list5, list6, list7);
-        try {
-          return (AggregateList<E>) mh.invokeExact(list0, list1, list2, list3, list4, list5, list6, list7);
-        } catch (RuntimeException | Error e) {
-          throw e;
-        } catch (Throwable e) {
-          throw new UndeclaredThrowableException(e);
+    private Implementation columnImplementation(List<Class<?>> columnClasses) {
+      var fieldTypes = columnClasses.stream().<Class<?>>map(this::fieldType).toList();
+      // if a field is typed with a superclass of the column class, the combination still has its own class,
+      // so the type profiles of the calls to the columns are not shared with the other column classes
+      var key = fieldTypes.equals(columnClasses) ? fieldTypes : columnClasses;
+      if (implementations.size() >= MAX_IMPLEMENTATIONS && !implementations.containsKey(key)) {
+        fieldTypes = Collections.<Class<?>>nCopies(components.length, List.class);
+        key = fieldTypes;
+      }
+      var types = fieldTypes;
+      return implementations.computeIfAbsent(key, _ -> defineImplementation(lookup, recordType, components, types));
+    }
+
+    // The generated code can only use a class if it can access it by its name, so a column class that can not
+    // be named (for example the hidden classes of FlatListFactory) is replaced by its nearest superclass
+    // that can be named and is still a List, or by List
+    private Class<?> fieldType(Class<?> columnClass) {
+      for (Class<?> type = columnClass; type != null && List.class.isAssignableFrom(type); type = type.getSuperclass()) {
+        if (canBeNamed(type)) {
+          return type;
         }
       }
+      return List.class;
+    }
+
+    private boolean canBeNamed(Class<?> type) {
+      if (type.isHidden()) {
+        return false;
+      }
+      try {
+        lookup.accessClass(type);
+        return Class.forName(type.getName(), false, lookup.lookupClass().getClassLoader()) == type;
+      } catch (IllegalAccessException | ClassNotFoundException _) {
+        return false;
+      }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public AggregateList<E> create(List<?> list0) {
+      Objects.requireNonNull(list0);
+      var mh = implementation(list0).mh();
+      try {
+        return (AggregateList<E>) mh.invokeExact(list0);
+      } catch (RuntimeException | Error e) {
+        throw e;
+      } catch (Throwable e) {
+        throw new UndeclaredThrowableException(e);
+      }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public AggregateList<E> create(List<?> list0, List<?> list1) {
+      checkListSize(list0, list1);
+      var mh = implementation(list0, list1).mh();
+      try {
+        return (AggregateList<E>) mh.invokeExact(list0, list1);
+      } catch (RuntimeException | Error e) {
+        throw e;
+      } catch (Throwable e) {
+        throw new UndeclaredThrowableException(e);
+      }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public AggregateList<E> create(List<?> list0, List<?> list1, List<?> list2) {
+      checkListSize(list0, list1, list2);
+      var mh = implementation(list0, list1, list2).mh();
+      try {
+        return (AggregateList<E>) mh.invokeExact(list0, list1, list2);
+      } catch (RuntimeException | Error e) {
+        throw e;
+      } catch (Throwable e) {
+        throw new UndeclaredThrowableException(e);
+      }
     }
 
-    var mh = createMH(lookup, recordType);
-    return new AggregateFactoryImpl<>(mh);
+    @Override
+    @SuppressWarnings("unchecked")
+    public AggregateList<E> create(List<?> list0, List<?> list1, List<?> list2, List<?> list3) {
+      checkListSize(list0, list1, list2, list3);
+      var mh = implementation(list0, list1, list2, list3).mh();
+      try {
+        return (AggregateList<E>) mh.invokeExact(list0, list1, list2, list3);
+      } catch (RuntimeException | Error e) {
+        throw e;
+      } catch (Throwable e) {
+        throw new UndeclaredThrowableException(e);
+      }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public AggregateList<E> create(List<?> list0, List<?> list1, List<?> list2, List<?> list3, List<?> list4) {
+      checkListSize(list0, list1, list2, list3, list4);
+      var mh = implementation(list0, list1, list2, list3, list4).mh();
+      try {
+        return (AggregateList<E>) mh.invokeExact(list0, list1, list2, list3, list4);
+      } catch (RuntimeException | Error e) {
+        throw e;
+      } catch (Throwable e) {
+        throw new UndeclaredThrowableException(e);
+      }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public AggregateList<E> create(List<?> list0, List<?> list1, List<?> list2, List<?> list3, List<?> list4, List<?> list5) {
+      checkListSize(list0, list1, list2, list3, list4, list5);
+      var mh = implementation(list0, list1, list2, list3, list4, list5).mh();
+      try {
+        return (AggregateList<E>) mh.invokeExact(list0, list1, list2, list3, list4, list5);
+      } catch (RuntimeException | Error e) {
+        throw e;
+      } catch (Throwable e) {
+        throw new UndeclaredThrowableException(e);
+      }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public AggregateList<E> create(List<?> list0, List<?> list1, List<?> list2, List<?> list3, List<?> list4, List<?> list5, List<?> list6) {
+      checkListSize(list0, list1, list2, list3, list4, list5, list6);
+      var mh = implementation(list0, list1, list2, list3, list4, list5, list6).mh();
+      try {
+        return (AggregateList<E>) mh.invokeExact(list0, list1, list2, list3, list4, list5, list6);
+      } catch (RuntimeException | Error e) {
+        throw e;
+      } catch (Throwable e) {
+        throw new UndeclaredThrowableException(e);
+      }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public AggregateList<E> create(List<?> list0, List<?> list1, List<?> list2, List<?> list3, List<?> list4, List<?> list5, List<?> list6, List<?> list7) {
+      checkListSize(list0, list1, list2, list3, list4, list5, list6, list7);
+      var mh = implementation(list0, list1, list2, list3, list4, list5, list6, list7).mh();
+      try {
+        return (AggregateList<E>) mh.invokeExact(list0, list1, list2, list3, list4, list5, list6, list7);
+      } catch (RuntimeException | Error e) {
+        throw e;
+      } catch (Throwable e) {
+        throw new UndeclaredThrowableException(e);
+      }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public AggregateList<E> createFromLists(List<?>... lists) {
+      var columns = lists.clone();  // implicit null check, and the array can not be changed after the check
+      if (columns.length != components.length) {
+        throw new IllegalArgumentException("Invalid number of lists: " + columns.length + " (expected " + components.length + ")");
+      }
+      checkListSize(columns);
+      var spreader = implementation(columns).spreader();
+      try {
+        return (AggregateList<E>) spreader.invokeExact(columns);
+      } catch (RuntimeException | Error e) {
+        throw e;
+      } catch (Throwable e) {
+        throw new UndeclaredThrowableException(e);
+      }
+    }
   }
 
   private static void checkListSize(List<?>... lists) {
@@ -423,9 +1097,9 @@ final class AggregateListGenerator {
     }
   }
 
-  private static MethodHandle createMH(MethodHandles.Lookup lookup, Class<?> recordType) {
-    var components = recordType.getRecordComponents();
-    var classBytes = generateAggregateListImpl(lookup.lookupClass(), recordType, components);
+  private static Implementation defineImplementation(MethodHandles.Lookup lookup, Class<?> recordType,
+                                                     RecordComponent[] components, List<Class<?>> fieldTypes) {
+    var classBytes = generateAggregateListImpl(lookup.lookupClass(), recordType, components, fieldTypes);
 
     // DEBUG
     /*ClassFile.of().parse(classBytes).methods().forEach(method -> {
@@ -451,7 +1125,9 @@ final class AggregateListGenerator {
     } catch (IllegalAccessException e) {
       throw (IllegalAccessError) new IllegalAccessError().initCause(e);
     }
-    return constructor.asType(methodType.changeReturnType(AggregateList.class));
+    var mh = constructor.asType(methodType.changeReturnType(AggregateList.class));
+    var spreader = mh.asSpreader(List[].class, components.length);
+    return new Implementation(implLookup.lookupClass(), mh, spreader);
   }
 
   // Example usage
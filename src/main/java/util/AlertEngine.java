@@ -0,0 +1,686 @@
+package util;
+
+import java.lang.classfile.ClassBuilder;
+import java.lang.classfile.ClassFile;
+import java.lang.classfile.CodeBuilder;
+import java.lang.classfile.TypeKind;
+import java.lang.constant.ClassDesc;
+import java.lang.constant.DynamicConstantDesc;
+import java.lang.constant.MethodTypeDesc;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+import static java.lang.classfile.ClassFile.*;
+import static java.lang.constant.ConstantDescs.*;
+
+/**
+ * Evaluates alert rules on hourly columns in one streaming pass.
+ * <p>
+ * The rules are compiled to the bytecode of hidden classes, the thresholds, the window sizes
+ * and the column accesses are constants of the generated code, so there is no interpretation at runtime.
+ * A driver reads the value of each column once per hour and calls a step per group of rules,
+ * the state of the rules (the current runs, the rolling sums and the last values of the columns
+ * used by a rolling sum) is allocated at the start of each evaluation.
+ * A column is either a {@code float[]} or a {@code List} of records with one float component
+ * (for example a flat list of value records), the accessor of the record is called with a method handle
+ * created from the lookup of the caller, so the record does not have to be public.
+ * <p>
+ * An engine is stateless and can evaluate the columns of several locations concurrently.
+ *
+ * <pre>
+ *   var engine = AlertEngine.compile(MethodHandles.lookup(), List.of(float[].class, float[].class),
+ *       List.of(new Threshold(1, GREATER_THAN, 60f, 3),      // wind > 60 km/h for 3 consecutive hours
+ *               new RollingSum(0, 24, GREATER_THAN, 40f)));  // 24h rolling precipitation > 40 mm
+ *   var alerts = engine.alerts(precipitations, windspeeds);
+ * </pre>
+ */
+public final class AlertEngine {
+  public enum Comparison { GREATER_THAN, LESS_THAN }
+
+  public sealed interface Rule permits Threshold, RollingSum {
+    int column();
+  }
+
+  /** The value of the column is compared to the threshold during at least hourCount consecutive hours */
+  public record Threshold(int column, Comparison comparison, float threshold, int hourCount) implements Rule {
+    public Threshold {
+      Objects.requireNonNull(comparison);
+      if (column < 0) {
+        throw new IllegalArgumentException("Invalid column: " + column);
+      }
+      if (Float.isNaN(threshold)) {
+        throw new IllegalArgumentException("Invalid threshold: " + threshold);
+      }
+      if (hourCount < 1) {
+        throw new IllegalArgumentException("Invalid hourCount: " + hourCount);
+      }
+    }
+  }
+
+  /** The sum of the values of the column over the last windowHours hours is compared to the threshold */
+  public record RollingSum(int column, int windowHours, Comparison comparison, float threshold) implements Rule {
+    public RollingSum {
+      Objects.requireNonNull(comparison);
+      if (column < 0) {
+        throw new IllegalArgumentException("Invalid column: " + column);
+      }
+      if (windowHours < 1) {
+        throw new IllegalArgumentException("Invalid windowHours: " + windowHours);
+      }
+      if (Float.isNaN(threshold)) {
+        throw new IllegalArgumentException("Invalid threshold: " + threshold);
+      }
+    }
+  }
+
+  /** Called when a rule becomes true, hour is the index of the hour when the rule becomes true */
+  @FunctionalInterface
+  public interface AlertListener {
+    void alert(int rule, int hour);
+  }
+
+  public record Alert(int rule, int hour) {}
+
+  // implemented by the generated driver, reads the value of each column once per hour of [fromHour, toHour)
+  // and calls the active steps, the state of the rules is kept between two calls
+  interface Evaluator {
+    void evaluate(Object[] columns, int fromHour, int toHour, boolean[] activeSteps,
+                  float[] values, int[] counters, double[] sums, float[] history, AlertListener listener);
+  }
+
+  // implemented by the generated classes, one per group of rules, evaluates the rules of the group on one hour
+  interface Step {
+    void step(int hour, float[] values, int[] counters, double[] sums, float[] history, AlertListener listener);
+  }
+
+  // HotSpot does not JIT-compile methods bigger than 8000 bytes,
+  // so the rules are split in groups, one generated step per group
+  private static final int RULES_PER_STEP = 64;
+
+  private final List<Class<?>> columnTypes;
+  private final List<Rule> rules;
+  private final int historySize;
+  private final Evaluator evaluator;
+
+  private AlertEngine(List<Class<?>> columnTypes, List<Rule> rules, int historySize, Evaluator evaluator) {
+    this.columnTypes = columnTypes;
+    this.rules = rules;
+    this.historySize = historySize;
+    this.evaluator = evaluator;
+  }
+
+  /**
+   * Compiles the rules.
+   * @param lookup a lookup that can access the record classes of the columns and their accessors.
+   * @param columnTypes the type of each column, either float[].class or a record class with one float component.
+   * @param rules the rules, the index of a rule in the list is the index reported to the listener.
+   * @throws IllegalAccessError if the lookup can not access a record class or its accessor.
+   */
+  public static AlertEngine compile(MethodHandles.Lookup lookup, List<? extends Class<?>> columnTypes,
+                                    List<? extends Rule> rules) {
+    Objects.requireNonNull(lookup);
+    List<Class<?>> types = List.copyOf(columnTypes);
+    List<Rule> ruleList = List.copyOf(rules);
+    // the accessor of each record column, null for a float[] column
+    var accessors = new MethodHandle[types.size()];
+    for (var i = 0; i < types.size(); i++) {
+      accessors[i] = accessor(lookup, types.get(i));
+    }
+    // the last values of a column used by a rolling sum are kept in a ring buffer, as long as the largest window
+    var historyWindows = new int[types.size()];
+    for (var rule : ruleList) {
+      if (rule.column() >= types.size()) {
+        throw new IllegalArgumentException("Invalid column: " + rule.column());
+      }
+      if (rule instanceof RollingSum rollingSum) {
+        historyWindows[rule.column()] = Math.max(historyWindows[rule.column()], rollingSum.windowHours());
+      }
+    }
+    // the ring buffers of all the columns are stored in one array, historyOffsets[types.size()] is its length
+    var historyOffsets = new int[types.size() + 1];
+    for (var i = 0; i < types.size(); i++) {
+      historyOffsets[i + 1] = Math.addExact(historyOffsets[i], historyWindows[i]);
+    }
+    var steps = new ArrayList<Step>();
+    for (var start = 0; start < ruleList.size(); start += RULES_PER_STEP) {
+      var end = Math.min(ruleList.size(), start + RULES_PER_STEP);
+      steps.add(createStep(ruleList.subList(start, end), start, historyWindows, historyOffsets));
+    }
+    var evaluator = createEvaluator(types, accessors, ruleList, steps, historyWindows, historyOffsets);
+    return new AlertEngine(types, ruleList, historyOffsets[types.size()], evaluator);
+  }
+
+  // Returns the accessor of the record column, as a (Object)float, or null for a float[] column
+  private static MethodHandle accessor(MethodHandles.Lookup lookup, Class<?> columnType) {
+    if (columnType == float[].class) {
+      return null;
+    }
+    var components = columnType.getRecordComponents();
+    if (components == null || components.length != 1 || components[0].getType() != float.class) {
+      throw new IllegalArgumentException("Invalid column type: " + columnType.getName());
+    }
+    try {
+      lookup.accessClass(columnType);
+      return lookup.unreflect(components[0].getAccessor())
+          .asType(MethodType.methodType(float.class, Object.class));
+    } catch (IllegalAccessException e) {
+      throw (IllegalAccessError) new IllegalAccessError().initCause(e);
+    }
+  }
+
+  public int ruleCount() {
+    return rules.size();
+  }
+
+  /**
+   * Evaluates the rules on the columns in one pass, the alerts are reported to the listener in hour order,
+   * and in rule order for the same hour
+   */
+  public void evaluate(Object[] columns, AlertListener listener) {
+    Objects.requireNonNull(columns);
+    evaluate(columns, new ZoneMap[columns.length], listener);
+  }
+
+  /**
+   * Same as {@link #evaluate(Object[], AlertListener)} but the zone maps of the columns are used to skip
+   * the blocks of hours where a group of rules can not become true.
+   * A threshold rule can not become true in a block if no value of the block is greater than
+   * (or less than) the threshold, its run is reset and the block is skipped.
+   * A rolling sum can not skip a block, the sum of a window depends on the values of the previous block
+   * and each value has to be added then removed from the window, so a group with a rolling sum
+   * is evaluated on all the hours.
+   * @param zoneMaps the zone map of each column or null, the zone maps must summarize the values of the columns
+   *                 and have the same block size.
+   */
+  public void evaluate(Object[] columns, ZoneMap[] zoneMaps, AlertListener listener) {
+    Objects.requireNonNull(columns);
+    Objects.requireNonNull(zoneMaps);
+    Objects.requireNonNull(listener);
+    var hourCount = checkColumns(columns);
+    var blockSize = checkZoneMaps(zoneMaps, hourCount);
+    var values = new float[columnTypes.size()];
+    var counters = new int[rules.size()];
+    var sums = new double[rules.size()];
+    var history = new float[historySize];
+    var activeSteps = new boolean[(rules.size() + RULES_PER_STEP - 1) / RULES_PER_STEP];
+    if (blockSize == 0) {  // no zone map
+      Arrays.fill(activeSteps, true);
+      evaluator.evaluate(columns, 0, hourCount, activeSteps, values, counters, sums, history, listener);
+      return;
+    }
+    for (var block = 0; block * blockSize < hourCount; block++) {
+      var active = false;
+      for (var step = 0; step < activeSteps.length; step++) {
+        activeSteps[step] = !canSkip(step, zoneMaps, block);
+        if (!activeSteps[step]) {
+          // all the rules of the step are threshold rules, a run is broken by the block
+          for (var rule = step * RULES_PER_STEP; rule < Math.min(rules.size(), (step + 1) * RULES_PER_STEP); rule++) {
+            counters[rule] = 0;
+          }
+        }
+        active |= activeSteps[step];
+      }
+      if (active) {
+        var fromHour = block * blockSize;
+        var toHour = Math.min(hourCount, fromHour + blockSize);
+        evaluator.evaluate(columns, fromHour, toHour, activeSteps, values, counters, sums, history, listener);
+      }
+    }
+  }
+
+  // Returns true if no rule of the step can become true in the block
+  private boolean canSkip(int step, ZoneMap[] zoneMaps, int block) {
+    for (var rule = step * RULES_PER_STEP; rule < Math.min(rules.size(), (step + 1) * RULES_PER_STEP); rule++) {
+      if (!(rules.get(rule) instanceof Threshold threshold)) {
+        return false;
+      }
+      var zoneMap = zoneMaps[threshold.column()];
+      if (zoneMap == null) {
+        return false;
+      }
+      // false if the min or the max is NaN
+      var noMatch = switch (threshold.comparison()) {
+        case GREATER_THAN -> zoneMap.max(block) <= threshold.threshold();
+        case LESS_THAN -> zoneMap.min(block) >= threshold.threshold();
+      };
+      if (!noMatch) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** Returns the alerts of the rules on the columns */
+  public List<Alert> alerts(Object... columns) {
+    var alerts = new ArrayList<Alert>();
+    evaluate(columns, (rule, hour) -> alerts.add(new Alert(rule, hour)));
+    return alerts;
+  }
+
+  /** Returns the alerts of the rules on the columns, the blocks that can not match are skipped using the zone maps */
+  public List<Alert> alerts(ZoneMap[] zoneMaps, Object[] columns) {
+    var alerts = new ArrayList<Alert>();
+    evaluate(columns, zoneMaps, (rule, hour) -> alerts.add(new Alert(rule, hour)));
+    return alerts;
+  }
+
+  // Returns the block size of the zone maps, 0 if there is no zone map
+  private int checkZoneMaps(ZoneMap[] zoneMaps, int hourCount) {
+    if (zoneMaps.length != columnTypes.size()) {
+      throw new IllegalArgumentException("Invalid number of zone maps: " + zoneMaps.length);
+    }
+    var blockSize = 0;
+    for (var zoneMap : zoneMaps) {
+      if (zoneMap == null) {
+        continue;
+      }
+      if (zoneMap.size() != hourCount) {
+        throw new IllegalArgumentException("zone map size " + zoneMap.size() + " != column size " + hourCount);
+      }
+      if (blockSize != 0 && zoneMap.blockSize() != blockSize) {
+        throw new IllegalArgumentException("zone maps must have the same block size");
+      }
+      blockSize = zoneMap.blockSize();
+    }
+    return blockSize;
+  }
+
+  private int checkColumns(Object[] columns) {
+    if (columns.length != columnTypes.size()) {
+      throw new IllegalArgumentException("Invalid number of columns: " + columns.length);
+    }
+    var hourCount = -1;
+    for (var i = 0; i < columns.length; i++) {
+      var column = Objects.requireNonNull(columns[i], "column " + i + " is null");
+      int length;
+      if (columnTypes.get(i) == float[].class) {
+        if (!(column instanceof float[] array)) {
+          throw new IllegalArgumentException("column " + i + " is not a float[]");
+        }
+        length = array.length;
+      } else {
+        if (!(column instanceof List<?> list)) {
+          throw new IllegalArgumentException("column " + i + " is not a List");
+        }
+        length = list.size();
+      }
+      if (hourCount != -1 && length != hourCount) {
+        throw new IllegalArgumentException("columns must have the same length");
+      }
+      hourCount = length;
+    }
+    return Math.max(0, hourCount);
+  }
+
+  /* model, for the rules Threshold(1, GREATER_THAN, 60f, 3) and RollingSum(0, 24, GREATER_THAN, 40f)
+  final class AlertEvaluatorImpl implements Evaluator {
+    // history contains the last 24 values of column0
+    public void evaluate(Object[] columns, int fromHour, int toHour, boolean[] activeSteps,
+                         float[] values, int[] counters, double[] sums, float[] history, AlertListener listener) {
+      var column0 = (float[]) columns[0];
+      var column1 = (List<?>) columns[1];
+      for (var hour = fromHour; hour < toHour; hour++) {
+        values[0] = column0[hour];
+        values[1] = (float) ACCESSOR_1.invokeExact(column1.get(hour));  // constant from the class data
+        if (activeSteps[0]) {
+          STEP_0.step(hour, values, counters, sums, history, listener);  // constant from the class data
+        }
+        history[0 + hour % 24] = values[0];
+      }
+    }
+  }
+
+  final class AlertStepImpl implements Step {
+    public void step(int hour, float[] values, int[] counters, double[] sums, float[] history, AlertListener listener) {
+      var value0 = values[0];
+      var value1 = values[1];
+
+      if (value1 > 60f) {
+        if (++counters[0] == 3) {
+          listener.alert(0, hour);
+        }
+      } else {
+        counters[0] = 0;
+      }
+
+      // the value of 24 hours before, 0 during the first 24 hours
+      var sum1 = sums[1] + value0 - history[0 + (hour + 24 - 24) % 24];
+      sums[1] = sum1;
+      if (hour >= 23 && sum1 > 40.0) {
+        if (counters[1] == 0) {
+          counters[1] = 1;
+          listener.alert(1, hour);
+        }
+      } else {
+        counters[1] = 0;
+      }
+    }
+  }*/
+
+  private static final ClassDesc CD_EVALUATOR = ClassDesc.of(Evaluator.class.getName());
+  private static final ClassDesc CD_STEP = ClassDesc.of(Step.class.getName());
+  private static final ClassDesc CD_ALERT_LISTENER = ClassDesc.of(AlertListener.class.getName());
+  private static final ClassDesc CD_FLOAT_ARRAY = CD_float.arrayType();
+  private static final MethodTypeDesc EVALUATE_DESC =
+      MethodTypeDesc.of(CD_void, CD_Object.arrayType(), CD_int, CD_int, CD_boolean.arrayType(),
+          CD_FLOAT_ARRAY, CD_int.arrayType(), CD_double.arrayType(), CD_FLOAT_ARRAY, CD_ALERT_LISTENER);
+  private static final MethodTypeDesc STEP_DESC =
+      MethodTypeDesc.of(CD_void, CD_int, CD_FLOAT_ARRAY, CD_int.arrayType(), CD_double.arrayType(), CD_FLOAT_ARRAY,
+          CD_ALERT_LISTENER);
+
+  private static byte[] generateClass(String name, ClassDesc interfaceDesc, Consumer<ClassBuilder> methodGenerator) {
+    var thisClass = ClassDesc.of(AlertEngine.class.getPackageName(), name);
+    return ClassFile.of().build(thisClass, cb -> {
+      cb.withVersion(JAVA_27_VERSION, PREVIEW_MINOR_VERSION);
+      cb.withFlags(ACC_PUBLIC | ACC_FINAL | ACC_IDENTITY);
+      cb.withSuperclass(CD_Object);
+      cb.withInterfaceSymbols(interfaceDesc);
+
+      generateConstructor(cb);
+      methodGenerator.accept(cb);
+    });
+  }
+
+  private static void generateConstructor(ClassBuilder cb) {
+    cb.withMethod(INIT_NAME, MTD_void, ACC_PUBLIC, mb -> {
+      mb.withCode(codeb -> {
+        codeb.aload(0);
+        codeb.invokespecial(CD_Object, INIT_NAME, MTD_void);
+        codeb.return_();
+      });
+    });
+  }
+
+  // the class data of the driver is the accessors of the columns followed by the steps
+  private static void generateEvaluateMethod(ClassBuilder cb, List<Class<?>> columnTypes, List<Rule> rules,
+                                             int stepCount, int[] historyWindows, int[] historyOffsets) {
+    cb.withMethod("evaluate", EVALUATE_DESC, ACC_PUBLIC, mb -> {
+      mb.withCode(codeb -> {
+        // slots: 0 this, 1 columns, 2 fromHour, 3 toHour, 4 activeSteps,
+        // 5 values, 6 counters, 7 sums, 8 history, 9 listener
+
+        // load the used columns once
+        var columnSlots = new int[columnTypes.size()];
+        for (var rule : rules) {
+          var column = rule.column();
+          if (columnSlots[column] != 0) {
+            continue;
+          }
+          columnSlots[column] = codeb.allocateLocal(TypeKind.REFERENCE);
+          codeb.aload(1);
+          codeb.loadConstant(column);
+          codeb.aaload();
+          codeb.checkcast(columnTypes.get(column) == float[].class ? CD_FLOAT_ARRAY : CD_List);
+          codeb.astore(columnSlots[column]);
+        }
+
+        // for (var hour = fromHour; hour < toHour; hour++) {
+        var hourSlot = codeb.allocateLocal(TypeKind.INT);
+        codeb.iload(2);
+        codeb.istore(hourSlot);
+        var loop = codeb.newLabel();
+        var end = codeb.newLabel();
+        codeb.labelBinding(loop);
+        codeb.iload(hourSlot);
+        codeb.iload(3);
+        codeb.if_icmpge(end);
+
+        // read the values of the hour once
+        for (var column = 0; column < columnTypes.size(); column++) {
+          if (columnSlots[column] == 0) {
+            continue;
+          }
+          codeb.aload(5);  // values
+          codeb.loadConstant(column);
+          loadValue(codeb, columnTypes.get(column), column, columnSlots[column], hourSlot);
+          codeb.fastore();
+        }
+
+        // if (activeSteps[i]) { STEP_i.step(...); }, the step is a constant, so the JIT inlines it like a direct call
+        for (var i = 0; i < stepCount; i++) {
+          var inactive = codeb.newLabel();
+          codeb.aload(4);
+          codeb.loadConstant(i);
+          codeb.baload();
+          codeb.ifeq(inactive);
+          codeb.loadConstant(DynamicConstantDesc.ofNamed(BSM_CLASS_DATA_AT, DEFAULT_NAME, CD_STEP,
+              columnTypes.size() + i));
+          codeb.iload(hourSlot);
+          codeb.aload(5);  // values
+          codeb.aload(6);  // counters
+          codeb.aload(7);  // sums
+          codeb.aload(8);  // history
+          codeb.aload(9);  // listener
+          codeb.invokeinterface(CD_STEP, "step", STEP_DESC);
+          codeb.labelBinding(inactive);
+        }
+
+        // history[offset + hour % window] = values[column], after the steps that read the value of window hours before
+        for (var column = 0; column < columnTypes.size(); column++) {
+          if (historyWindows[column] == 0) {
+            continue;
+          }
+          codeb.aload(8);  // history
+          codeb.iload(hourSlot);
+          codeb.loadConstant(historyWindows[column]);
+          codeb.irem();
+          codeb.loadConstant(historyOffsets[column]);
+          codeb.iadd();
+          codeb.aload(5);  // values
+          codeb.loadConstant(column);
+          codeb.faload();
+          codeb.fastore();
+        }
+
+        codeb.iinc(hourSlot, 1);
+        codeb.goto_(loop);
+        codeb.labelBinding(end);
+        codeb.return_();
+      });
+    });
+  }
+
+  // push the float value of the column at the hour
+  private static void loadValue(CodeBuilder codeb, Class<?> columnType, int column, int columnSlot, int hourSlot) {
+    if (columnType == float[].class) {
+      codeb.aload(columnSlot);
+      codeb.iload(hourSlot);
+      codeb.faload();
+      return;
+    }
+    // the accessor is a constant, so the JIT inlines it like a direct call
+    codeb.loadConstant(DynamicConstantDesc.ofNamed(BSM_CLASS_DATA_AT, DEFAULT_NAME, CD_MethodHandle, column));
+    codeb.aload(columnSlot);
+    codeb.iload(hourSlot);
+    codeb.invokeinterface(CD_List, "get", MethodTypeDesc.of(CD_Object, CD_int));
+    codeb.invokevirtual(CD_MethodHandle, "invokeExact", MethodTypeDesc.of(CD_float, CD_Object));
+  }
+
+  private static void generateStepMethod(ClassBuilder cb, List<? extends Rule> rules, int ruleOffset,
+                                         int[] historyWindows, int[] historyOffsets) {
+    cb.withMethod("step", STEP_DESC, ACC_PUBLIC, mb -> {
+      mb.withCode(codeb -> {
+        // slots: 0 this, 1 hour, 2 values, 3 counters, 4 sums, 5 history, 6 listener
+
+        // load the used values once
+        var valueSlots = new int[historyWindows.length];
+        for (var rule : rules) {
+          var column = rule.column();
+          if (valueSlots[column] != 0) {
+            continue;
+          }
+          valueSlots[column] = codeb.allocateLocal(TypeKind.FLOAT);
+          codeb.aload(2);
+          codeb.loadConstant(column);
+          codeb.faload();
+          codeb.fstore(valueSlots[column]);
+        }
+
+        for (var i = 0; i < rules.size(); i++) {
+          var ruleIndex = ruleOffset + i;
+          switch (rules.get(i)) {
+            case Threshold threshold ->
+                generateThreshold(codeb, threshold, ruleIndex, valueSlots[threshold.column()]);
+            case RollingSum rollingSum -> {
+              var column = rollingSum.column();
+              generateRollingSum(codeb, rollingSum, ruleIndex, valueSlots[column],
+                  historyWindows[column], historyOffsets[column]);
+            }
+          }
+        }
+        codeb.return_();
+      });
+    });
+  }
+
+  // if (value CMP threshold) { if (++counters[rule] == hourCount) { listener.alert(rule, hour); } }
+  // else { counters[rule] = 0; }
+  private static void generateThreshold(CodeBuilder codeb, Threshold threshold, int ruleIndex, int valueSlot) {
+    var noMatch = codeb.newLabel();
+    var next = codeb.newLabel();
+    codeb.fload(valueSlot);
+    codeb.loadConstant(threshold.threshold());
+    switch (threshold.comparison()) {
+      case GREATER_THAN -> {
+        codeb.fcmpl();  // NaN -> -1
+        codeb.ifle(noMatch);
+      }
+      case LESS_THAN -> {
+        codeb.fcmpg();  // NaN -> 1
+        codeb.ifge(noMatch);
+      }
+    }
+    codeb.aload(3);
+    codeb.loadConstant(ruleIndex);
+    codeb.dup2();
+    codeb.iaload();
+    codeb.iconst_1();
+    codeb.iadd();
+    codeb.dup_x2();
+    codeb.iastore();
+    codeb.loadConstant(threshold.hourCount());
+    codeb.if_icmpne(next);
+    generateAlert(codeb, ruleIndex);
+    codeb.goto_(next);
+    codeb.labelBinding(noMatch);
+    codeb.aload(3);
+    codeb.loadConstant(ruleIndex);
+    codeb.iconst_0();
+    codeb.iastore();
+    codeb.labelBinding(next);
+  }
+
+  // sum = sums[rule] + value - history[offset + (hour + historyWindow - window) % historyWindow]; sums[rule] = sum;
+  // if (hour >= window - 1 && sum CMP threshold) { if (counters[rule] == 0) { counters[rule] = 1; listener.alert(rule, hour); } }
+  // else { counters[rule] = 0; }
+  private static void generateRollingSum(CodeBuilder codeb, RollingSum rollingSum, int ruleIndex, int valueSlot,
+                                         int historyWindow, int historyOffset) {
+    var window = rollingSum.windowHours();
+    var sumSlot = codeb.allocateLocal(TypeKind.DOUBLE);
+    codeb.aload(4);
+    codeb.loadConstant(ruleIndex);
+    codeb.daload();
+    codeb.fload(valueSlot);
+    codeb.f2d();
+    codeb.dadd();
+    // the value of window hours before, the ring buffer is still 0 during the first hours
+    codeb.aload(5);
+    codeb.iload(1);
+    codeb.loadConstant(historyWindow - window);
+    codeb.iadd();
+    codeb.loadConstant(historyWindow);
+    codeb.irem();
+    codeb.loadConstant(historyOffset);
+    codeb.iadd();
+    codeb.faload();
+    codeb.f2d();
+    codeb.dsub();
+    codeb.dstore(sumSlot);
+    codeb.aload(4);
+    codeb.loadConstant(ruleIndex);
+    codeb.dload(sumSlot);
+    codeb.dastore();
+
+    var inactive = codeb.newLabel();
+    var next = codeb.newLabel();
+    codeb.iload(1);
+    codeb.loadConstant(window - 1);
+    codeb.if_icmplt(inactive);
+    codeb.dload(sumSlot);
+    codeb.loadConstant((double) rollingSum.threshold());
+    switch (rollingSum.comparison()) {
+      case GREATER_THAN -> {
+        codeb.dcmpl();
+        codeb.ifle(inactive);
+      }
+      case LESS_THAN -> {
+        codeb.dcmpg();
+        codeb.ifge(inactive);
+      }
+    }
+    codeb.aload(3);
+    codeb.loadConstant(ruleIndex);
+    codeb.iaload();
+    codeb.ifne(next);
+    codeb.aload(3);
+    codeb.loadConstant(ruleIndex);
+    codeb.iconst_1();
+    codeb.iastore();
+    generateAlert(codeb, ruleIndex);
+    codeb.goto_(next);
+    codeb.labelBinding(inactive);
+    codeb.aload(3);
+    codeb.loadConstant(ruleIndex);
+    codeb.iconst_0();
+    codeb.iastore();
+    codeb.labelBinding(next);
+  }
+
+  private static void generateAlert(CodeBuilder codeb, int ruleIndex) {
+    codeb.aload(6);  // listener
+    codeb.loadConstant(ruleIndex);
+    codeb.iload(1);  // hour
+    codeb.invokeinterface(CD_ALERT_LISTENER, "alert", MethodTypeDesc.of(CD_void, CD_int, CD_int));
+  }
+
+  private static Step createStep(List<? extends Rule> rules, int ruleOffset, int[] historyWindows,
+                                 int[] historyOffsets) {
+    var classBytes = generateClass("AlertStepImpl", CD_STEP,
+        cb -> generateStepMethod(cb, rules, ruleOffset, historyWindows, historyOffsets));
+    return (Step) newInstance(classBytes, List.of());
+  }
+
+  private static Evaluator createEvaluator(List<Class<?>> columnTypes, MethodHandle[] accessors, List<Rule> rules,
+                                           List<Step> steps, int[] historyWindows, int[] historyOffsets) {
+    var classBytes = generateClass("AlertEvaluatorImpl", CD_EVALUATOR,
+        cb -> generateEvaluateMethod(cb, columnTypes, rules, steps.size(), historyWindows, historyOffsets));
+    // the class data is the list of the accessors followed by the steps (a list that allows null)
+    var classData = new ArrayList<Object>(Arrays.asList(accessors));
+    classData.addAll(steps);
+    return (Evaluator) newInstance(classBytes, classData);
+  }
+
+  private static Object newInstance(byte[] classBytes, List<?> classData) {
+    try {
+      // not STRONG, the class can be unloaded with the engine
+      var implLookup = MethodHandles.lookup().defineHiddenClassWithClassData(classBytes, classData, true);
+      var constructor = implLookup.findConstructor(implLookup.lookupClass(), MethodType.methodType(void.class));
+      return constructor.invoke();
+    } catch (IllegalAccessException e) {
+      throw (IllegalAccessError) new IllegalAccessError().initCause(e);
+    } catch (NoSuchMethodException e) {
+      throw (NoSuchMethodError) new NoSuchMethodError().initCause(e);
+    } catch (RuntimeException | Error e) {
+      throw e;
+    } catch (Throwable e) {
+      throw new UndeclaredThrowableException(e);
+    }
+  }
+}
@@ -0,0 +1,90 @@
+package util;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Runs I/O bound tasks concurrently, one virtual thread per task.
+ */
+public final class Batch {
+  private Batch() {
+    throw new AssertionError();
+  }
+
+  @FunctionalInterface
+  public interface Task<T, R> {
+    R run(T element) throws IOException;
+  }
+
+  /**
+   * Applies the task to all the elements concurrently, at most {@code maxConcurrency} tasks run at the same time.
+   * The results are in the same order as the elements.
+   * If a task fails, the other tasks are cancelled and the exception is propagated.
+   */
+  public static <T, R> List<R> map(List<? extends T> elements, int maxConcurrency,
+                                   Task<? super T, ? extends R> task) throws IOException {
+    Objects.requireNonNull(elements);
+    Objects.requireNonNull(task);
+    if (maxConcurrency < 1) {
+      throw new IllegalArgumentException("Invalid maxConcurrency: " + maxConcurrency);
+    }
+    var semaphore = new Semaphore(maxConcurrency);
+    var futures = new ArrayList<Future<R>>(elements.size());
+    try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      var completionService = new ExecutorCompletionService<R>(executor);
+      for (var element : elements) {
+        futures.add(completionService.submit(() -> {
+          semaphore.acquire();
+          try {
+            return task.run(element);
+          } finally {
+            semaphore.release();
+          }
+        }));
+      }
+      // wait in completion order, so the first failure cancels the other tasks
+      // before the executor waits for them
+      try {
+        for (var i = 0; i < futures.size(); i++) {
+          var future = completionService.take();
+          try {
+            future.get();
+          } catch (ExecutionException e) {
+            futures.forEach(f -> f.cancel(true));
+            throw rethrow(e.getCause());
+          }
+        }
+      } catch (InterruptedException e) {
+        futures.forEach(f -> f.cancel(true));
+        throw (InterruptedIOException) new InterruptedIOException().initCause(e);
+      }
+      var results = new ArrayList<R>(elements.size());
+      for (var future : futures) {
+        results.add(future.resultNow());
+      }
+      return results;
+    }
+  }
+
+  private static IOException rethrow(Throwable cause) {
+    if (cause instanceof IOException ioException) {
+      return ioException;
+    }
+    if (cause instanceof RuntimeException runtimeException) {
+      throw runtimeException;
+    }
+    if (cause instanceof Error error) {
+      throw error;
+    }
+    throw new UndeclaredThrowableException(cause);
+  }
+}
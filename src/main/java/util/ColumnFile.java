@@ -0,0 +1,133 @@
+package util;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.net.URI;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Objects;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * A binary file format that stores columns of floats, so they can be loaded without any parsing.
+ * <pre>
+ *   int magic ('WACF'), int version, int column count, int row count
+ *   float[row count] column0
+ *   float[row count] column1
+ *   ...
+ * </pre>
+ * All values are little endian, the file is read and written using a memory mapping.
+ */
+public final class ColumnFile {
+  private ColumnFile() {
+    throw new AssertionError();
+  }
+
+  private static final int MAGIC = 0x57414346;  // WACF
+  private static final int VERSION = 1;
+  private static final long HEADER_SIZE = 4 * Integer.BYTES;
+
+  private static final ValueLayout.OfInt INT = ValueLayout.JAVA_INT_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+  private static final ValueLayout.OfFloat FLOAT = ValueLayout.JAVA_FLOAT_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+
+  /** Writes the columns, all columns must have the same length */
+  public static void write(Path path, float[]... columns) throws IOException {
+    Objects.requireNonNull(path);
+    Objects.requireNonNull(columns);
+    var rowCount = columns.length == 0 ? 0 : columns[0].length;
+    for (var column : columns) {
+      if (column.length != rowCount) {
+        throw new IllegalArgumentException("columns must have the same length");
+      }
+    }
+    var fileSize = HEADER_SIZE + (long) columns.length * rowCount * Float.BYTES;
+    try (var channel = FileChannel.open(path, CREATE, TRUNCATE_EXISTING, READ, WRITE);
+         var arena = Arena.ofConfined()) {
+      var segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileSize, arena);
+      segment.set(INT, 0, MAGIC);
+      segment.set(INT, 4, VERSION);
+      segment.set(INT, 8, columns.length);
+      segment.set(INT, 12, rowCount);
+      var offset = HEADER_SIZE;
+      for (var column : columns) {
+        MemorySegment.copy(column, 0, segment, FLOAT, offset, rowCount);
+        offset += (long) rowCount * Float.BYTES;
+      }
+      segment.force();
+    }
+  }
+
+  /** Reads all the columns */
+  public static float[][] read(Path path) throws IOException {
+    Objects.requireNonNull(path);
+    try (var channel = FileChannel.open(path, READ);
+         var arena = Arena.ofConfined()) {
+      var fileSize = channel.size();
+      if (fileSize < HEADER_SIZE) {
+        throw new IOException("invalid column file " + path);
+      }
+      var segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize, arena);
+      if (segment.get(INT, 0) != MAGIC || segment.get(INT, 4) != VERSION) {
+        throw new IOException("invalid column file " + path);
+      }
+      var columnCount = segment.get(INT, 8);
+      var rowCount = segment.get(INT, 12);
+      if (columnCount < 0 || rowCount < 0 ||
+          fileSize != HEADER_SIZE + (long) columnCount * rowCount * Float.BYTES) {
+        throw new IOException("invalid column file " + path);
+      }
+      var columns = new float[columnCount][];
+      var offset = HEADER_SIZE;
+      for (var i = 0; i < columnCount; i++) {
+        var column = new float[rowCount];
+        MemorySegment.copy(segment, FLOAT, offset, column, 0, rowCount);
+        offset += (long) rowCount * Float.BYTES;
+        columns[i] = column;
+      }
+      return columns;
+    }
+  }
+
+  private static Path cachePath(URI uri) {
+    return Fetch.CACHE_DIR.resolve(uri.getQuery() + ".columns");
+  }
+
+  /** Returns the columns stored for the URI or null if they are not available */
+  public static float[][] readFromCache(URI uri) {
+    try {
+      return read(cachePath(uri));
+    } catch (IOException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Stores the columns for the URI, the cache file is replaced atomically.
+   * Once stored, the JSON response cached by {@link Fetch} for the same URI is removed.
+   */
+  public static void storeIntoCache(URI uri, float[]... columns) {
+    try {
+      Files.createDirectories(Fetch.CACHE_DIR);
+      var tmpPath = Files.createTempFile(Fetch.CACHE_DIR, "columns", ".tmp");
+      try {
+        write(tmpPath, columns);
+        Files.move(tmpPath, cachePath(uri), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+      } finally {
+        Files.deleteIfExists(tmpPath);
+      }
+    } catch (IOException | IllegalArgumentException e) {
+      // do nothing, the cache is just disable (or the columns have different lengths)
+      return;
+    }
+    Fetch.removeFromCache(uri);
+  }
+}
@@ -1,24 +1,38 @@
 package util;
 
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InterruptedIOException;
+import java.io.OutputStream;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
 
 public final class Fetch {
   private static final HttpClient HTTP_CLIENT = HttpClient.newBuilder().build();
 
-  public static String fetch(URI uri) throws IOException {
+  // The body is not read upfront, it is read while the JSON is parsed
+  public static InputStream fetch(URI uri) throws IOException {
     try {
       var request = HttpRequest.newBuilder().uri(uri).GET().build();
-      var httpResponse = HTTP_CLIENT.send(request, HttpResponse.BodyHandlers.ofString());
+      var httpResponse = HTTP_CLIENT.send(request, HttpResponse.BodyHandlers.ofInputStream());
       if (httpResponse.statusCode() != 200) {
-        throw new IOException("API request failed with status code: " + httpResponse.statusCode() + "  " + httpResponse.body());
+        String body;
+        try (var input = httpResponse.body()) {
+          body = new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        throw new IOException("API request failed with status code: " + httpResponse.statusCode() + "  " + body);
       }
       return httpResponse.body();
     } catch (InterruptedException e) {
@@ -26,12 +40,13 @@ public final class Fetch {
     }
   }
 
-  private static final Path CACHE_DIR = Paths.get("cache");
+  // also used by ColumnFile
+  static final Path CACHE_DIR = Paths.get("cache");
   static {
     try {
       Files.createDirectories(CACHE_DIR);
     } catch (IOException e) {
-      // do nothing, the cache is just disable
+      // do nothing, the responses are not cached
     }
   }
 
@@ -39,26 +54,216 @@ public final class Fetch {
     return CACHE_DIR.resolve(uri.getQuery());
   }
 
-  private static String readFromCache(URI uri) throws IOException {
-    return Files.readString(cachePath(uri));
+  // Removes the cached response of the URI, called when the response is cached in another format
+  static void removeFromCache(URI uri) {
+    try {
+      Files.deleteIfExists(cachePath(uri));
+    } catch (IOException e) {
+      // do nothing, the response stays in the cache
+    }
   }
 
-  private static void storeIntoCache(URI uri, String json) throws IOException {
-    Files.writeString(cachePath(uri), json);
+  private static InputStream readFromCache(Path path) throws IOException {
+    return Files.newInputStream(path);
+  }
+
+  // onClose is called with null if the cache file is published or with the reason why it is not
+  private static InputStream storeIntoCache(Path path, InputStream input, Consumer<IOException> onClose) {
+    Path tmpPath;
+    OutputStream output;
+    try {
+      tmpPath = Files.createTempFile(CACHE_DIR, "fetch", ".tmp");
+      output = Files.newOutputStream(tmpPath);
+    } catch (IOException e) {
+      onClose.accept(e);
+      return input;  // the cache directory is not writable, the response is not cached
+    }
+    return new CachingInputStream(input, output, tmpPath, path, onClose);
+  }
+
+  // Copy the bytes into a temporary file while they are read,
+  // the temporary file atomically replaces the cache file when the stream is closed
+  private static final class CachingInputStream extends FilterInputStream {
+    private final OutputStream output;
+    private final Path tmpPath;
+    private final Path path;
+    private final Consumer<IOException> onClose;
+    private boolean failed;
+    private boolean closed;
+
+    private CachingInputStream(InputStream input, OutputStream output, Path tmpPath, Path path,
+                               Consumer<IOException> onClose) {
+      super(input);
+      this.output = output;
+      this.tmpPath = tmpPath;
+      this.path = path;
+      this.onClose = onClose;
+    }
+
+    private void cache(byte[] buffer, int offset, int length) {
+      if (failed) {
+        return;
+      }
+      try {
+        output.write(buffer, offset, length);
+      } catch (IOException e) {
+        failed = true;  // stop caching, but continue reading
+      }
+    }
+
+    @Override
+    public int read() throws IOException {
+      int value;
+      try {
+        value = in.read();
+      } catch (IOException e) {
+        failed = true;
+        throw e;
+      }
+      if (value != -1) {
+        cache(new byte[] { (byte) value }, 0, 1);
+      }
+      return value;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+      int read;
+      try {
+        read = in.read(buffer, offset, length);
+      } catch (IOException e) {
+        failed = true;
+        throw e;
+      }
+      if (read > 0) {
+        cache(buffer, offset, read);
+      }
+      return read;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+      // the skipped bytes must also be cached
+      var buffer = new byte[(int) Math.min(n, 8192)];
+      var skipped = 0L;
+      while (skipped < n) {
+        var read = read(buffer, 0, (int) Math.min(n - skipped, buffer.length));
+        if (read == -1) {
+          break;
+        }
+        skipped += read;
+      }
+      return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+      return false;
+    }
+
+    @Override
+    public void close() throws IOException {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      try {
+        if (!failed) {
+          // the parser may stop before the end of the stream
+          var buffer = new byte[8192];
+          while (read(buffer, 0, buffer.length) != -1) {
+            // the bytes are cached by read()
+          }
+        }
+        output.close();
+        if (!failed) {
+          Files.move(tmpPath, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        }
+      } catch (IOException e) {
+        failed = true;
+      } finally {
+        try {
+          if (failed) {
+            Files.deleteIfExists(tmpPath);
+          }
+          super.close();
+        } finally {
+          onClose.accept(failed ? new IOException("response not cached: " + path.getFileName()) : null);
+        }
+      }
+    }
   }
 
   @FunctionalInterface
   public interface IOFunction {
-    String apply(URI uri) throws IOException;
+    InputStream apply(URI uri) throws IOException;
+  }
+
+  // URIs being fetched, the future is completed when the cache file is published
+  // or completed exceptionally if the response is not cached
+  private static final ConcurrentHashMap<Path, CompletableFuture<Void>> IN_FLIGHT = new ConcurrentHashMap<>();
+
+  private static void awaitFlight(CompletableFuture<Void> flight) throws IOException {
+    try {
+      flight.get();
+    } catch (InterruptedException e) {
+      throw (InterruptedIOException) new InterruptedIOException().initCause(e);
+    } catch (ExecutionException e) {
+      // the failure is reported to the thread that called the function
+    }
+  }
+
+  private static void endOfFlight(Path path, CompletableFuture<Void> flight, Throwable failure) {
+    IN_FLIGHT.remove(path, flight);
+    if (failure == null) {
+      flight.complete(null);
+    } else {
+      flight.completeExceptionally(failure);
+    }
   }
 
-  public static String cache(URI uri, IOFunction function) throws IOException {
+  // Returns the content of the cache or the content returned by the function,
+  // in the later case, the content is cached while being read.
+  // Only one thread calls the function for a URI, the other threads wait until the returned
+  // stream is closed and read the cache, so the returned stream must always be closed.
+  // If the response is not cached (the fetch or the read failed, or the cache file was removed in between),
+  // the waiting threads elect a new thread to call the function instead of all calling it.
+  public static InputStream cache(URI uri, IOFunction function) throws IOException {
+    var path = cachePath(uri);
+    for (;;) {
+      try {
+        return readFromCache(path);
+      } catch (IOException e) {
+        // not in the cache
+      }
+
+      var flight = new CompletableFuture<Void>();
+      var inFlight = IN_FLIGHT.putIfAbsent(path, flight);
+      if (inFlight == null) {
+        return fetchAndCache(uri, path, flight, function);
+      }
+      awaitFlight(inFlight);
+    }
+  }
+
+  private static InputStream fetchAndCache(URI uri, Path path, CompletableFuture<Void> flight,
+                                           IOFunction function) throws IOException {
+    // the cache file may have been published by another thread in between
     try {
-      return readFromCache(uri);
+      var input = readFromCache(path);
+      endOfFlight(path, flight, null);
+      return input;
     } catch (IOException e) {
-      var body = function.apply(uri);
-      storeIntoCache(uri, body);
-      return body;
+      // still not in the cache
+    }
+
+    InputStream input;
+    try {
+      input = function.apply(uri);
+    } catch (IOException | RuntimeException | Error e) {
+      endOfFlight(path, flight, e);
+      throw e;
     }
+    return storeIntoCache(path, input, failure -> endOfFlight(path, flight, failure));
   }
 }
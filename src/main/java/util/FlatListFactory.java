@@ -15,10 +15,17 @@ import java.lang.reflect.Array;
 import java.lang.reflect.UndeclaredThrowableException;
 import java.util.AbstractList;
 import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.Spliterators;
 
 import static java.lang.classfile.ClassFile.ACC_PRIVATE;
+import static java.lang.classfile.ClassFile.ACC_PROTECTED;
 import static java.lang.classfile.ClassFile.ACC_PUBLIC;
 import static java.lang.classfile.ClassFile.JAVA_27_VERSION;
 import static java.lang.classfile.ClassFile.PREVIEW_MINOR_VERSION;
@@ -81,7 +88,7 @@ public final class FlatListFactory {
     return flatList.isFlat();
   }
 
-  private record Specialization(Class<?> elementType, int properties, Object defaultValue) {}
+  private record Specialization(Class<?> elementType, int properties, Object defaultValue, MethodHandle iteratorFactory) {}
 
   private static final ClassDesc CD_ABSTRACT_FLAT_LIST = ClassDesc.of(AbstractFlatList.class.getName());
   private static final ClassDesc CD_VALUE_CLASS = ClassDesc.of(ValueClass.class.getName());
@@ -93,9 +100,21 @@ public final class FlatListFactory {
       DynamicConstantDesc.ofNamed(
           ofConstantBootstrap(CD_FACTORY, "arrayType", CD_Class, CD_SPECIALIZATION),
           "_", ConstantDescs.CD_Class, SPECIALIZATION);
+  private static final DynamicConstantDesc<Object> ITERATOR_FACTORY =
+      DynamicConstantDesc.ofNamed(
+          ofConstantBootstrap(CD_FACTORY, "iteratorFactory", CD_MethodHandle, CD_SPECIALIZATION),
+          "_", CD_MethodHandle, SPECIALIZATION);
+  private static final ClassDesc CD_ITERATOR = ClassDesc.of(Iterator.class.getName());
+  private static final ClassDesc CD_SPLITERATOR = ClassDesc.of(Spliterator.class.getName());
+  private static final ClassDesc CD_RANDOM_ACCESS = ClassDesc.of(RandomAccess.class.getName());
+  private static final ClassDesc CD_NO_SUCH_ELEMENT_EXCEPTION = ClassDesc.of(NoSuchElementException.class.getName());
+  private static final ClassDesc CD_CONCURRENT_MODIFICATION_EXCEPTION = ClassDesc.of(ConcurrentModificationException.class.getName());
+  private static final ClassDesc CD_ILLEGAL_STATE_EXCEPTION = ClassDesc.of(IllegalStateException.class.getName());
 
   private static final ClassDesc TEMPLATE_CLASS = ClassDesc.of(FlatListFactory.class.getPackageName(), "TemplateList");
   private static final byte[] TEMPLATE_BYTECODE = generateTemplateBytecode();
+  private static final ClassDesc TEMPLATE_ITERATOR_CLASS = ClassDesc.of(FlatListFactory.class.getPackageName(), "TemplateIterator");
+  private static final byte[] TEMPLATE_ITERATOR_BYTECODE = generateTemplateIteratorBytecode();
 
   // FIXME use either @Stable or stable value
   private static final class Cache {
@@ -137,9 +156,18 @@ public final class FlatListFactory {
   private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
 
   private static MethodHandle createConstructor(Class<?> elementType, int properties) {
-    var specialization = new Specialization(elementType, properties, defaultValue(elementType, properties));
+    var defaultValue = defaultValue(elementType, properties);
     try {
+      // Define the iterator hidden class first, its constructor is part of the ClassData of the list
+      var iteratorLookup =
+          LOOKUP.defineHiddenClassWithClassData(TEMPLATE_ITERATOR_BYTECODE,
+              new Specialization(elementType, properties, defaultValue, null), true, NESTMATE, STRONG);
+      var iteratorFactory = iteratorLookup
+          .findConstructor(iteratorLookup.lookupClass(), MethodType.methodType(void.class, AbstractFlatList.class))
+          .asType(MethodType.methodType(Iterator.class, AbstractFlatList.class));
+
       // Define hidden class with specialization as ClassData
+      var specialization = new Specialization(elementType, properties, defaultValue, iteratorFactory);
       var hiddenLookup =
           LOOKUP.defineHiddenClassWithClassData(TEMPLATE_BYTECODE, specialization, true, NESTMATE, STRONG);
 
@@ -183,6 +211,14 @@ public final class FlatListFactory {
     private AbstractFlatList() {}
 
     abstract boolean isFlat();
+
+    // the backing array, only the first size() elements are valid
+    abstract Object[] array();
+
+    // used by the generated iterator to detect a concurrent modification
+    final int modCount() {
+      return modCount;
+    }
   }
 
   /** Generates the template bytecode that will be specialized with ClassData */
@@ -195,7 +231,7 @@ public final class FlatListFactory {
                   .withVersion(JAVA_27_VERSION, PREVIEW_MINOR_VERSION)
                   .withFlags(ACC_PUBLIC | ClassFile.ACC_FINAL | ClassFile.ACC_IDENTITY)
                   .withSuperclass(CD_ABSTRACT_FLAT_LIST)
-                  .withInterfaceSymbols(ConstantDescs.CD_List);
+                  .withInterfaceSymbols(ConstantDescs.CD_List, CD_RANDOM_ACCESS);
 
               // Fields - use Object[] since we don't know the specific type at generation time
               classBuilder
@@ -219,9 +255,57 @@ public final class FlatListFactory {
 
               // method boolean isFlat()
               generateTemplateIsFlatMethod(classBuilder);
+
+              // method Object[] array()
+              generateTemplateArrayMethod(classBuilder);
+
+              // method Object set(int, Object)
+              generateTemplateSetMethod(classBuilder);
+
+              // method boolean addAll(Collection)
+              generateTemplateAddAllMethod(classBuilder);
+
+              // method Object remove(int)
+              generateTemplateRemoveMethod(classBuilder);
+
+              // method void removeRange(int, int)
+              generateTemplateRemoveRangeMethod(classBuilder);
+
+              // method void clear()
+              generateTemplateClearMethod(classBuilder);
+
+              // method Object[] toArray() and Object[] toArray(Object[])
+              generateTemplateToArrayMethods(classBuilder);
+
+              // method Iterator iterator()
+              generateTemplateIteratorMethod(classBuilder);
+
+              // method Spliterator spliterator()
+              generateTemplateSpliteratorMethod(classBuilder);
             });
   }
 
+  // modCount++, a structural modification (add, remove, clear) makes the iterators fail fast
+  private static void incrementModCount(CodeBuilder codeBuilder) {
+    codeBuilder
+        .aload(0)
+        .dup()
+        .getfield(TEMPLATE_CLASS, "modCount", CD_int)
+        .iconst_1()
+        .iadd()
+        .putfield(TEMPLATE_CLASS, "modCount", CD_int);
+  }
+
+  // Load the field "array" of the current class casted to the real array type to help the JIT
+  private static void loadSpecializedArray(CodeBuilder codeBuilder, ClassDesc owner) {
+    codeBuilder
+        .loadConstant(ELEMENT_ARRAY_CLASS)
+        .aload(0)
+        .getfield(owner, "array", CD_Object.arrayType())
+        .invokevirtual(CD_Class, "cast", MethodTypeDesc.of(CD_Object, CD_Object))
+        .checkcast(CD_Object.arrayType());
+  }
+
   private static void generateTemplateConstructor(ClassBuilder classBuilder) {
     classBuilder.withMethod(
         INIT_NAME, MethodTypeDesc.of(CD_void, CD_int),
@@ -285,6 +369,8 @@ public final class FlatListFactory {
                       .aload(1)
                       .aastore();
 
+                  incrementModCount(codeBuilder);
+
                   // size++
                   codeBuilder
                       .aload(0)
@@ -377,6 +463,512 @@ public final class FlatListFactory {
             }));
   }
 
+  private static void generateTemplateArrayMethod(ClassBuilder classBuilder) {
+    classBuilder.withMethod(
+        "array", MethodTypeDesc.of(CD_Object.arrayType()),
+        ACC_PUBLIC,
+        methodBuilder ->
+            methodBuilder.withCode(codeBuilder -> {
+              codeBuilder
+                  .aload(0)
+                  .getfield(TEMPLATE_CLASS, "array", CD_Object.arrayType())
+                  .areturn();
+            }));
+  }
+
+  private static void generateTemplateSetMethod(ClassBuilder classBuilder) {
+    classBuilder.withMethod(
+        "set", MethodTypeDesc.of(CD_Object, CD_int, CD_Object),
+        ACC_PUBLIC,
+        methodBuilder ->
+            methodBuilder.withCode(codeBuilder -> {
+                  // Use Objects.checkIndex for bounds checking
+                  codeBuilder
+                      .iload(1) // index
+                      .aload(0)
+                      .getfield(TEMPLATE_CLASS, "size", CD_int)  // size
+                      .invokestatic(
+                          ClassDesc.of("java.util.Objects"),
+                          "checkIndex",
+                          MethodTypeDesc.of(CD_int, CD_int, CD_int))
+                      .pop();
+
+                  // var array = (E[]) this.array;
+                  loadSpecializedArray(codeBuilder, TEMPLATE_CLASS);
+                  codeBuilder.astore(3);
+
+                  // var old = array[index];
+                  codeBuilder
+                      .aload(3)
+                      .iload(1)
+                      .aaload()
+                      .astore(4);
+
+                  // array[index] = element;
+                  codeBuilder
+                      .aload(3)
+                      .iload(1)
+                      .aload(2)
+                      .aastore();
+
+                  // return old
+                  codeBuilder.aload(4).areturn();
+                }));
+  }
+
+  private static void generateTemplateAddAllMethod(ClassBuilder classBuilder) {
+    classBuilder.withMethod(
+        "addAll", MethodTypeDesc.of(CD_boolean, CD_Collection),
+        ACC_PUBLIC,
+        methodBuilder ->
+            methodBuilder.withCode(codeBuilder -> {
+                  var notFlat = codeBuilder.newLabel();
+                  var copy = codeBuilder.newLabel();
+                  var notEmpty = codeBuilder.newLabel();
+
+                  // Fast path, if the collection is a flat list, copy directly from its backing array
+                  // var elements = flatList.array(); var count = flatList.size();
+                  codeBuilder
+                      .aload(1)
+                      .instanceOf(CD_ABSTRACT_FLAT_LIST)
+                      .ifeq(notFlat)
+                      .aload(1)
+                      .checkcast(CD_ABSTRACT_FLAT_LIST)
+                      .invokevirtual(CD_ABSTRACT_FLAT_LIST, "array", MethodTypeDesc.of(CD_Object.arrayType()))
+                      .astore(2)
+                      .aload(1)
+                      .invokeinterface(CD_Collection, "size", MethodTypeDesc.of(CD_int))
+                      .istore(3)
+                      .goto_(copy);
+
+                  // Slow path, var elements = collection.toArray(); var count = elements.length;
+                  codeBuilder
+                      .labelBinding(notFlat)
+                      .aload(1)
+                      .invokeinterface(CD_Collection, "toArray", MethodTypeDesc.of(CD_Object.arrayType()))
+                      .astore(2)
+                      .aload(2)
+                      .arraylength()
+                      .istore(3);
+
+                  // if (count == 0) return false
+                  codeBuilder
+                      .labelBinding(copy)
+                      .iload(3)
+                      .ifne(notEmpty)
+                      .iconst_0()
+                      .ireturn();
+
+                  // array = arrayEnsureCapacity(specialization, array, size + count)
+                  codeBuilder
+                      .labelBinding(notEmpty)
+                      .aload(0)
+                      .ldc(SPECIALIZATION)
+                      .aload(0)
+                      .getfield(TEMPLATE_CLASS, "array", CD_Object.arrayType())
+                      .aload(0)
+                      .getfield(TEMPLATE_CLASS, "size", CD_int)
+                      .iload(3)
+                      .iadd()
+                      .invokestatic(
+                          CD_FACTORY,
+                          "arrayEnsureCapacity",
+                          MethodTypeDesc.of(CD_Object.arrayType(), CD_SPECIALIZATION, CD_Object.arrayType(), CD_int))
+                      .putfield(TEMPLATE_CLASS, "array", CD_Object.arrayType());
+
+                  // System.arraycopy(elements, 0, array, size, count)
+                  codeBuilder
+                      .aload(2)
+                      .iconst_0()
+                      .aload(0)
+                      .getfield(TEMPLATE_CLASS, "array", CD_Object.arrayType())
+                      .aload(0)
+                      .getfield(TEMPLATE_CLASS, "size", CD_int)
+                      .iload(3)
+                      .invokestatic(
+                          ClassDesc.of("java.lang.System"),
+                          "arraycopy",
+                          MethodTypeDesc.of(CD_void, CD_Object, CD_int, CD_Object, CD_int, CD_int));
+
+                  incrementModCount(codeBuilder);
+
+                  // size += count
+                  codeBuilder
+                      .aload(0)
+                      .aload(0)
+                      .getfield(TEMPLATE_CLASS, "size", CD_int)
+                      .iload(3)
+                      .iadd()
+                      .putfield(TEMPLATE_CLASS, "size", CD_int);
+
+                  // return true
+                  codeBuilder.iconst_1().ireturn();
+                }));
+  }
+
+  private static void generateTemplateRemoveMethod(ClassBuilder classBuilder) {
+    classBuilder.withMethod(
+        "remove", MethodTypeDesc.of(CD_Object, CD_int),
+        ACC_PUBLIC,
+        methodBuilder ->
+            methodBuilder.withCode(codeBuilder -> {
+                  // var old = get(index), also checks the index
+                  codeBuilder
+                      .aload(0)
+                      .iload(1)
+                      .invokevirtual(TEMPLATE_CLASS, "get", MethodTypeDesc.of(CD_Object, CD_int))
+                      .astore(2);
+
+                  // removeRange(index, index + 1)
+                  codeBuilder
+                      .aload(0)
+                      .iload(1)
+                      .iload(1)
+                      .iconst_1()
+                      .iadd()
+                      .invokevirtual(TEMPLATE_CLASS, "removeRange", MethodTypeDesc.of(CD_void, CD_int, CD_int));
+
+                  // return old
+                  codeBuilder.aload(2).areturn();
+                }));
+  }
+
+  private static void generateTemplateRemoveRangeMethod(ClassBuilder classBuilder) {
+    classBuilder.withMethod(
+        "removeRange", MethodTypeDesc.of(CD_void, CD_int, CD_int),
+        ACC_PROTECTED,
+        methodBuilder ->
+            methodBuilder.withCode(codeBuilder -> {
+                  // arrayRemoveRange(specialization, array, size, fromIndex, toIndex)
+                  codeBuilder
+                      .ldc(SPECIALIZATION)
+                      .aload(0)
+                      .getfield(TEMPLATE_CLASS, "array", CD_Object.arrayType())
+                      .aload(0)
+                      .getfield(TEMPLATE_CLASS, "size", CD_int)
+                      .iload(1)
+                      .iload(2)
+                      .invokestatic(
+                          CD_FACTORY,
+                          "arrayRemoveRange",
+                          MethodTypeDesc.of(CD_void, CD_SPECIALIZATION, CD_Object.arrayType(), CD_int, CD_int, CD_int));
+
+                  incrementModCount(codeBuilder);
+
+                  // size -= toIndex - fromIndex
+                  codeBuilder
+                      .aload(0)
+                      .aload(0)
+                      .getfield(TEMPLATE_CLASS, "size", CD_int)
+                      .iload(2)
+                      .iload(1)
+                      .isub()
+                      .isub()
+                      .putfield(TEMPLATE_CLASS, "size", CD_int)
+                      .return_();
+                }));
+  }
+
+  private static void generateTemplateClearMethod(ClassBuilder classBuilder) {
+    classBuilder.withMethod(
+        "clear", MethodTypeDesc.of(CD_void),
+        ACC_PUBLIC,
+        methodBuilder ->
+            methodBuilder.withCode(codeBuilder -> {
+                  // arrayClear(specialization, array, size)
+                  codeBuilder
+                      .ldc(SPECIALIZATION)
+                      .aload(0)
+                      .getfield(TEMPLATE_CLASS, "array", CD_Object.arrayType())
+                      .aload(0)
+                      .getfield(TEMPLATE_CLASS, "size", CD_int)
+                      .invokestatic(
+                          CD_FACTORY,
+                          "arrayClear",
+                          MethodTypeDesc.of(CD_void, CD_SPECIALIZATION, CD_Object.arrayType(), CD_int));
+
+                  incrementModCount(codeBuilder);
+
+                  // size = 0
+                  codeBuilder
+                      .aload(0)
+                      .iconst_0()
+                      .putfield(TEMPLATE_CLASS, "size", CD_int)
+                      .return_();
+                }));
+  }
+
+  private static void generateTemplateToArrayMethods(ClassBuilder classBuilder) {
+    classBuilder.withMethod(
+        "toArray", MethodTypeDesc.of(CD_Object.arrayType()),
+        ACC_PUBLIC,
+        methodBuilder ->
+            methodBuilder.withCode(codeBuilder -> {
+                  // return Arrays.copyOf(array, size, Object[].class)
+                  codeBuilder
+                      .aload(0)
+                      .getfield(TEMPLATE_CLASS, "array", CD_Object.arrayType())
+                      .aload(0)
+                      .getfield(TEMPLATE_CLASS, "size", CD_int)
+                      .ldc(CD_Object.arrayType())
+                      .invokestatic(
+                          ClassDesc.of("java.util.Arrays"),
+                          "copyOf",
+                          MethodTypeDesc.of(CD_Object.arrayType(), CD_Object.arrayType(), CD_int, CD_Class))
+                      .areturn();
+                }));
+    classBuilder.withMethod(
+        "toArray", MethodTypeDesc.of(CD_Object.arrayType(), CD_Object.arrayType()),
+        ACC_PUBLIC,
+        methodBuilder ->
+            methodBuilder.withCode(codeBuilder -> {
+                  // return arrayToArray(array, size, a)
+                  codeBuilder
+                      .aload(0)
+                      .getfield(TEMPLATE_CLASS, "array", CD_Object.arrayType())
+                      .aload(0)
+                      .getfield(TEMPLATE_CLASS, "size", CD_int)
+                      .aload(1)
+                      .invokestatic(
+                          CD_FACTORY,
+                          "arrayToArray",
+                          MethodTypeDesc.of(CD_Object.arrayType(), CD_Object.arrayType(), CD_int, CD_Object.arrayType()))
+                      .areturn();
+                }));
+  }
+
+  private static void generateTemplateIteratorMethod(ClassBuilder classBuilder) {
+    classBuilder.withMethod(
+        "iterator", MethodTypeDesc.of(CD_ITERATOR),
+        ACC_PUBLIC,
+        methodBuilder ->
+            methodBuilder.withCode(codeBuilder -> {
+                  // return (Iterator) iteratorFactory.invokeExact(this)
+                  codeBuilder
+                      .loadConstant(ITERATOR_FACTORY)
+                      .checkcast(CD_MethodHandle)
+                      .aload(0)
+                      .invokevirtual(
+                          CD_MethodHandle,
+                          "invokeExact",
+                          MethodTypeDesc.of(CD_ITERATOR, CD_ABSTRACT_FLAT_LIST))
+                      .areturn();
+                }));
+  }
+
+  private static void generateTemplateSpliteratorMethod(ClassBuilder classBuilder) {
+    classBuilder.withMethod(
+        "spliterator", MethodTypeDesc.of(CD_SPLITERATOR),
+        ACC_PUBLIC,
+        methodBuilder ->
+            methodBuilder.withCode(codeBuilder -> {
+                  // return arraySpliterator(specialization, array, size)
+                  codeBuilder
+                      .ldc(SPECIALIZATION)
+                      .aload(0)
+                      .getfield(TEMPLATE_CLASS, "array", CD_Object.arrayType())
+                      .aload(0)
+                      .getfield(TEMPLATE_CLASS, "size", CD_int)
+                      .invokestatic(
+                          CD_FACTORY,
+                          "arraySpliterator",
+                          MethodTypeDesc.of(CD_SPLITERATOR, CD_SPECIALIZATION, CD_Object.arrayType(), CD_int))
+                      .areturn();
+                }));
+  }
+
+  /**
+   * Generates the template bytecode of the iterator, it has the semantics of the iterator of an ArrayList,
+   * it supports remove() and fails fast if the list is structurally modified during the iteration
+   */
+  private static byte[] generateTemplateIteratorBytecode() {
+    return ClassFile.of()
+        .build(
+            TEMPLATE_ITERATOR_CLASS,
+            classBuilder -> {
+              classBuilder
+                  .withVersion(JAVA_27_VERSION, PREVIEW_MINOR_VERSION)
+                  .withFlags(ACC_PUBLIC | ClassFile.ACC_FINAL | ClassFile.ACC_IDENTITY)
+                  .withSuperclass(CD_Object)
+                  .withInterfaceSymbols(CD_ITERATOR);
+
+              classBuilder
+                  .withField("list", CD_ABSTRACT_FLAT_LIST, ACC_PRIVATE | ClassFile.ACC_FINAL)
+                  .withField("index", CD_int, ACC_PRIVATE)
+                  .withField("lastIndex", CD_int, ACC_PRIVATE)  // index of the last element returned, -1 if none
+                  .withField("expectedModCount", CD_int, ACC_PRIVATE);
+
+              // method void <init>(AbstractFlatList)
+              classBuilder.withMethod(
+                  INIT_NAME, MethodTypeDesc.of(CD_void, CD_ABSTRACT_FLAT_LIST),
+                  ACC_PUBLIC,
+                  methodBuilder ->
+                      methodBuilder.withCode(codeBuilder -> {
+                        codeBuilder
+                            .aload(0)
+                            .invokespecial(CD_Object, INIT_NAME, MethodTypeDesc.of(CD_void))
+                            .aload(0)
+                            .aload(1)
+                            .putfield(TEMPLATE_ITERATOR_CLASS, "list", CD_ABSTRACT_FLAT_LIST)
+                            .aload(0)
+                            .iconst_m1()
+                            .putfield(TEMPLATE_ITERATOR_CLASS, "lastIndex", CD_int)
+                            .aload(0)
+                            .aload(1)
+                            .invokevirtual(CD_ABSTRACT_FLAT_LIST, "modCount", MethodTypeDesc.of(CD_int))
+                            .putfield(TEMPLATE_ITERATOR_CLASS, "expectedModCount", CD_int)
+                            .return_();
+                      }));
+
+              // method void checkForComodification()
+              classBuilder.withMethod(
+                  "checkForComodification", MethodTypeDesc.of(CD_void),
+                  ACC_PRIVATE,
+                  methodBuilder ->
+                      methodBuilder.withCode(codeBuilder -> {
+                        var unmodified = codeBuilder.newLabel();
+
+                        // if (list.modCount() != expectedModCount) throw new ConcurrentModificationException()
+                        codeBuilder
+                            .aload(0)
+                            .getfield(TEMPLATE_ITERATOR_CLASS, "list", CD_ABSTRACT_FLAT_LIST)
+                            .invokevirtual(CD_ABSTRACT_FLAT_LIST, "modCount", MethodTypeDesc.of(CD_int))
+                            .aload(0)
+                            .getfield(TEMPLATE_ITERATOR_CLASS, "expectedModCount", CD_int)
+                            .if_icmpeq(unmodified)
+                            .new_(CD_CONCURRENT_MODIFICATION_EXCEPTION)
+                            .dup()
+                            .invokespecial(CD_CONCURRENT_MODIFICATION_EXCEPTION, INIT_NAME, MethodTypeDesc.of(CD_void))
+                            .athrow()
+                            .labelBinding(unmodified)
+                            .return_();
+                      }));
+
+              // method boolean hasNext()
+              classBuilder.withMethod(
+                  "hasNext", MethodTypeDesc.of(CD_boolean),
+                  ACC_PUBLIC,
+                  methodBuilder ->
+                      methodBuilder.withCode(codeBuilder -> {
+                        var noNext = codeBuilder.newLabel();
+
+                        // return index != list.size()
+                        codeBuilder
+                            .aload(0)
+                            .getfield(TEMPLATE_ITERATOR_CLASS, "index", CD_int)
+                            .aload(0)
+                            .getfield(TEMPLATE_ITERATOR_CLASS, "list", CD_ABSTRACT_FLAT_LIST)
+                            .invokevirtual(CD_ABSTRACT_FLAT_LIST, "size", MethodTypeDesc.of(CD_int))
+                            .if_icmpeq(noNext)
+                            .iconst_1()
+                            .ireturn()
+                            .labelBinding(noNext)
+                            .iconst_0()
+                            .ireturn();
+                      }));
+
+              // method Object next()
+              classBuilder.withMethod(
+                  "next", MethodTypeDesc.of(CD_Object),
+                  ACC_PUBLIC,
+                  methodBuilder ->
+                      methodBuilder.withCode(codeBuilder -> {
+                        var hasNext = codeBuilder.newLabel();
+
+                        // checkForComodification()
+                        codeBuilder
+                            .aload(0)
+                            .invokevirtual(TEMPLATE_ITERATOR_CLASS, "checkForComodification", MethodTypeDesc.of(CD_void));
+
+                        // var index = this.index; if (index >= list.size()) throw new NoSuchElementException()
+                        codeBuilder
+                            .aload(0)
+                            .getfield(TEMPLATE_ITERATOR_CLASS, "index", CD_int)
+                            .istore(1)
+                            .iload(1)
+                            .aload(0)
+                            .getfield(TEMPLATE_ITERATOR_CLASS, "list", CD_ABSTRACT_FLAT_LIST)
+                            .invokevirtual(CD_ABSTRACT_FLAT_LIST, "size", MethodTypeDesc.of(CD_int))
+                            .if_icmplt(hasNext)
+                            .new_(CD_NO_SUCH_ELEMENT_EXCEPTION)
+                            .dup()
+                            .invokespecial(CD_NO_SUCH_ELEMENT_EXCEPTION, INIT_NAME, MethodTypeDesc.of(CD_void))
+                            .athrow();
+
+                        // this.index = index + 1; this.lastIndex = index
+                        codeBuilder
+                            .labelBinding(hasNext)
+                            .aload(0)
+                            .iload(1)
+                            .iconst_1()
+                            .iadd()
+                            .putfield(TEMPLATE_ITERATOR_CLASS, "index", CD_int)
+                            .aload(0)
+                            .iload(1)
+                            .putfield(TEMPLATE_ITERATOR_CLASS, "lastIndex", CD_int);
+
+                        // return list.array()[index], with a cast to the real array type to help the JIT
+                        codeBuilder
+                            .loadConstant(ELEMENT_ARRAY_CLASS)
+                            .aload(0)
+                            .getfield(TEMPLATE_ITERATOR_CLASS, "list", CD_ABSTRACT_FLAT_LIST)
+                            .invokevirtual(CD_ABSTRACT_FLAT_LIST, "array", MethodTypeDesc.of(CD_Object.arrayType()))
+                            .invokevirtual(CD_Class, "cast", MethodTypeDesc.of(CD_Object, CD_Object))
+                            .checkcast(CD_Object.arrayType())
+                            .iload(1)
+                            .aaload()
+                            .areturn();
+                      }));
+
+              // method void remove()
+              classBuilder.withMethod(
+                  "remove", MethodTypeDesc.of(CD_void),
+                  ACC_PUBLIC,
+                  methodBuilder ->
+                      methodBuilder.withCode(codeBuilder -> {
+                        var hasLast = codeBuilder.newLabel();
+
+                        // if (lastIndex < 0) throw new IllegalStateException()
+                        codeBuilder
+                            .aload(0)
+                            .getfield(TEMPLATE_ITERATOR_CLASS, "lastIndex", CD_int)
+                            .ifge(hasLast)
+                            .new_(CD_ILLEGAL_STATE_EXCEPTION)
+                            .dup()
+                            .invokespecial(CD_ILLEGAL_STATE_EXCEPTION, INIT_NAME, MethodTypeDesc.of(CD_void))
+                            .athrow();
+
+                        // checkForComodification(); list.remove(lastIndex)
+                        codeBuilder
+                            .labelBinding(hasLast)
+                            .aload(0)
+                            .invokevirtual(TEMPLATE_ITERATOR_CLASS, "checkForComodification", MethodTypeDesc.of(CD_void))
+                            .aload(0)
+                            .getfield(TEMPLATE_ITERATOR_CLASS, "list", CD_ABSTRACT_FLAT_LIST)
+                            .aload(0)
+                            .getfield(TEMPLATE_ITERATOR_CLASS, "lastIndex", CD_int)
+                            .invokevirtual(CD_ABSTRACT_FLAT_LIST, "remove", MethodTypeDesc.of(CD_Object, CD_int))
+                            .pop();
+
+                        // index = lastIndex; lastIndex = -1; expectedModCount = list.modCount()
+                        codeBuilder
+                            .aload(0)
+                            .aload(0)
+                            .getfield(TEMPLATE_ITERATOR_CLASS, "lastIndex", CD_int)
+                            .putfield(TEMPLATE_ITERATOR_CLASS, "index", CD_int)
+                            .aload(0)
+                            .iconst_m1()
+                            .putfield(TEMPLATE_ITERATOR_CLASS, "lastIndex", CD_int)
+                            .aload(0)
+                            .aload(0)
+                            .getfield(TEMPLATE_ITERATOR_CLASS, "list", CD_ABSTRACT_FLAT_LIST)
+                            .invokevirtual(CD_ABSTRACT_FLAT_LIST, "modCount", MethodTypeDesc.of(CD_int))
+                            .putfield(TEMPLATE_ITERATOR_CLASS, "expectedModCount", CD_int)
+                            .return_();
+                      }));
+            });
+  }
+
 
   // Runtime
 
@@ -385,6 +977,11 @@ public final class FlatListFactory {
     return specialization.elementType.arrayType();
   }
 
+  // Extract the iterator constructor from a Class, called by the generated code
+  private static MethodHandle iteratorFactory(MethodHandles.Lookup lookup, String name, Class<?> type, Specialization specialization) {
+    return specialization.iteratorFactory;
+  }
+
   private static void checkFlat(Object[] array) {
     if (!ValueClass.isFlatArray(array)) {
       throw new IllegalStateException("array is not a flat array");
@@ -413,7 +1010,21 @@ public final class FlatListFactory {
 
   // Directly called by the bytecode, slow path
   private static Object[] arrayResize(Specialization specialization, Object[] values) {
-    var newCapacity = Math.max(16, values.length << 1);
+    return arrayCopyOf(specialization, values, Math.max(16, values.length << 1));
+  }
+
+  // Directly called by the bytecode, slow path
+  private static Object[] arrayEnsureCapacity(Specialization specialization, Object[] values, int minCapacity) {
+    if (minCapacity <= values.length) {
+      return values;
+    }
+    if (minCapacity < 0) {  // overflow
+      throw new OutOfMemoryError("Required array size too large");
+    }
+    return arrayCopyOf(specialization, values, Math.max(minCapacity, Math.max(16, values.length << 1)));
+  }
+
+  private static Object[] arrayCopyOf(Specialization specialization, Object[] values, int newCapacity) {
     if (!ValueClass.isNullRestrictedArray(values)) {
       return Arrays.copyOf(values, newCapacity);
     }
@@ -427,6 +1038,38 @@ public final class FlatListFactory {
     return newArray;
   }
 
+  // Directly called by the bytecode, shift the tail and reset the freed slots to the default value
+  private static void arrayRemoveRange(Specialization specialization, Object[] values, int size, int fromIndex, int toIndex) {
+    Objects.checkFromToIndex(fromIndex, toIndex, size);
+    System.arraycopy(values, toIndex, values, fromIndex, size - toIndex);
+    Arrays.fill(values, size - (toIndex - fromIndex), size, specialization.defaultValue);
+  }
+
+  // Directly called by the bytecode, reset the slots to the default value
+  private static void arrayClear(Specialization specialization, Object[] values, int size) {
+    Arrays.fill(values, 0, size, specialization.defaultValue);
+  }
+
+  // Directly called by the bytecode, a SIZED/SUBSIZED/ORDERED spliterator on the backing array
+  // that splits in the middle, elements of a null-restricted array are never null
+  private static Spliterator<Object> arraySpliterator(Specialization specialization, Object[] values, int size) {
+    var characteristics = specialization.defaultValue != null ?
+        Spliterator.ORDERED | Spliterator.NONNULL :
+        Spliterator.ORDERED;
+    return Spliterators.spliterator(values, 0, size, characteristics);
+  }
+
+  // Directly called by the bytecode, same semantics as ArrayList.toArray(T[])
+  private static Object[] arrayToArray(Object[] values, int size, Object[] a) {
+    if (a.length < size) {
+      return Arrays.copyOf(values, size, a.getClass());
+    }
+    System.arraycopy(values, 0, a, 0, size);
+    if (a.length > size) {
+      a[size] = null;
+    }
+    return a;
+  }
 
   // Example usage and test
   // --enable-preview --add-exports=java.base/jdk.internal.value=ALL-UNNAMED --add-exports=java.base/jdk.internal.misc=ALL-UNNAMED
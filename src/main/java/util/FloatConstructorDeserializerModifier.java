@@ -10,45 +10,173 @@ import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.DeserializationContext;
 
 import java.io.IOException;
+import java.lang.classfile.ClassFile;
+import java.lang.constant.ClassDesc;
+import java.lang.constant.MethodTypeDesc;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Constructor;
-import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.UndeclaredThrowableException;
+
+import static java.lang.classfile.ClassFile.*;
+import static java.lang.constant.ConstantDescs.*;
+import static java.lang.invoke.MethodHandles.Lookup.ClassOption.NESTMATE;
+import static java.lang.invoke.MethodHandles.Lookup.ClassOption.STRONG;
 
 // Deserialize all classes that have a constructor with a single float parameter
 public final class FloatConstructorDeserializerModifier extends BeanDeserializerModifier {
   @Override
   public JsonDeserializer<?> modifyDeserializer(DeserializationConfig config, BeanDescription beanDesc,
                                                 JsonDeserializer<?> deserializer) {
-    var beanClass = beanDesc.getBeanClass();
-    Constructor<?> constructor;
-    try {
-      constructor = beanClass.getDeclaredConstructor(float.class);
-    } catch (NoSuchMethodException _) {
+    var targetClass = beanDesc.getBeanClass();
+    var floatConstructor = floatConstructor(targetClass);
+    if (floatConstructor == null) {
       return deserializer; // send default deserializer
     }
-    constructor.setAccessible(true);
     return new JsonDeserializer<>() {
       @Override
       public Object deserialize(JsonParser parser, DeserializationContext context) throws IOException {
-        var targetClass = constructor.getDeclaringClass();
         if (!parser.getCurrentToken().isNumeric()) {
           throw context.wrongTokenException(parser, targetClass, JsonToken.VALUE_NUMBER_FLOAT,
               "Expected numeric value for " + targetClass.getName());
         }
-        var value = parser.getFloatValue();
-        try {
-          return constructor.newInstance(value);
-        } catch (InstantiationException | IllegalAccessException e) {
-          throw new IOException(
-              "Failed to deserialize " + targetClass.getName() + " from numeric value", e);
-        } catch (InvocationTargetException e) {
-          var cause = e.getCause();
-          if (cause instanceof Error error) {
-            throw error;
-          }
-          throw new IOException(
-              "Failed to deserialize " + targetClass.getName() + " from numeric value", cause);
-        }
+        return newInstance(floatConstructor, targetClass, parser.getFloatValue(), context);
+      }
+    };
+  }
+
+  // Calls the constructor, an exception of the constructor (for example a negative wind speed)
+  // is reported as a mapping problem, so it is an IOException as the other errors of the input
+  static Object newInstance(FloatConstructor floatConstructor, Class<?> type, float value,
+                            DeserializationContext context) throws IOException {
+    try {
+      return floatConstructor.newInstance(value);
+    } catch (RuntimeException e) {
+      // only returns if a DeserializationProblemHandler provides a value
+      return context.handleInstantiationProblem(type, value, e);
+    }
+  }
+
+  /* model
+  final class FloatConstructorImpl implements FloatConstructor {
+    public Object newInstance(float value) {
+      return new Temperature(value);
+    }
+  }*/
+
+  // Call the constructor that takes a single float, no boxing, no reflection
+  @FunctionalInterface
+  interface FloatConstructor {
+    Object newInstance(float value);
+  }
+
+  // Returns the FloatConstructor of a class or null if the class has no constructor with a single float
+  static FloatConstructor floatConstructor(Class<?> type) {
+    return FLOAT_CONSTRUCTORS.get(type);
+  }
+
+  private static final ClassValue<FloatConstructor> FLOAT_CONSTRUCTORS = new ClassValue<>() {
+    @Override
+    protected FloatConstructor computeValue(Class<?> type) {
+      Constructor<?> constructor;
+      try {
+        constructor = type.getDeclaredConstructor(float.class);
+      } catch (NoSuchMethodException _) {
+        return null;
+      }
+      return createFloatConstructor(constructor);
+    }
+  };
+
+  private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+  private static final ClassDesc CD_FLOAT_CONSTRUCTOR = ClassDesc.of(FloatConstructor.class.getName());
+
+  private static FloatConstructor createFloatConstructor(Constructor<?> constructor) {
+    var type = constructor.getDeclaringClass();
+    if (Modifier.isPublic(constructor.getModifiers()) && isAccessible(type)) {
+      return spinFloatConstructor(type);
+    }
+
+    // the generated code can not access the constructor, use a method handle with an exact type
+    constructor.setAccessible(true);
+    MethodHandle mh;
+    try {
+      mh = LOOKUP.unreflectConstructor(constructor)
+          .asType(MethodType.methodType(Object.class, float.class));
+    } catch (IllegalAccessException e) {
+      throw (IllegalAccessError) new IllegalAccessError().initCause(e);
+    }
+    return value -> {
+      try {
+        return (Object) mh.invokeExact(value);
+      } catch (RuntimeException | Error e) {
+        throw e;
+      } catch (Throwable e) {
+        throw new UndeclaredThrowableException(e);
       }
     };
   }
+
+  private static boolean isAccessible(Class<?> type) {
+    try {
+      LOOKUP.accessClass(type);
+      return true;
+    } catch (IllegalAccessException _) {
+      return false;
+    }
+  }
+
+  private static FloatConstructor spinFloatConstructor(Class<?> type) {
+    var thisClass = ClassDesc.of(FloatConstructorDeserializerModifier.class.getPackageName(), "FloatConstructorImpl");
+    var typeDesc = ClassDesc.ofDescriptor(type.descriptorString());
+    var classBytes = ClassFile.of().build(thisClass, cb -> {
+      cb.withVersion(JAVA_27_VERSION, PREVIEW_MINOR_VERSION);
+      cb.withFlags(ACC_PUBLIC | ACC_FINAL);
+      cb.withSuperclass(CD_Object);
+      cb.withInterfaceSymbols(CD_FLOAT_CONSTRUCTOR);
+
+      cb.withMethod(INIT_NAME, MethodTypeDesc.of(CD_void), ACC_PUBLIC, mb -> {
+        mb.withCode(codeb -> {
+          codeb.aload(0);
+          codeb.invokespecial(CD_Object, INIT_NAME, MethodTypeDesc.of(CD_void));
+          codeb.return_();
+        });
+      });
+
+      cb.withMethod("newInstance", MethodTypeDesc.of(CD_Object, CD_float), ACC_PUBLIC, mb -> {
+        mb.withCode(codeb -> {
+          codeb.new_(typeDesc);
+          codeb.dup();
+          codeb.fload(1);  // value
+          codeb.invokespecial(typeDesc, INIT_NAME, MethodTypeDesc.of(CD_void, CD_float));
+          codeb.areturn();
+        });
+      });
+    });
+
+    MethodHandles.Lookup implLookup;
+    try {
+      implLookup = LOOKUP.defineHiddenClass(classBytes, true, NESTMATE, STRONG);
+    } catch (IllegalAccessException e) {
+      throw (IllegalAccessError) new IllegalAccessError().initCause(e);
+    }
+    MethodHandle constructor;
+    try {
+      constructor = implLookup.findConstructor(implLookup.lookupClass(), MethodType.methodType(void.class))
+          .asType(MethodType.methodType(FloatConstructor.class));
+    } catch (NoSuchMethodException e) {
+      throw (NoSuchMethodError) new NoSuchMethodError().initCause(e);
+    } catch (IllegalAccessException e) {
+      throw (IllegalAccessError) new IllegalAccessError().initCause(e);
+    }
+    try {
+      return (FloatConstructor) constructor.invokeExact();
+    } catch (RuntimeException | Error e) {
+      throw e;
+    } catch (Throwable e) {
+      throw new UndeclaredThrowableException(e);
+    }
+  }
 }
@@ -0,0 +1,117 @@
+package util;
+
+import java.util.Objects;
+
+/**
+ * Aggregations on a range of a float array.
+ * If the module jdk.incubator.vector is present (--add-modules jdk.incubator.vector),
+ * the loops use SIMD instructions, otherwise they are plain scalar loops.
+ * <p>
+ * The vectorized sum adds the values in a different order, so the result may differ
+ * from the scalar sum by a rounding error.
+ */
+public final class FloatKernels {
+  private FloatKernels() {
+    throw new AssertionError();
+  }
+
+  private static final boolean VECTORIZED =
+      ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+  // The scalar loops, used if the Vector API is not available, are package-private so they are tested
+  // whatever the modules of the test run
+
+  /** Returns true if the kernels use the Vector API */
+  public static boolean isVectorized() {
+    return VECTORIZED;
+  }
+
+  /** Returns the minimum value of the range or +Infinity if the range is empty */
+  public static float min(float[] array, int start, int end) {
+    Objects.checkFromToIndex(start, end, array.length);
+    if (VECTORIZED) {
+      return VectorKernels.min(array, start, end);
+    }
+    return scalarMin(array, start, end);
+  }
+
+  static float scalarMin(float[] array, int start, int end) {
+    var result = Float.POSITIVE_INFINITY;
+    for (var i = start; i < end; i++) {
+      result = Math.min(result, array[i]);
+    }
+    return result;
+  }
+
+  /** Returns the maximum value of the range or -Infinity if the range is empty */
+  public static float max(float[] array, int start, int end) {
+    Objects.checkFromToIndex(start, end, array.length);
+    if (VECTORIZED) {
+      return VectorKernels.max(array, start, end);
+    }
+    return scalarMax(array, start, end);
+  }
+
+  static float scalarMax(float[] array, int start, int end) {
+    var result = Float.NEGATIVE_INFINITY;
+    for (var i = start; i < end; i++) {
+      result = Math.max(result, array[i]);
+    }
+    return result;
+  }
+
+  /** Returns the sum of the values of the range */
+  public static float sum(float[] array, int start, int end) {
+    Objects.checkFromToIndex(start, end, array.length);
+    if (VECTORIZED) {
+      return VectorKernels.sum(array, start, end);
+    }
+    return scalarSum(array, start, end);
+  }
+
+  static float scalarSum(float[] array, int start, int end) {
+    var result = 0.0f;
+    for (var i = start; i < end; i++) {
+      result += array[i];
+    }
+    return result;
+  }
+
+  /** Returns the number of values of the range strictly greater than the threshold */
+  public static int countGreaterThan(float[] array, int start, int end, float threshold) {
+    Objects.checkFromToIndex(start, end, array.length);
+    if (VECTORIZED) {
+      return VectorKernels.countGreaterThan(array, start, end, threshold);
+    }
+    return scalarCountGreaterThan(array, start, end, threshold);
+  }
+
+  static int scalarCountGreaterThan(float[] array, int start, int end, float threshold) {
+    var count = 0;
+    for (var i = start; i < end; i++) {
+      if (array[i] > threshold) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  /** Returns the number of values of the range strictly less than the threshold */
+  public static int countLessThan(float[] array, int start, int end, float threshold) {
+    Objects.checkFromToIndex(start, end, array.length);
+    if (VECTORIZED) {
+      return VectorKernels.countLessThan(array, start, end, threshold);
+    }
+    return scalarCountLessThan(array, start, end, threshold);
+  }
+
+  static int scalarCountLessThan(float[] array, int start, int end, float threshold) {
+    var count = 0;
+    for (var i = start; i < end; i++) {
+      if (array[i] < threshold) {
+        count++;
+      }
+    }
+    return count;
+  }
+}
@@ -2,9 +2,11 @@ package util;
 
 import java.util.AbstractList;
 import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Spliterator;
 import java.util.function.IntFunction;
 
-public final class GenericAggregateList<E> extends AbstractList<E> {
+public final class GenericAggregateList<E> extends AbstractList<E> implements RandomAccess {
   private final int size;
   private final IntFunction<? extends E> mapper;
 
@@ -26,4 +28,9 @@ public final class GenericAggregateList<E> extends AbstractList<E> {
     Objects.checkIndex(index, size);
     return mapper.apply(index);
   }
+
+  @Override
+  public Spliterator<E> spliterator() {
+    return new IndexSpliterator<>(mapper, 0, size, 0);
+  }
 }
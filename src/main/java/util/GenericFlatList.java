@@ -4,10 +4,13 @@ import java.lang.reflect.Array;
 import java.util.AbstractList;
 import java.util.Arrays;
 import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import jdk.internal.value.ValueClass;
 import jdk.internal.misc.Unsafe;
 
-public final class GenericFlatList<E> extends AbstractList<E> {
+public final class GenericFlatList<E> extends AbstractList<E> implements RandomAccess {
   private static final ClassValue<Object> DEFAULT_VALUE = new ClassValue<>() {
     @Override
     protected Object computeValue(Class<?> type) {
@@ -123,6 +126,14 @@ public final class GenericFlatList<E> extends AbstractList<E> {
     return true;
   }
 
+  @Override
+  public Spliterator<E> spliterator() {
+    var characteristics = ValueClass.isNullRestrictedArray(values) ?
+        Spliterator.ORDERED | Spliterator.NONNULL :
+        Spliterator.ORDERED;
+    return Spliterators.spliterator(values, 0, size, characteristics);
+  }
+
   public boolean isFlat() {
     return ValueClass.isFlatArray(values);
   }
@@ -0,0 +1,63 @@
+package util;
+
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+// A spliterator on a range of indexes that splits in the middle,
+// used by the lists that have a fast random access but no backing array
+final class IndexSpliterator<E> implements Spliterator<E> {
+  private final IntFunction<? extends E> mapper;
+  private int index;
+  private final int end;
+  private final int characteristics;
+
+  IndexSpliterator(IntFunction<? extends E> mapper, int index, int end, int characteristics) {
+    this.mapper = mapper;
+    this.index = index;
+    this.end = end;
+    this.characteristics = characteristics | ORDERED | SIZED | SUBSIZED;
+  }
+
+  @Override
+  public boolean tryAdvance(Consumer<? super E> action) {
+    Objects.requireNonNull(action);
+    if (index >= end) {
+      return false;
+    }
+    action.accept(mapper.apply(index++));
+    return true;
+  }
+
+  @Override
+  public void forEachRemaining(Consumer<? super E> action) {
+    Objects.requireNonNull(action);
+    var i = index;
+    index = end;
+    for (; i < end; i++) {
+      action.accept(mapper.apply(i));
+    }
+  }
+
+  @Override
+  public Spliterator<E> trySplit() {
+    var lo = index;
+    var mid = (lo + end) >>> 1;
+    if (lo >= mid) {
+      return null;
+    }
+    index = mid;
+    return new IndexSpliterator<>(mapper, lo, mid, characteristics);
+  }
+
+  @Override
+  public long estimateSize() {
+    return end - index;
+  }
+
+  @Override
+  public int characteristics() {
+    return characteristics;
+  }
+}
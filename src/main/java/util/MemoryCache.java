@@ -0,0 +1,164 @@
+package util;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.LinkedHashMap;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.ToLongFunction;
+
+/**
+ * A thread safe cache that keeps the most recently used values in memory.
+ * The size of the cache is bounded by the sum of the weights (usually the size in bytes) of the values,
+ * when the sum is greater than the maximum weight, the least recently used values are evicted.
+ *
+ * @param <K> type of the keys
+ * @param <V> type of the values
+ */
+public final class MemoryCache<K, V> {
+  /**
+   * Statistics of a cache.
+   *
+   * @param hits number of lookups that have found a value
+   * @param misses number of lookups that have not found a value
+   * @param evictions number of values evicted
+   * @param weight current sum of the weights of the values
+   * @param maxWeight maximum sum of the weights of the values
+   */
+  public record Stats(long hits, long misses, long evictions, long weight, long maxWeight) {}
+
+  @FunctionalInterface
+  public interface Loader<K, V> {
+    V load(K key) throws IOException;
+  }
+
+  private record Entry<V>(V value, long weight) {}
+
+  private final long maxWeight;
+  private final ToLongFunction<? super V> weigher;
+  private final LinkedHashMap<K, Entry<V>> map = new LinkedHashMap<>(16, 0.75f, true);  // access order
+  private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();  // values being loaded
+  private long weight;
+  private long hits, misses, evictions;
+
+  public MemoryCache(long maxWeight, ToLongFunction<? super V> weigher) {
+    if (maxWeight < 0) {
+      throw new IllegalArgumentException("Invalid maxWeight: " + maxWeight);
+    }
+    this.maxWeight = maxWeight;
+    this.weigher = Objects.requireNonNull(weigher);
+  }
+
+  /** Returns the value associated with the key or null */
+  public V get(K key) {
+    Objects.requireNonNull(key);
+    synchronized (map) {
+      var entry = map.get(key);
+      if (entry == null) {
+        misses++;
+        return null;
+      }
+      hits++;
+      return entry.value;
+    }
+  }
+
+  // Returns the value associated with the key or null, the statistics are not updated
+  private V peek(K key) {
+    synchronized (map) {
+      var entry = map.get(key);
+      return entry == null ? null : entry.value;
+    }
+  }
+
+  private static <V> V awaitFlight(Object key, CompletableFuture<V> flight) throws IOException {
+    try {
+      return flight.get();
+    } catch (InterruptedException e) {
+      throw (InterruptedIOException) new InterruptedIOException().initCause(e);
+    } catch (ExecutionException e) {
+      throw new IOException("concurrent load of " + key + " failed", e.getCause());
+    }
+  }
+
+  /**
+   * Returns the value associated with the key, or loads it and stores it into the cache.
+   * The loader is called without holding any lock, only one thread calls the loader for a key,
+   * the other threads wait for the value it returns.
+   */
+  public V get(K key, Loader<? super K, ? extends V> loader) throws IOException {
+    Objects.requireNonNull(loader);
+    var value = get(key);
+    if (value != null) {
+      return value;
+    }
+
+    var flight = new CompletableFuture<V>();
+    var existingFlight = inFlight.putIfAbsent(key, flight);
+    if (existingFlight != null) {
+      return awaitFlight(key, existingFlight);
+    }
+
+    // the value may have been stored by another thread in between
+    value = peek(key);
+    if (value == null) {
+      try {
+        value = loader.load(key);
+        put(key, value);
+      } catch (IOException | RuntimeException | Error e) {
+        inFlight.remove(key, flight);
+        flight.completeExceptionally(e);
+        throw e;
+      }
+    }
+    inFlight.remove(key, flight);
+    flight.complete(value);
+    return value;
+  }
+
+  /** Stores the value, a value heavier than the maximum weight is not stored */
+  public void put(K key, V value) {
+    Objects.requireNonNull(key);
+    Objects.requireNonNull(value);
+    var valueWeight = weigher.applyAsLong(value);
+    if (valueWeight < 0) {
+      throw new IllegalStateException("Invalid weight: " + valueWeight);
+    }
+    synchronized (map) {
+      var old = map.remove(key);
+      if (old != null) {
+        weight -= old.weight;
+      }
+      if (valueWeight > maxWeight) {
+        return;
+      }
+      map.put(key, new Entry<>(value, valueWeight));
+      weight += valueWeight;
+
+      // evict the least recently used entries
+      var iterator = map.values().iterator();
+      while (weight > maxWeight) {
+        var entry = iterator.next();
+        iterator.remove();
+        weight -= entry.weight;
+        evictions++;
+      }
+    }
+  }
+
+  /** Removes all the values, the statistics are not reset */
+  public void clear() {
+    synchronized (map) {
+      map.clear();
+      weight = 0;
+    }
+  }
+
+  public Stats stats() {
+    synchronized (map) {
+      return new Stats(hits, misses, evictions, weight, maxWeight);
+    }
+  }
+}
@@ -0,0 +1,67 @@
+package util;
+
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
+
+/**
+ * Reduces a range of indexes in parallel using the common fork/join pool.
+ * The range is split in halves until a sub-range is not bigger than the threshold,
+ * the results of the sub-ranges are combined in order, so the combiner must be associative.
+ */
+public final class ParallelReduce {
+  private ParallelReduce() {
+    throw new AssertionError();
+  }
+
+  @FunctionalInterface
+  public interface RangeFunction<R> {
+    R apply(int start, int end);
+  }
+
+  public static <R> R reduce(int size, int threshold, RangeFunction<? extends R> function,
+                             BinaryOperator<R> combiner) {
+    Objects.requireNonNull(function);
+    Objects.requireNonNull(combiner);
+    if (size < 0) {
+      throw new IllegalArgumentException("Invalid size: " + size);
+    }
+    if (threshold < 1) {
+      throw new IllegalArgumentException("Invalid threshold: " + threshold);
+    }
+    if (size <= threshold) {
+      return function.apply(0, size);
+    }
+    return ForkJoinPool.commonPool().invoke(new ReduceTask<>(0, size, threshold, function, combiner));
+  }
+
+  private static final class ReduceTask<R> extends RecursiveTask<R> {
+    private final int start;
+    private final int end;
+    private final int threshold;
+    private final RangeFunction<? extends R> function;
+    private final BinaryOperator<R> combiner;
+
+    private ReduceTask(int start, int end, int threshold, RangeFunction<? extends R> function,
+                       BinaryOperator<R> combiner) {
+      this.start = start;
+      this.end = end;
+      this.threshold = threshold;
+      this.function = function;
+      this.combiner = combiner;
+    }
+
+    @Override
+    protected R compute() {
+      if (end - start <= threshold) {
+        return function.apply(start, end);
+      }
+      var middle = (start + end) >>> 1;
+      var left = new ReduceTask<>(start, middle, threshold, function, combiner);
+      left.fork();
+      var right = new ReduceTask<>(middle, end, threshold, function, combiner).compute();
+      return combiner.apply(left.join(), right);
+    }
+  }
+}
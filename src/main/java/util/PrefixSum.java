@@ -0,0 +1,38 @@
+package util;
+
+import java.util.Objects;
+
+/**
+ * Answers the sum of any range of a float array in O(1).
+ * The prefix sums are stored as doubles, so the rounding errors do not accumulate along the array.
+ * A sum is the difference of two prefix sums rounded to a float, so it may differ by a rounding error
+ * from the sum of a float loop over the same values, a comparison between the two needs a tolerance.
+ */
+public final class PrefixSum {
+  private final double[] sums;
+
+  public PrefixSum(float[] values) {
+    Objects.requireNonNull(values);
+    var sums = new double[values.length + 1];
+    for (var i = 0; i < values.length; i++) {
+      sums[i + 1] = sums[i] + values[i];
+    }
+    this.sums = sums;
+  }
+
+  /** Number of values */
+  public int size() {
+    return sums.length - 1;
+  }
+
+  /** Sum of the values between from (inclusive) and to (exclusive) */
+  public float sum(int from, int to) {
+    Objects.checkFromToIndex(from, to, sums.length - 1);
+    return (float) (sums[to] - sums[from]);
+  }
+
+  /** Number of bytes used by the prefix sums */
+  public long memoryBytes() {
+    return (long) sums.length * Double.BYTES;
+  }
+}
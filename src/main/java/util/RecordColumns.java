@@ -0,0 +1,217 @@
+package util;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The float columns of a record, one column per record component, named by the {@link JsonProperty}
+ * of the component. A component is either a {@code float[]} or a {@code List} of a record with
+ * a single float component (as Temperature), the list is flat if the record is a value record.
+ * The names and the accessors are derived from the record, adding a component adds a column.
+ *
+ * @param <R> type of the record
+ */
+public final class RecordColumns<R extends Record> {
+  private final List<String> names;
+  private final MethodHandle[] accessors;  // (Record)Object
+  private final Class<?>[] elementTypes;   // null if the component is a float[]
+  private final MethodHandle[] elementAccessors;  // (Object)float, null if the component is a float[]
+  private final FloatConstructorDeserializerModifier.FloatConstructor[] elementConstructors;
+  private final MethodHandle constructor;  // (Object[])Record
+
+  private RecordColumns(List<String> names, MethodHandle[] accessors, Class<?>[] elementTypes,
+                        MethodHandle[] elementAccessors,
+                        FloatConstructorDeserializerModifier.FloatConstructor[] elementConstructors,
+                        MethodHandle constructor) {
+    this.names = names;
+    this.accessors = accessors;
+    this.elementTypes = elementTypes;
+    this.elementAccessors = elementAccessors;
+    this.elementConstructors = elementConstructors;
+    this.constructor = constructor;
+  }
+
+  /** Returns the columns of the record, the lookup must be able to access the record and its components */
+  public static <R extends Record> RecordColumns<R> of(MethodHandles.Lookup lookup, Class<R> recordType) {
+    Objects.requireNonNull(lookup);
+    Objects.requireNonNull(recordType);
+    if (!recordType.isRecord()) {
+      throw new IllegalArgumentException("Invalid record type: " + recordType.getName());
+    }
+    var components = recordType.getRecordComponents();
+    var names = new ArrayList<String>(components.length);
+    var accessors = new MethodHandle[components.length];
+    var elementTypes = new Class<?>[components.length];
+    var elementAccessors = new MethodHandle[components.length];
+    var elementConstructors = new FloatConstructorDeserializerModifier.FloatConstructor[components.length];
+    try {
+      for (var i = 0; i < components.length; i++) {
+        var component = components[i];
+        // the annotation is propagated to the accessor, not to the record component
+        var property = component.getAccessor().getAnnotation(JsonProperty.class);
+        if (property == null) {
+          throw new IllegalArgumentException("No @JsonProperty on component: " + component.getName());
+        }
+        names.add(property.value());
+        accessors[i] = lookup.unreflect(component.getAccessor())
+            .asType(MethodType.methodType(Object.class, Record.class));
+        if (component.getType() == float[].class) {
+          continue;
+        }
+        if (component.getType() != List.class ||
+            !(component.getGenericType() instanceof ParameterizedType parameterizedType) ||
+            !(parameterizedType.getActualTypeArguments()[0] instanceof Class<?> elementType)) {
+          throw new IllegalArgumentException("Invalid component type: " + component.getGenericType());
+        }
+        var elementComponents = elementType.getRecordComponents();
+        var elementConstructor = FloatConstructorDeserializerModifier.floatConstructor(elementType);
+        if (elementComponents == null || elementComponents.length != 1 ||
+            elementComponents[0].getType() != float.class || elementConstructor == null) {
+          throw new IllegalArgumentException("Invalid element type: " + elementType.getName());
+        }
+        elementTypes[i] = elementType;
+        elementAccessors[i] = lookup.unreflect(elementComponents[0].getAccessor())
+            .asType(MethodType.methodType(float.class, Object.class));
+        elementConstructors[i] = elementConstructor;
+      }
+      var componentTypes = Arrays.stream(components).map(c -> c.getType()).toArray(Class<?>[]::new);
+      var constructor = lookup.findConstructor(recordType, MethodType.methodType(void.class, componentTypes))
+          .asSpreader(Object[].class, components.length)
+          .asType(MethodType.methodType(Record.class, Object[].class));
+      return new RecordColumns<>(List.copyOf(names), accessors, elementTypes, elementAccessors,
+          elementConstructors, constructor);
+    } catch (NoSuchMethodException | IllegalAccessException e) {
+      throw (IllegalAccessError) new IllegalAccessError().initCause(e);
+    }
+  }
+
+  /** Names of the columns, in the order of the components */
+  public List<String> names() {
+    return names;
+  }
+
+  /** Returns an unmodifiable copy of the names, all names must be names of columns and appear only once */
+  public List<String> checkNames(List<String> names) {
+    var copy = List.copyOf(names);
+    if (copy.isEmpty()) {
+      throw new IllegalArgumentException("Names must not be empty");
+    }
+    for (var name : copy) {
+      if (!this.names.contains(name)) {
+        throw new IllegalArgumentException("Invalid name: " + name);
+      }
+      if (copy.indexOf(name) != copy.lastIndexOf(name)) {
+        throw new IllegalArgumentException("Duplicate name: " + name);
+      }
+    }
+    return copy;
+  }
+
+  private int indexOf(String name) {
+    var index = names.indexOf(name);
+    if (index == -1) {
+      throw new IllegalArgumentException("Invalid name: " + name);
+    }
+    return index;
+  }
+
+  private Object component(R record, int index) {
+    try {
+      return (Object) accessors[index].invokeExact((Record) record);
+    } catch (RuntimeException | Error e) {
+      throw e;
+    } catch (Throwable e) {
+      throw new UndeclaredThrowableException(e);
+    }
+  }
+
+  /** Returns the values of a column, a float[] component is returned as is and must not be modified */
+  public float[] column(R record, String name) {
+    Objects.requireNonNull(record);
+    var index = indexOf(name);
+    var component = component(record, index);
+    if (elementTypes[index] == null) {
+      return (float[]) component;
+    }
+    var list = (List<?>) component;
+    var elementAccessor = elementAccessors[index];
+    var values = new float[list.size()];
+    try {
+      for (var i = 0; i < values.length; i++) {
+        values[i] = (float) elementAccessor.invokeExact((Object) list.get(i));
+      }
+    } catch (RuntimeException | Error e) {
+      throw e;
+    } catch (Throwable e) {
+      throw new UndeclaredThrowableException(e);
+    }
+    return values;
+  }
+
+  private int size(R record, int index) {
+    var component = component(record, index);
+    return elementTypes[index] == null ? ((float[]) component).length : ((List<?>) component).size();
+  }
+
+  /** Number of values of a column, without copying them */
+  public int size(R record, String name) {
+    Objects.requireNonNull(record);
+    return size(record, indexOf(name));
+  }
+
+  /** Number of values of the longest column */
+  public int rowCount(R record) {
+    Objects.requireNonNull(record);
+    var rowCount = 0;
+    for (var i = 0; i < accessors.length; i++) {
+      rowCount = Math.max(rowCount, size(record, i));
+    }
+    return rowCount;
+  }
+
+  /**
+   * Creates a record from the columns of the names, in the same order.
+   * The components of the columns that are not part of the names are null.
+   */
+  @SuppressWarnings("unchecked")
+  public R create(List<String> names, float[][] columns) {
+    Objects.requireNonNull(names);
+    Objects.requireNonNull(columns);
+    if (names.size() != columns.length) {
+      throw new IllegalArgumentException("names size != columns length");
+    }
+    var args = new Object[accessors.length];
+    for (var i = 0; i < columns.length; i++) {
+      var index = indexOf(names.get(i));
+      args[index] = elementTypes[index] == null ? columns[i] : toList(index, columns[i]);
+    }
+    try {
+      return (R) (Record) constructor.invokeExact(args);
+    } catch (RuntimeException | Error e) {
+      throw e;
+    } catch (Throwable e) {
+      throw new UndeclaredThrowableException(e);
+    }
+  }
+
+  private List<Object> toList(int index, float[] values) {
+    var elementType = elementTypes[index];
+    var elementConstructor = elementConstructors[index];
+    List<Object> list = elementType.isValue() ?
+        FlatListFactory.create(elementType, FlatListFactory.NON_ATOMIC_FLAT, Math.max(1, values.length)) :
+        new ArrayList<>(values.length);
+    for (var value : values) {
+      list.add(elementConstructor.newInstance(value));
+    }
+    return list;
+  }
+}
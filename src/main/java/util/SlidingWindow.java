@@ -0,0 +1,108 @@
+package util;
+
+/**
+ * Aggregates the last values appended, at most {@link #capacity()} values are kept.
+ * The minimum and the maximum are kept with monotonic deques and the sum with a running total,
+ * so {@link #append(float)} is O(1) amortized and the memory used only depends on the capacity.
+ * The deques store the slots of the values in the ring buffer, a slot leaves a deque when its value is evicted.
+ * The sum is a running double sum, values are added then subtracted when evicted, so it may differ
+ * by a rounding error from the sum of a float loop over the values of the window.
+ */
+public final class SlidingWindow {
+  private final float[] values;   // ring buffer of the last values
+  private final int[] minSlots;   // slots of increasing values, the head is the minimum
+  private final int[] maxSlots;   // slots of decreasing values, the head is the maximum
+  private int position;           // slot of the next value
+  private int size;
+  private int minHead, minSize;
+  private int maxHead, maxSize;
+  private double sum;
+
+  public SlidingWindow(int capacity) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("Invalid capacity: " + capacity);
+    }
+    values = new float[capacity];
+    minSlots = new int[capacity];
+    maxSlots = new int[capacity];
+  }
+
+  /** Maximum number of values of the window */
+  public int capacity() {
+    return values.length;
+  }
+
+  /** Number of values in the window */
+  public int size() {
+    return size;
+  }
+
+  /** Appends a value, if the window is full the oldest value is evicted */
+  public void append(float value) {
+    var capacity = values.length;
+    if (size == capacity) {
+      sum -= values[position];
+      if (minSize != 0 && minSlots[minHead] == position) {
+        minHead = next(minHead);
+        minSize--;
+      }
+      if (maxSize != 0 && maxSlots[maxHead] == position) {
+        maxHead = next(maxHead);
+        maxSize--;
+      }
+    } else {
+      size++;
+    }
+    values[position] = value;
+    sum += value;
+
+    // the values that can not be the minimum (resp. maximum) anymore are removed from the tail
+    while (minSize != 0 && values[minSlots[slot(minHead, minSize - 1)]] >= value) {
+      minSize--;
+    }
+    minSlots[slot(minHead, minSize++)] = position;
+    while (maxSize != 0 && values[maxSlots[slot(maxHead, maxSize - 1)]] <= value) {
+      maxSize--;
+    }
+    maxSlots[slot(maxHead, maxSize++)] = position;
+
+    position = next(position);
+    if (position == 0) {
+      // recompute the sum once per turn of the ring buffer, so the rounding errors do not accumulate
+      var total = 0.0;
+      for (var i = 0; i < size; i++) {
+        total += values[i];
+      }
+      sum = total;
+    }
+  }
+
+  private int next(int slot) {
+    return slot + 1 == values.length ? 0 : slot + 1;
+  }
+
+  private int slot(int head, int offset) {
+    var slot = head + offset;
+    return slot >= values.length ? slot - values.length : slot;
+  }
+
+  /** Minimum of the values of the window or {@link Float#POSITIVE_INFINITY} if the window is empty */
+  public float min() {
+    return minSize == 0 ? Float.POSITIVE_INFINITY : values[minSlots[minHead]];
+  }
+
+  /** Maximum of the values of the window or {@link Float#NEGATIVE_INFINITY} if the window is empty */
+  public float max() {
+    return maxSize == 0 ? Float.NEGATIVE_INFINITY : values[maxSlots[maxHead]];
+  }
+
+  /** Sum of the values of the window */
+  public float sum() {
+    return (float) sum;
+  }
+
+  /** Number of bytes used by the ring buffer and the deques */
+  public long memoryBytes() {
+    return (long) values.length * (Float.BYTES + 2 * Integer.BYTES);
+  }
+}
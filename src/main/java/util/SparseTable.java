@@ -0,0 +1,72 @@
+package util;
+
+import java.util.Objects;
+
+/**
+ * Answers the minimum or the maximum of any range of a float array in O(1).
+ * Level k stores the min/max of the ranges of 2^k values, a query combines two overlapping ranges.
+ * The table uses n * log2(n) floats, the first level is a copy of the array,
+ * so the table is not changed if the array is modified after the table is created.
+ */
+public final class SparseTable {
+  private final boolean min;
+  private final float[][] levels;
+
+  private SparseTable(boolean min, float[][] levels) {
+    this.min = min;
+    this.levels = levels;
+  }
+
+  public static SparseTable ofMin(float[] values) {
+    Objects.requireNonNull(values);
+    return new SparseTable(true, build(values.clone(), true));
+  }
+
+  public static SparseTable ofMax(float[] values) {
+    Objects.requireNonNull(values);
+    return new SparseTable(false, build(values.clone(), false));
+  }
+
+  private static float[][] build(float[] values, boolean min) {
+    var levelCount = values.length == 0 ? 1 : 32 - Integer.numberOfLeadingZeros(values.length);
+    var levels = new float[levelCount][];
+    levels[0] = values;
+    for (var k = 1; k < levelCount; k++) {
+      var previous = levels[k - 1];
+      var half = 1 << (k - 1);
+      var level = new float[values.length - (1 << k) + 1];
+      for (var i = 0; i < level.length; i++) {
+        level[i] = min ? Math.min(previous[i], previous[i + half]) : Math.max(previous[i], previous[i + half]);
+      }
+      levels[k] = level;
+    }
+    return levels;
+  }
+
+  /** Number of values */
+  public int size() {
+    return levels[0].length;
+  }
+
+  /** Min or max of the values between from (inclusive) and to (exclusive), +/-Infinity if the range is empty */
+  public float query(int from, int to) {
+    Objects.checkFromToIndex(from, to, levels[0].length);
+    if (from == to) {
+      return min ? Float.POSITIVE_INFINITY : Float.NEGATIVE_INFINITY;
+    }
+    var k = 31 - Integer.numberOfLeadingZeros(to - from);
+    var level = levels[k];
+    var value1 = level[from];
+    var value2 = level[to - (1 << k)];
+    return min ? Math.min(value1, value2) : Math.max(value1, value2);
+  }
+
+  /** Number of bytes used by the table, including the first level that is the copy of the values */
+  public long memoryBytes() {
+    var bytes = 0L;
+    for (var k = 0; k < levels.length; k++) {
+      bytes += (long) levels[k].length * Float.BYTES;
+    }
+    return bytes;
+  }
+}
@@ -0,0 +1,114 @@
+package util;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * The calendar days, months or years covered by hourly values starting at midnight of a start date.
+ * A bucket is a range of hours, the first and the last buckets may be partial.
+ *
+ * @param startDate date of the first hour
+ * @param unit DAYS, MONTHS or YEARS
+ * @param offsets index of the first hour of each bucket followed by the number of hours,
+ *                the array is copied, the accessor returns a copy
+ */
+public record TimeBuckets(LocalDate startDate, ChronoUnit unit, int[] offsets) {
+  public TimeBuckets {
+    Objects.requireNonNull(startDate);
+    Objects.requireNonNull(unit);
+    Objects.requireNonNull(offsets);
+    checkUnit(unit);
+    if (offsets.length == 0) {
+      throw new IllegalArgumentException("offsets is empty");
+    }
+    offsets = offsets.clone();
+  }
+
+  @Override
+  public int[] offsets() {
+    return offsets.clone();
+  }
+
+  // the array is compared by content
+  @Override
+  public boolean equals(Object o) {
+    return o instanceof TimeBuckets buckets
+        && startDate.equals(buckets.startDate)
+        && unit == buckets.unit
+        && Arrays.equals(offsets, buckets.offsets);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(startDate, unit, Arrays.hashCode(offsets));
+  }
+
+  @Override
+  public String toString() {
+    return "TimeBuckets[startDate=" + startDate + ", unit=" + unit + ", offsets=" + Arrays.toString(offsets) + "]";
+  }
+
+  private static void checkUnit(ChronoUnit unit) {
+    switch (unit) {
+      case DAYS, MONTHS, YEARS -> {}
+      default -> throw new IllegalArgumentException("Invalid unit: " + unit);
+    }
+  }
+
+  /** Splits hourCount hours starting at startDate in days, months or years */
+  public static TimeBuckets of(LocalDate startDate, int hourCount, ChronoUnit unit) {
+    Objects.requireNonNull(startDate);
+    Objects.requireNonNull(unit);
+    checkUnit(unit);
+    if (hourCount < 0) {
+      throw new IllegalArgumentException("Invalid hourCount: " + hourCount);
+    }
+    var first = truncate(startDate, unit);
+    var offsets = new int[16];
+    var size = 0;
+    for (var hour = 0; hour < hourCount; size++) {
+      if (size + 1 == offsets.length) {
+        offsets = Arrays.copyOf(offsets, offsets.length << 1);
+      }
+      offsets[size] = hour;
+      var next = first.plus(size + 1, unit);
+      hour = (int) Math.min(hourCount, ChronoUnit.DAYS.between(startDate, next) * 24);
+    }
+    offsets[size] = hourCount;
+    return new TimeBuckets(startDate, unit, Arrays.copyOf(offsets, size + 1));
+  }
+
+  private static LocalDate truncate(LocalDate date, ChronoUnit unit) {
+    return switch (unit) {
+      case DAYS -> date;
+      case MONTHS -> date.withDayOfMonth(1);
+      case YEARS -> date.withDayOfYear(1);
+      default -> throw new AssertionError();
+    };
+  }
+
+  /** Number of buckets */
+  public int size() {
+    return offsets.length - 1;
+  }
+
+  /** Index of the first hour of the bucket */
+  public int start(int bucket) {
+    Objects.checkIndex(bucket, size());
+    return offsets[bucket];
+  }
+
+  /** Index after the last hour of the bucket */
+  public int end(int bucket) {
+    Objects.checkIndex(bucket, size());
+    return offsets[bucket + 1];
+  }
+
+  /** First day of the day, month or year of the bucket */
+  public LocalDate date(int bucket) {
+    Objects.checkIndex(bucket, size());
+    return truncate(startDate, unit).plus(bucket, unit);
+  }
+}
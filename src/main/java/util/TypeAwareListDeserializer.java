@@ -11,21 +11,35 @@ import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 public final class TypeAwareListDeserializer extends StdDeserializer<List<?>> implements ContextualDeserializer {
+  /**
+   * Name of the attribute (see {@link com.fasterxml.jackson.databind.ObjectReader#withAttribute(Object, Object)})
+   * that gives the expected number of elements of the lists as an Integer, used as initial capacity.
+   */
+  public static final String EXPECTED_SIZE = TypeAwareListDeserializer.class.getName() + ".expectedSize";
+
   public TypeAwareListDeserializer(JavaType type) {
     super(type);
   }
 
-  private static List<Object> createList(JavaType contentType) {
+  private static int expectedSize(DeserializationContext ctxt) {
+    if (ctxt.getAttribute(EXPECTED_SIZE) instanceof Integer expectedSize && expectedSize > 0) {
+      return expectedSize;
+    }
+    return 16;
+  }
+
+  private static List<Object> createList(JavaType contentType, int initialCapacity) {
     var rawClass = contentType.getRawClass();
     if (rawClass.isValue()) {
       //return new GenericFlatList<>(rawClass, GenericFlatList.NON_ATOMIC_FLAT);
       //return FlatListFactory.create(rawClass, FlatListFactory.FLAT);
-      return FlatListFactory.create(rawClass, FlatListFactory.NON_ATOMIC_FLAT);
+      return FlatListFactory.create(rawClass, FlatListFactory.NON_ATOMIC_FLAT, Math.max(1, initialCapacity));
     }
-    return new ArrayList<>();
+    return new ArrayList<>(initialCapacity);
   }
 
   @Override
@@ -33,7 +47,16 @@ public final class TypeAwareListDeserializer extends StdDeserializer<List<?>> im
     var targetType = getValueType();
     var contentType = targetType.getContentType();
 
-    var list = createList(contentType);
+    var rawClass = contentType.getRawClass();
+    if (rawClass.isValue()) {
+      // value classes with a constructor that takes a single float (as Temperature, Windspeed, etc.)
+      var floatConstructor = FloatConstructorDeserializerModifier.floatConstructor(rawClass);
+      if (floatConstructor != null) {
+        return deserializeFloats(p, ctxt, contentType, floatConstructor);
+      }
+    }
+
+    var list = createList(contentType, expectedSize(ctxt));
     if (p.isExpectedStartArrayToken()) {
       var elementDeserializer = ctxt.findRootValueDeserializer(contentType);
       JsonToken token;
@@ -50,8 +73,39 @@ public final class TypeAwareListDeserializer extends StdDeserializer<List<?>> im
     return list;
   }
 
+  // Parse the array into a float[] (as Jackson does for a primitive array),
+  // then create the list once with its final size and add the values.
+  // A null (a missing hour) is rejected, as a float it would become a real 0 value
+  private List<?> deserializeFloats(JsonParser p, DeserializationContext ctxt,
+                                    JavaType contentType,
+                                    FloatConstructorDeserializerModifier.FloatConstructor floatConstructor) throws IOException {
+    var values = new float[expectedSize(ctxt)];
+    var size = 0;
+    if (p.isExpectedStartArrayToken()) {
+      JsonToken token;
+      while ((token = p.nextToken()) != JsonToken.END_ARRAY) {
+        if (size == values.length) {
+          values = Arrays.copyOf(values, size << 1);
+        }
+        if (token == JsonToken.VALUE_NULL) {
+          // only returns if a DeserializationProblemHandler provides a value
+          values[size++] = ((Number) ctxt.handleUnexpectedToken(float.class, p)).floatValue();
+          continue;
+        }
+        values[size++] = token.isNumeric() ? p.getFloatValue() : _parseFloatPrimitive(p, ctxt);
+      }
+    }
+
+    var list = createList(contentType, size);
+    var rawClass = contentType.getRawClass();
+    for (var i = 0; i < size; i++) {
+      list.add(FloatConstructorDeserializerModifier.newInstance(floatConstructor, rawClass, values[i], ctxt));
+    }
+    return list;
+  }
+
   @Override
   public JsonDeserializer<?> createContextual(DeserializationContext ctxt, BeanProperty property) {
     return new TypeAwareListDeserializer(property.getType());
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,87 @@
+package util;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+// Implementations of FloatKernels using the Vector API,
+// only loaded if the module jdk.incubator.vector is present
+final class VectorKernels {
+  private VectorKernels() {
+    throw new AssertionError();
+  }
+
+  private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+
+  static float min(float[] array, int start, int end) {
+    var accumulator = FloatVector.broadcast(SPECIES, Float.POSITIVE_INFINITY);
+    var i = start;
+    var loopBound = start + SPECIES.loopBound(end - start);
+    for (; i < loopBound; i += SPECIES.length()) {
+      accumulator = accumulator.min(FloatVector.fromArray(SPECIES, array, i));
+    }
+    var result = accumulator.reduceLanes(VectorOperators.MIN);
+    for (; i < end; i++) {
+      result = Math.min(result, array[i]);
+    }
+    return result;
+  }
+
+  static float max(float[] array, int start, int end) {
+    var accumulator = FloatVector.broadcast(SPECIES, Float.NEGATIVE_INFINITY);
+    var i = start;
+    var loopBound = start + SPECIES.loopBound(end - start);
+    for (; i < loopBound; i += SPECIES.length()) {
+      accumulator = accumulator.max(FloatVector.fromArray(SPECIES, array, i));
+    }
+    var result = accumulator.reduceLanes(VectorOperators.MAX);
+    for (; i < end; i++) {
+      result = Math.max(result, array[i]);
+    }
+    return result;
+  }
+
+  static float sum(float[] array, int start, int end) {
+    var accumulator = FloatVector.zero(SPECIES);
+    var i = start;
+    var loopBound = start + SPECIES.loopBound(end - start);
+    for (; i < loopBound; i += SPECIES.length()) {
+      accumulator = accumulator.add(FloatVector.fromArray(SPECIES, array, i));
+    }
+    var result = accumulator.reduceLanes(VectorOperators.ADD);
+    for (; i < end; i++) {
+      result += array[i];
+    }
+    return result;
+  }
+
+  static int countGreaterThan(float[] array, int start, int end, float threshold) {
+    var count = 0;
+    var i = start;
+    var loopBound = start + SPECIES.loopBound(end - start);
+    for (; i < loopBound; i += SPECIES.length()) {
+      count += FloatVector.fromArray(SPECIES, array, i).compare(VectorOperators.GT, threshold).trueCount();
+    }
+    for (; i < end; i++) {
+      if (array[i] > threshold) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  static int countLessThan(float[] array, int start, int end, float threshold) {
+    var count = 0;
+    var i = start;
+    var loopBound = start + SPECIES.loopBound(end - start);
+    for (; i < loopBound; i += SPECIES.length()) {
+      count += FloatVector.fromArray(SPECIES, array, i).compare(VectorOperators.LT, threshold).trueCount();
+    }
+    for (; i < end; i++) {
+      if (array[i] < threshold) {
+        count++;
+      }
+    }
+    return count;
+  }
+}
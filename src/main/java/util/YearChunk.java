@@ -0,0 +1,80 @@
+package util;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A part of a date range, a calendar year or a calendar month. The full years of a date range are fetched
+ * and cached year by year, the partial years at both ends are fetched month by month, a month is always
+ * fetched whole, except the month of the end date that ends with the date range (the following days
+ * may not be available yet). So date ranges that overlap share the same chunks, even if their start dates
+ * differ (as a rolling window of the last days), the hours before the start date are sliced out.
+ *
+ * @param startDate first day to fetch
+ * @param endDate last day to fetch (inclusive)
+ * @param fromHour index of the first fetched hour that is part of the date range
+ * @param toHour index after the last fetched hour that is part of the date range
+ */
+public record YearChunk(LocalDate startDate, LocalDate endDate, int fromHour, int toHour) {
+  public YearChunk {
+    Objects.requireNonNull(startDate);
+    Objects.requireNonNull(endDate);
+    if (!startDate.isBefore(endDate)) {
+      throw new IllegalArgumentException("StartDate must be before endDate");
+    }
+    Objects.checkFromToIndex(fromHour, toHour, Integer.MAX_VALUE);
+  }
+
+  /** Splits the date range (both dates are inclusive) in calendar years, or in calendar months for the partial years */
+  public static List<YearChunk> split(LocalDate startDate, LocalDate endDate) {
+    Objects.requireNonNull(startDate);
+    Objects.requireNonNull(endDate);
+    if (!startDate.isBefore(endDate)) {
+      throw new IllegalArgumentException("StartDate must be before endDate");
+    }
+    var chunks = new ArrayList<YearChunk>();
+    var date = startDate;  // first day that is not in a chunk
+    while (!date.isAfter(endDate)) {
+      var yearStart = date.withDayOfYear(1);
+      var yearEnd = yearStart.plusYears(1).minusDays(1);
+      if (date.equals(yearStart) && !yearEnd.isAfter(endDate)) {
+        chunks.add(chunk(yearStart, yearEnd, date, yearEnd));
+        date = yearEnd.plusDays(1);
+        continue;
+      }
+      var monthStart = date.withDayOfMonth(1);
+      var monthEnd = min(monthStart.plusMonths(1).minusDays(1), endDate);
+      chunks.add(chunk(monthStart, monthEnd, date, monthEnd));
+      date = monthEnd.plusDays(1);
+    }
+    return List.copyOf(chunks);
+  }
+
+  // The chunk that fetches the days [fetchStart, fetchEnd] and keeps the hours of the days [first, last]
+  private static YearChunk chunk(LocalDate fetchStart, LocalDate fetchEnd, LocalDate first, LocalDate last) {
+    if (fetchStart.equals(fetchEnd)) {
+      // a query needs two different dates, also fetch the day before
+      fetchStart = fetchStart.minusDays(1);
+    }
+    var fromHour = Math.toIntExact(ChronoUnit.DAYS.between(fetchStart, first) * 24);
+    var toHour = Math.toIntExact((ChronoUnit.DAYS.between(fetchStart, last) + 1) * 24);
+    return new YearChunk(fetchStart, fetchEnd, fromHour, toHour);
+  }
+
+  private static LocalDate min(LocalDate date1, LocalDate date2) {
+    return date1.isBefore(date2) ? date1 : date2;
+  }
+
+  /** Index of the first hour to keep among the fetched hours */
+  public int sliceStart(int fetchedHourCount) {
+    return Math.min(fromHour, fetchedHourCount);
+  }
+
+  /** Index after the last hour to keep among the fetched hours */
+  public int sliceEnd(int fetchedHourCount) {
+    return Math.min(toHour, fetchedHourCount);
+  }
+}
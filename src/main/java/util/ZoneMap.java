@@ -0,0 +1,172 @@
+package util;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Summaries (min, max and sum) of the blocks of a column of floats, by default one block per 1024 values.
+ * A scan can skip the blocks that can not match a predicate
+ * and use the summary of the blocks that are fully inside a range.
+ * The summaries do not keep a reference to the values.
+ * <p>
+ * The sum of a block is computed with floats in the order of the values, so a total computed from the sums
+ * of the blocks may differ from a scan of the values by a rounding error, a comparison needs a tolerance.
+ */
+public final class ZoneMap {
+  public static final int DEFAULT_BLOCK_SIZE = 1024;
+
+  @FunctionalInterface
+  public interface FloatAccessor<T> {
+    float applyAsFloat(T element);
+  }
+
+  // the value at an index, either in an array or in a list
+  @FunctionalInterface
+  private interface IndexedValues {
+    float valueAt(int index);
+  }
+
+  private final int size;
+  private final int blockSize;
+  private final float[] mins;
+  private final float[] maxs;
+  private final float[] sums;
+
+  private ZoneMap(int size, int blockSize) {
+    if (blockSize < 1) {
+      throw new IllegalArgumentException("Invalid blockSize: " + blockSize);
+    }
+    var blockCount = (int) (((long) size + blockSize - 1) / blockSize);
+    this.size = size;
+    this.blockSize = blockSize;
+    this.mins = new float[blockCount];
+    this.maxs = new float[blockCount];
+    this.sums = new float[blockCount];
+  }
+
+  public static ZoneMap of(float[] values) {
+    return of(values, DEFAULT_BLOCK_SIZE);
+  }
+
+  public static ZoneMap of(float[] values, int blockSize) {
+    Objects.requireNonNull(values);
+    return summarize(values.length, i -> values[i], blockSize);
+  }
+
+  public static <T> ZoneMap of(List<? extends T> values, FloatAccessor<? super T> accessor) {
+    return of(values, accessor, DEFAULT_BLOCK_SIZE);
+  }
+
+  public static <T> ZoneMap of(List<? extends T> values, FloatAccessor<? super T> accessor, int blockSize) {
+    Objects.requireNonNull(values);
+    Objects.requireNonNull(accessor);
+    return summarize(values.size(), i -> accessor.applyAsFloat(values.get(i)), blockSize);
+  }
+
+  private static ZoneMap summarize(int size, IndexedValues values, int blockSize) {
+    var zoneMap = new ZoneMap(size, blockSize);
+    for (var block = 0; block < zoneMap.blockCount(); block++) {
+      var min = Float.POSITIVE_INFINITY;
+      var max = Float.NEGATIVE_INFINITY;
+      var sum = 0.0f;
+      for (var i = zoneMap.blockStart(block); i < zoneMap.blockEnd(block); i++) {
+        var value = values.valueAt(i);
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+        sum += value;
+      }
+      zoneMap.set(block, min, max, sum);
+    }
+    return zoneMap;
+  }
+
+  private void set(int block, float min, float max, float sum) {
+    mins[block] = min;
+    maxs[block] = max;
+    sums[block] = sum;
+  }
+
+  /** Number of values */
+  public int size() {
+    return size;
+  }
+
+  public int blockSize() {
+    return blockSize;
+  }
+
+  public int blockCount() {
+    return mins.length;
+  }
+
+  /** Index of the first value of the block */
+  public int blockStart(int block) {
+    Objects.checkIndex(block, mins.length);
+    return block * blockSize;
+  }
+
+  /** Index after the last value of the block */
+  public int blockEnd(int block) {
+    Objects.checkIndex(block, mins.length);
+    return (int) Math.min(size, (long) (block + 1) * blockSize);
+  }
+
+  public float min(int block) {
+    return mins[block];
+  }
+
+  public float max(int block) {
+    return maxs[block];
+  }
+
+  public float sum(int block) {
+    return sums[block];
+  }
+
+  /** Number of bytes used by the summaries */
+  public long memoryBytes() {
+    return 3L * mins.length * Float.BYTES;
+  }
+
+  private void checkSize(int length) {
+    if (length != size) {
+      throw new IllegalArgumentException("values size " + length + " != zone map size " + size);
+    }
+  }
+
+  /** Number of values strictly greater than the threshold, only the blocks that may contain such values are scanned */
+  public int countGreaterThan(float[] values, float threshold) {
+    Objects.requireNonNull(values);
+    checkSize(values.length);
+    return countGreaterThan(i -> values[i], threshold);
+  }
+
+  /** Number of values strictly greater than the threshold, only the blocks that may contain such values are scanned */
+  public <T> int countGreaterThan(List<? extends T> values, FloatAccessor<? super T> accessor, float threshold) {
+    Objects.requireNonNull(values);
+    Objects.requireNonNull(accessor);
+    checkSize(values.size());
+    return countGreaterThan(i -> accessor.applyAsFloat(values.get(i)), threshold);
+  }
+
+  private int countGreaterThan(IndexedValues values, float threshold) {
+    var count = 0;
+    for (var block = 0; block < mins.length; block++) {
+      if (maxs[block] <= threshold) {
+        continue;  // no match
+      }
+      var start = blockStart(block);
+      var end = blockEnd(block);
+      if (mins[block] > threshold) {
+        count += end - start;  // all match
+        continue;
+      }
+      for (var i = start; i < end; i++) {
+        if (values.valueAt(i) > threshold) {
+          count++;
+        }
+      }
+    }
+    return count;
+  }
+}
@@ -1,13 +1,25 @@
 package value.weather;
 
 import java.lang.invoke.MethodHandles;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 import jdk.internal.vm.annotation.LooselyConsistentValue;
 import jdk.internal.vm.annotation.NullRestricted;
+import util.AggregateList;
+import util.AlertEngine;
 import util.FlatListFactory;
+import util.ParallelReduce;
+import util.PrefixSum;
+import util.SlidingWindow;
+import util.SparseTable;
+import util.TimeBuckets;
+import util.ZoneMap;
 import value.weather.WeatherService.*;
 
 public class WeatherComputation {
@@ -44,34 +56,78 @@ public class WeatherComputation {
           maxWindspeed.max(data.windspeed()),
           totalPrecipitation.add(data.precipitation()));
     }
+
+    WeatherResult combine(WeatherResult result) {
+      return new WeatherResult(
+          minTemperature.min(result.minTemperature),
+          maxTemperature.max(result.maxTemperature),
+          maxWindspeed.max(result.maxWindspeed),
+          totalPrecipitation.add(result.totalPrecipitation));
+    }
+  }
+
+  // Folds the components of a WeatherData, used to walk the columns of an AggregateList
+  @FunctionalInterface
+  public interface WeatherDataReducer {
+    WeatherResult apply(WeatherResult result, Temperature temperature, Windspeed windspeed, Precipitation precipitation);
   }
 
   public static WeatherResult computeWeatherData(List<WeatherData> weatherDataList) {
-    var result = new WeatherResult(
-        new Temperature(Float.MAX_VALUE),
-        new Temperature(Float.MIN_VALUE),
-        new Windspeed(0.0f),
-        new Precipitation(0.0f));
+    if (weatherDataList instanceof AggregateList<WeatherData> aggregateList) {
+      return computeWeatherData(aggregateList, 0, aggregateList.size());
+    }
+    var result = initialResult();
     for(var weatherData : weatherDataList) {
       result = result.compute(weatherData);
     }
     return result;
   }
 
+  // Same as computeWeatherData() on the elements in [start, end) of a RandomAccess list
+  private static WeatherResult computeWeatherData(List<WeatherData> weatherDataList, int start, int end) {
+    var result = initialResult();
+    if (weatherDataList instanceof AggregateList<WeatherData> aggregateList) {
+      // the WeatherData are not created
+      return aggregateList.reduce(start, end, WeatherDataReducer.class, result,
+          (r, temperature, windspeed, precipitation) -> new WeatherResult(
+              r.minTemperature().min(temperature),
+              r.maxTemperature().max(temperature),
+              r.maxWindspeed().max(windspeed),
+              r.totalPrecipitation().add(precipitation)));
+    }
+    for (var i = start; i < end; i++) {
+      result = result.compute(weatherDataList.get(i));
+    }
+    return result;
+  }
 
-  public static WeatherResult computeHourlyData(HourlyData data) {
-    var result = new WeatherResult(
+  private static WeatherResult initialResult() {
+    return new WeatherResult(
         new Temperature(Float.MAX_VALUE),
         new Temperature(Float.MIN_VALUE),
         new Windspeed(0.0f),
         new Precipitation(0.0f));
+  }
+
+
+  public static WeatherResult computeHourlyData(HourlyData data) {
     var temperatures = data.temperatures();
     var windspeeds = data.windspeeds();
     var precipitations = data.precipitations();
     if (temperatures.size() != windspeeds.size() || temperatures.size() != precipitations.size()) {
       throw new IllegalStateException("temperature size != windspeed size or precipitation size != precipitation size");
     }
-    for(var i = 0; i < temperatures.size(); i++) {
+    return computeHourlyData(temperatures, windspeeds, precipitations, 0, temperatures.size());
+  }
+
+  private static WeatherResult computeHourlyData(List<Temperature> temperatures, List<Windspeed> windspeeds,
+                                                List<Precipitation> precipitations, int start, int end) {
+    var result = new WeatherResult(
+        new Temperature(Float.MAX_VALUE),
+        new Temperature(Float.MIN_VALUE),
+        new Windspeed(0.0f),
+        new Precipitation(0.0f));
+    for(var i = start; i < end; i++) {
       result = result.compute(new WeatherData(
           temperatures.get(i),
           windspeeds.get(i),
@@ -79,4 +135,283 @@ public class WeatherComputation {
     }
     return result;
   }
+
+  // Combines the results of two consecutive ranges, the operation is associative
+  public static WeatherResult combine(WeatherResult result1, WeatherResult result2) {
+    return result1.combine(result2);
+  }
+
+  // Default number of hours under which a range is computed sequentially
+  public static final int DEFAULT_THRESHOLD = 16_384;
+
+  public static WeatherResult computeWeatherDataParallel(List<WeatherData> weatherDataList) {
+    return computeWeatherDataParallel(weatherDataList, DEFAULT_THRESHOLD);
+  }
+
+  public static WeatherResult computeWeatherDataParallel(List<WeatherData> weatherDataList, int threshold) {
+    Objects.requireNonNull(weatherDataList);
+    if (!(weatherDataList instanceof RandomAccess)) {
+      // the ranges are split using indexes
+      return computeWeatherData(weatherDataList);
+    }
+    // the ranges are not sublists, so an AggregateList is still folded without creating the WeatherData
+    return ParallelReduce.reduce(weatherDataList.size(), threshold,
+        (start, end) -> computeWeatherData(weatherDataList, start, end),
+        WeatherComputation::combine);
+  }
+
+  public static WeatherResult computeHourlyDataParallel(HourlyData data) {
+    return computeHourlyDataParallel(data, DEFAULT_THRESHOLD);
+  }
+
+  public static WeatherResult computeHourlyDataParallel(HourlyData data, int threshold) {
+    var temperatures = data.temperatures();
+    var windspeeds = data.windspeeds();
+    var precipitations = data.precipitations();
+    if (temperatures.size() != windspeeds.size() || temperatures.size() != precipitations.size()) {
+      throw new IllegalStateException("temperature size != windspeed size or precipitation size != precipitation size");
+    }
+    return ParallelReduce.reduce(temperatures.size(), threshold,
+        (start, end) -> computeHourlyData(temperatures, windspeeds, precipitations, start, end),
+        WeatherComputation::combine);
+  }
+
+  // Columnar results, a flat list with one element per bucket
+  public record Rollup(TimeBuckets buckets, List<WeatherResult> results) {}
+
+  // Min/max/total of each day, month or year of the hourly data, data starts at midnight of startDate.
+  // If parallel is true, the buckets are computed by several threads.
+  public static Rollup rollup(HourlyData data, LocalDate startDate, ChronoUnit unit, boolean parallel) {
+    var temperatures = data.temperatures();
+    var windspeeds = data.windspeeds();
+    var precipitations = data.precipitations();
+    if (temperatures.size() != windspeeds.size() || temperatures.size() != precipitations.size()) {
+      throw new IllegalStateException("temperature size != windspeed size or precipitation size != precipitation size");
+    }
+    var buckets = TimeBuckets.of(startDate, temperatures.size(), unit);
+    var size = buckets.size();
+    // the flat list is filled first, so the buckets can be set in any order
+    var results = FlatListFactory.<WeatherResult>create(WeatherResult.class, FlatListFactory.FLAT, Math.max(1, size));
+    var empty = computeHourlyData(temperatures, windspeeds, precipitations, 0, 0);
+    for (var i = 0; i < size; i++) {
+      results.add(empty);
+    }
+    var bucketStream = IntStream.range(0, size);
+    if (parallel) {
+      bucketStream = bucketStream.parallel();
+    }
+    // each bucket only writes its own index
+    bucketStream.forEach(bucket ->
+        results.set(bucket, computeHourlyData(temperatures, windspeeds, precipitations, buckets.start(bucket), buckets.end(bucket))));
+    return new Rollup(buckets, results);
+  }
+
+  // The columns of the alert rules are the components of HourlyData: 0 temperatures, 1 windspeeds, 2 precipitations
+  public static AlertEngine compileAlertRules(List<? extends AlertEngine.Rule> rules) {
+    return AlertEngine.compile(MethodHandles.lookup(), List.of(Temperature.class, Windspeed.class, Precipitation.class), rules);
+  }
+
+  public static List<AlertEngine.Alert> alerts(AlertEngine engine, HourlyData data) {
+    return engine.alerts(data.temperatures(), data.windspeeds(), data.precipitations());
+  }
+
+  // Index built once per HourlyData that answers the WeatherResult of any range of hours in O(1),
+  // buildNanos and memoryBytes() report the cost of the index
+  public record RangeIndex(SparseTable minTemperatures, SparseTable maxTemperatures, SparseTable maxWindspeeds,
+                           PrefixSum totalPrecipitations, long buildNanos) {
+    // Same result as computeHourlyData() on the hours [fromHour, toHour), apart from the total precipitation
+    // that comes from the prefix sums, so it may differ by a rounding error (see PrefixSum)
+    public WeatherResult query(int fromHour, int toHour) {
+      return new WeatherResult(
+          new Temperature(Math.min(Float.MAX_VALUE, minTemperatures.query(fromHour, toHour))),
+          new Temperature(Math.max(Float.MIN_VALUE, maxTemperatures.query(fromHour, toHour))),
+          new Windspeed(Math.max(0.0f, maxWindspeeds.query(fromHour, toHour))),
+          new Precipitation(totalPrecipitations.sum(fromHour, toHour)));
+    }
+
+    public long memoryBytes() {
+      return minTemperatures.memoryBytes() + maxTemperatures.memoryBytes() + maxWindspeeds.memoryBytes()
+          + totalPrecipitations.memoryBytes();
+    }
+  }
+
+  public static RangeIndex rangeIndex(HourlyData data) {
+    var temperatureList = data.temperatures();
+    var windspeedList = data.windspeeds();
+    var precipitationList = data.precipitations();
+    if (temperatureList.size() != windspeedList.size() || temperatureList.size() != precipitationList.size()) {
+      throw new IllegalStateException("temperature size != windspeed size or precipitation size != precipitation size");
+    }
+    var start = System.nanoTime();
+    var temperatures = new float[temperatureList.size()];
+    var windspeeds = new float[temperatures.length];
+    var precipitations = new float[temperatures.length];
+    for (var i = 0; i < temperatures.length; i++) {
+      temperatures[i] = temperatureList.get(i).value();
+      windspeeds[i] = windspeedList.get(i).value();
+      precipitations[i] = precipitationList.get(i).value();
+    }
+    var minTemperatures = SparseTable.ofMin(temperatures);
+    var maxTemperatures = SparseTable.ofMax(temperatures);
+    var maxWindspeeds = SparseTable.ofMax(windspeeds);
+    var totalPrecipitations = new PrefixSum(precipitations);
+    return new RangeIndex(minTemperatures, maxTemperatures, maxWindspeeds, totalPrecipitations, System.nanoTime() - start);
+  }
+
+  // Block summaries of the columns of an HourlyData
+  public record ZoneMaps(ZoneMap temperatures, ZoneMap windspeeds, ZoneMap precipitations) {
+    public ZoneMaps {
+      if (temperatures.size() != windspeeds.size() || temperatures.size() != precipitations.size()
+          || temperatures.blockSize() != windspeeds.blockSize() || temperatures.blockSize() != precipitations.blockSize()) {
+        throw new IllegalArgumentException("zone maps must have the same size and the same block size");
+      }
+    }
+  }
+
+  public static ZoneMaps zoneMaps(HourlyData data) {
+    var temperatures = data.temperatures();
+    var windspeeds = data.windspeeds();
+    var precipitations = data.precipitations();
+    if (temperatures.size() != windspeeds.size() || temperatures.size() != precipitations.size()) {
+      throw new IllegalStateException("temperature size != windspeed size or precipitation size != precipitation size");
+    }
+    return new ZoneMaps(
+        ZoneMap.of(temperatures, Temperature::value),
+        ZoneMap.of(windspeeds, Windspeed::value),
+        ZoneMap.of(precipitations, Precipitation::value));
+  }
+
+  // Same result as computeHourlyData() on the hours [fromHour, toHour), apart from the total precipitation
+  // that uses the sums of the blocks, so it may differ by a rounding error (see ZoneMap),
+  // the blocks fully inside the range are not scanned, their summaries are used instead
+  public static WeatherResult computeHourlyData(HourlyData data, ZoneMaps zoneMaps, int fromHour, int toHour) {
+    var temperatures = data.temperatures();
+    var windspeeds = data.windspeeds();
+    var precipitations = data.precipitations();
+    if (temperatures.size() != windspeeds.size() || temperatures.size() != precipitations.size()) {
+      throw new IllegalStateException("temperature size != windspeed size or precipitation size != precipitation size");
+    }
+    if (zoneMaps.temperatures().size() != temperatures.size()) {
+      throw new IllegalArgumentException("zone maps size != hourly data size");
+    }
+    Objects.checkFromToIndex(fromHour, toHour, temperatures.size());
+    var blockSize = zoneMaps.temperatures().blockSize();
+    var firstBlock = (int) (((long) fromHour + blockSize - 1) / blockSize);
+    var endBlock = toHour / blockSize;
+    if (firstBlock >= endBlock) {
+      return computeHourlyData(temperatures, windspeeds, precipitations, fromHour, toHour);
+    }
+    var result = computeHourlyData(temperatures, windspeeds, precipitations, fromHour, firstBlock * blockSize);
+    for (var block = firstBlock; block < endBlock; block++) {
+      var blockResult = new WeatherResult(
+          new Temperature(zoneMaps.temperatures().min(block)),
+          new Temperature(zoneMaps.temperatures().max(block)),
+          new Windspeed(zoneMaps.windspeeds().max(block)),
+          new Precipitation(zoneMaps.precipitations().sum(block)));
+      result = combine(result, blockResult);
+    }
+    return combine(result, computeHourlyData(temperatures, windspeeds, precipitations, endBlock * blockSize, toHour));
+  }
+
+  // Number of hours with a wind speed strictly above the threshold,
+  // the blocks with a maximum below the threshold are skipped
+  public static int countWindspeedAbove(HourlyData data, ZoneMaps zoneMaps, float threshold) {
+    return zoneMaps.windspeeds().countGreaterThan(data.windspeeds(), Windspeed::value, threshold);
+  }
+
+  // Same alerts as alerts(engine, data), the blocks of hours where a group of threshold rules
+  // can not become true are skipped
+  public static List<AlertEngine.Alert> alerts(AlertEngine engine, HourlyData data, ZoneMaps zoneMaps) {
+    return engine.alerts(
+        new ZoneMap[] { zoneMaps.temperatures(), zoneMaps.windspeeds(), zoneMaps.precipitations() },
+        new Object[] { data.temperatures(), data.windspeeds(), data.precipitations() });
+  }
+
+  // Aggregation of the last hours of a location, updated in O(1) amortized when a new hour arrives,
+  // the oldest hour is evicted once the window is full
+  public static final class RollingWindow {
+    private final SlidingWindow temperatures;
+    private final SlidingWindow windspeeds;
+    private final SlidingWindow precipitations;
+
+    public RollingWindow(int hours) {
+      if (hours <= 0) {
+        throw new IllegalArgumentException("Invalid hours: " + hours);
+      }
+      temperatures = new SlidingWindow(hours);
+      windspeeds = new SlidingWindow(hours);
+      precipitations = new SlidingWindow(hours);
+    }
+
+    public int hours() {
+      return temperatures.capacity();
+    }
+
+    public int size() {
+      return temperatures.size();
+    }
+
+    public void append(WeatherData weatherData) {
+      temperatures.append(weatherData.temperature().value());
+      windspeeds.append(weatherData.windspeed().value());
+      precipitations.append(weatherData.precipitation().value());
+    }
+
+    public void appendAll(HourlyData data) {
+      var temperatureColumn = data.temperatures();
+      var windspeedColumn = data.windspeeds();
+      var precipitationColumn = data.precipitations();
+      if (temperatureColumn.size() != windspeedColumn.size() || temperatureColumn.size() != precipitationColumn.size()) {
+        throw new IllegalStateException("temperature size != windspeed size or precipitation size != precipitation size");
+      }
+      for (var i = 0; i < temperatureColumn.size(); i++) {
+        temperatures.append(temperatureColumn.get(i).value());
+        windspeeds.append(windspeedColumn.get(i).value());
+        precipitations.append(precipitationColumn.get(i).value());
+      }
+    }
+
+    // Same result as computeHourlyData() on the hours of the window, apart from the total precipitation
+    // that comes from a running sum, so it may differ by a rounding error (see SlidingWindow)
+    public WeatherResult result() {
+      return new WeatherResult(
+          new Temperature(Math.min(Float.MAX_VALUE, temperatures.min())),
+          new Temperature(Math.max(Float.MIN_VALUE, temperatures.max())),
+          new Windspeed(Math.max(0.0f, windspeeds.max())),
+          new Precipitation(precipitations.sum()));
+    }
+
+    public long memoryBytes() {
+      return temperatures.memoryBytes() + windspeeds.memoryBytes() + precipitations.memoryBytes();
+    }
+  }
+
+  // Rolling windows of the last day, the last week and the last month of a location
+  public record RollingWindows(RollingWindow lastDay, RollingWindow lastWeek, RollingWindow lastMonth) {
+    public RollingWindows {
+      Objects.requireNonNull(lastDay);
+      Objects.requireNonNull(lastWeek);
+      Objects.requireNonNull(lastMonth);
+    }
+
+    public RollingWindows() {
+      this(new RollingWindow(24), new RollingWindow(7 * 24), new RollingWindow(30 * 24));
+    }
+
+    public void append(WeatherData weatherData) {
+      lastDay.append(weatherData);
+      lastWeek.append(weatherData);
+      lastMonth.append(weatherData);
+    }
+
+    public void appendAll(HourlyData data) {
+      lastDay.appendAll(data);
+      lastWeek.appendAll(data);
+      lastMonth.appendAll(data);
+    }
+
+    public long memoryBytes() {
+      return lastDay.memoryBytes() + lastWeek.memoryBytes() + lastMonth.memoryBytes();
+    }
+  }
 }
@@ -7,8 +7,13 @@ import static org.junit.jupiter.api.Assertions.*;
 import java.lang.invoke.MethodHandles;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Vector;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
 
 public final class AggregateListTest {
 
@@ -107,6 +112,42 @@ public final class AggregateListTest {
         new WideRecord(2, 20, 200, 2000, 20000, 200000, 2000000, 20000000), aggregateList.get(1));
   }
 
+  @Test
+  @DisplayName("Factory with a record having more than 8 fields")
+  public void testFactoryWithMoreThan8Fields() {
+    record HourlyWeather(float temperature, float apparentTemperature, float dewPoint, int humidity,
+                         float gusts, int windDirection, float pressure, int cloudCover,
+                         float precipitation, float snowfall) {}
+
+    var factory = AggregateList.factory(MethodHandles.lookup(), HourlyWeather.class);
+
+    var aggregateList = factory.createFromLists(
+        List.of(12.5f, 13.0f), List.of(11.0f, 12.2f), List.of(8.1f, 8.4f), List.of(75, 72),
+        List.of(30.5f, 28.0f), List.of(270, 280), List.of(1013.2f, 1012.9f), List.of(80, 90),
+        List.of(0.2f, 0.0f), List.of(0.0f, 0.0f));
+
+    assertEquals(2, aggregateList.size());
+    assertEquals(new HourlyWeather(12.5f, 11.0f, 8.1f, 75, 30.5f, 270, 1013.2f, 80, 0.2f, 0.0f),
+        aggregateList.get(0));
+    assertEquals(new HourlyWeather(13.0f, 12.2f, 8.4f, 72, 28.0f, 280, 1012.9f, 90, 0.0f, 0.0f),
+        aggregateList.get(1));
+  }
+
+  @Test
+  @DisplayName("Factory with an array of lists")
+  public void testFactoryWithArrayOfLists() {
+    record TestRecord(int id, String name) {}
+
+    var factory = AggregateList.factory(MethodHandles.lookup(), TestRecord.class);
+    List<?>[] lists = { List.of(1, 2), List.of("A", "B") };
+
+    assertEquals(factory.createFromLists(lists.clone()), factory.create(lists[0], lists[1]));
+    assertAll(
+        () -> assertThrows(IllegalArgumentException.class, () -> factory.createFromLists(List.of(1))),
+        () -> assertThrows(IllegalArgumentException.class, () -> factory.createFromLists(List.of(1), List.of())),
+        () -> assertThrows(NullPointerException.class, () -> factory.createFromLists((List<?>[]) null)));
+  }
+
   @Test
   @DisplayName("Testing with byte component record")
   public void testWithByteComponentRecord() {
@@ -723,5 +764,304 @@ public final class AggregateListTest {
     assertTrue(list1.toString().contains("1"));
     assertTrue(list1.toString().contains("A"));
   }
-}
 
+  @Test
+  @DisplayName("Testing spliterator characteristics and splitting")
+  public void testSpliterator() {
+    record TestRecord(int id, String name) {}
+
+    var factory = AggregateList.factory(MethodHandles.lookup(), TestRecord.class);
+    var ids = new ArrayList<Integer>();
+    var names = new ArrayList<String>();
+    for (var i = 0; i < 1_000; i++) {
+      ids.add(i);
+      names.add("name" + i);
+    }
+    var aggregateList = factory.create(ids, names);
+
+    var spliterator = aggregateList.spliterator();
+    assertTrue(spliterator.hasCharacteristics(
+        Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.ORDERED | Spliterator.NONNULL));
+    var prefix = spliterator.trySplit();
+    assertNotNull(prefix);
+    assertEquals(500, prefix.estimateSize());
+    assertEquals(500, spliterator.estimateSize());
+
+    assertEquals(499_500, aggregateList.parallelStream().mapToInt(TestRecord::id).sum());
+  }
+
+  @Test
+  @DisplayName("Factory is generated once per lookup class and record type")
+  public void testFactoryIsCached() {
+    record CachedRecord(int id, String name) {}
+    record OtherRecord(int id) {}
+
+    var factory = AggregateList.factory(MethodHandles.lookup(), CachedRecord.class);
+    var factory2 = AggregateList.factory(MethodHandles.lookup(), CachedRecord.class);
+    var otherFactory = AggregateList.factory(MethodHandles.lookup(), OtherRecord.class);
+
+    assertSame(factory, factory2);
+    assertNotSame(factory, otherFactory);
+    var implClass = factory.create(List.of(1), List.of("A")).getClass();
+    assertTrue(implClass.isHidden());
+    assertTrue(AggregateListGenerator.implementationClasses(AggregateListTest.class).contains(implClass));
+  }
+
+  @Test
+  @DisplayName("Factory requires a lookup with full privilege access")
+  public void testFactoryWithRestrictedLookup() {
+    record RestrictedRecord(int id) {}
+
+    var lookup = MethodHandles.lookup().dropLookupMode(MethodHandles.Lookup.PRIVATE);
+    assertThrows(IllegalAccessError.class, () -> AggregateList.factory(lookup, RestrictedRecord.class));
+  }
+
+  @Test
+  @DisplayName("Implementation is specialized on the classes of the lists")
+  public void testSpecializedOnListClasses() throws NoSuchFieldException {
+    record SpecializedRecord(int id, String name) {}
+
+    var factory = AggregateList.factory(MethodHandles.lookup(), SpecializedRecord.class);
+    var arrayList = factory.create(new ArrayList<>(List.of(1, 2)), new ArrayList<>(List.of("A", "B")));
+    var immutableList = factory.create(List.of(1, 2), List.of("A", "B"));
+    var arrayList2 = factory.create(new ArrayList<>(List.of(3)), new ArrayList<>(List.of("C")));
+
+    assertEquals(arrayList, immutableList);
+    assertEquals(new SpecializedRecord(3, "C"), arrayList2.get(0));
+    assertNotSame(arrayList.getClass(), immutableList.getClass());
+    assertSame(arrayList.getClass(), arrayList2.getClass());
+    // the classes of List.of() are not accessible, the fields are typed as List
+    assertEquals(ArrayList.class, arrayList.getClass().getDeclaredField("list0").getType());
+    assertEquals(List.class, immutableList.getClass().getDeclaredField("list0").getType());
+  }
+
+  private value record Celsius(float value) {}
+  private value record Fahrenheit(float value) {}
+
+  @Test
+  @DisplayName("Implementation is specialized on the hidden classes of the flat lists")
+  public void testSpecializedOnHiddenListClasses() throws NoSuchFieldException {
+    record Reading(Object value) {}
+
+    var factory = AggregateList.factory(MethodHandles.lookup(), Reading.class);
+    var celsiusList = FlatListFactory.create(Celsius.class);
+    celsiusList.add(new Celsius(20));
+    var fahrenheitList = FlatListFactory.create(Fahrenheit.class);
+    fahrenheitList.add(new Fahrenheit(68));
+    var celsiusReadings = factory.create(celsiusList);
+    var fahrenheitReadings = factory.create(fahrenheitList);
+
+    assertEquals(List.of(new Reading(new Celsius(20))), celsiusReadings);
+    assertEquals(List.of(new Reading(new Fahrenheit(68))), fahrenheitReadings);
+    assertTrue(celsiusList.getClass().isHidden());
+    assertNotSame(celsiusList.getClass(), fahrenheitList.getClass());
+    // each combination of hidden classes has its own implementation
+    assertNotSame(celsiusReadings.getClass(), fahrenheitReadings.getClass());
+    // a hidden class can not be named, the field is typed with a superclass of the list class
+    var fieldType = celsiusReadings.getClass().getDeclaredField("list0").getType();
+    assertFalse(fieldType.isHidden());
+    assertNotSame(List.class, fieldType);
+    assertTrue(fieldType.isAssignableFrom(celsiusList.getClass()));
+  }
+
+  @Test
+  @DisplayName("Implementation is found for many combinations of list classes")
+  public void testManyCombinationsOfListClasses() {
+    record ManyRecord(int id, String name) {}
+
+    var factory = AggregateList.factory(MethodHandles.lookup(), ManyRecord.class);
+    List<Function<List<Object>, List<?>>> copies = List.of(
+        ArrayList::new, LinkedList::new, Vector::new, CopyOnWriteArrayList::new,
+        list -> Arrays.asList(list.toArray()), List::copyOf);
+    // 36 combinations, more than the number of combinations remembered, twice
+    for (var round = 0; round < 2; round++) {
+      for (var copy0 : copies) {
+        for (var copy1 : copies) {
+          var aggregateList = factory.create(copy0.apply(List.of(1, 2)), copy1.apply(List.of("A", "B")));
+          assertEquals(List.of(new ManyRecord(1, "A"), new ManyRecord(2, "B")), aggregateList);
+        }
+      }
+    }
+  }
+
+  interface IdNameConsumer {
+    void accept(int id, String name);
+  }
+
+  interface IdNameReducer {
+    long apply(long sum, int id, String name);
+  }
+
+  @Test
+  @DisplayName("forEachComponents and reduce pass the components without creating the records")
+  public void testForEachComponentsAndReduce() {
+    record IdName(int id, String name) {}
+
+    var factory = AggregateList.factory(MethodHandles.lookup(), IdName.class);
+    var aggregateList = factory.create(List.of(1, 2, 3), List.of("A", "BB", "CCC"));
+
+    var builder = new StringBuilder();
+    aggregateList.forEachComponents(IdNameConsumer.class, (id, name) -> builder.append(id).append(name));
+    long sum = aggregateList.reduce(IdNameReducer.class, 0L, (acc, id, name) -> acc + id * name.length());
+
+    assertEquals("1A2BB3CCC", builder.toString());
+    assertEquals(1 + 4 + 9, sum);
+  }
+
+  @Test
+  @DisplayName("reduce on a range folds the components of the range without creating the records")
+  public void testReduceRange() {
+    record Checked(int id, String name) {
+      Checked {
+        throw new AssertionError("the record should not be created");
+      }
+    }
+
+    var factory = AggregateList.factory(MethodHandles.lookup(), Checked.class);
+    var aggregateList = factory.create(List.of(1, 2, 3, 4), List.of("A", "BB", "CCC", "DDDD"));
+
+    long sum = aggregateList.reduce(1, 3, IdNameReducer.class, 0L, (acc, id, name) -> acc + id * name.length());
+
+    assertEquals(4 + 9, sum);
+    assertEquals(0L, (long) aggregateList.reduce(2, 2, IdNameReducer.class, 0L, (acc, id, name) -> acc + id));
+    assertThrows(IndexOutOfBoundsException.class,
+        () -> aggregateList.reduce(3, 5, IdNameReducer.class, 0L, (acc, id, name) -> acc + id));
+  }
+
+  @Test
+  @DisplayName("forEachComponents and reduce reject a function type that does not match the components")
+  public void testForEachComponentsWithInvalidFunctionType() {
+    record IdName(int id, String name) {}
+
+    var factory = AggregateList.factory(MethodHandles.lookup(), IdName.class);
+    var aggregateList = factory.create(List.of(1), List.of("A"));
+
+    assertAll(
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> aggregateList.forEachComponents(IdNameReducer.class, (acc, id, name) -> acc)),
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> aggregateList.reduce(IdNameConsumer.class, 0L, (id, name) -> {})),
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> aggregateList.forEachComponents(Runnable.class, () -> {})),
+        () -> assertThrows(NullPointerException.class,
+            () -> aggregateList.forEachComponents(IdNameConsumer.class, null)));
+  }
+
+  @Test
+  @DisplayName("indexOf, lastIndexOf and contains compare the components")
+  public void testIndexOfComparesComponents() {
+    record Reading(String station, float value) {}
+
+    var factory = AggregateList.factory(MethodHandles.lookup(), Reading.class);
+    var stations = new ArrayList<String>();
+    var values = new ArrayList<Float>();
+    for (var i = 0; i < 100; i++) {
+      stations.add(i % 10 == 0 ? null : "station" + (i % 10));
+      values.add((float) (i % 20));
+    }
+    var aggregateList = factory.create(stations, values);
+
+    assertEquals(3, aggregateList.indexOf(new Reading("station3", 3)));
+    assertEquals(83, aggregateList.lastIndexOf(new Reading("station3", 3)));
+    assertEquals(20, aggregateList.indexOf(new Reading(null, 0)));
+    assertEquals(-1, aggregateList.indexOf(new Reading("station3", 4)));
+    assertEquals(-1, aggregateList.lastIndexOf(new Reading("station3", 4)));
+    assertFalse(aggregateList.contains("station3"));
+    assertFalse(aggregateList.contains(null));
+  }
+
+  @Test
+  @DisplayName("indexOf uses equals() if the record does not use the default equals()")
+  public void testIndexOfWithRecordEquals() {
+    record IgnoreCase(String name) {
+      @Override
+      public boolean equals(Object o) {
+        return o instanceof IgnoreCase ignoreCase && name.equalsIgnoreCase(ignoreCase.name);
+      }
+
+      @Override
+      public int hashCode() {
+        return name.toLowerCase(java.util.Locale.ROOT).hashCode();
+      }
+    }
+
+    var factory = AggregateList.factory(MethodHandles.lookup(), IgnoreCase.class);
+    var aggregateList = factory.create(List.of("Alice", "Bob"));
+
+    assertEquals(1, aggregateList.indexOf(new IgnoreCase("BOB")));
+    assertEquals(0, aggregateList.lastIndexOf(new IgnoreCase("alice")));
+  }
+
+  @Test
+  @DisplayName("indexOf is generated if the record uses the default methods")
+  public void testIndexOfIsGenerated() throws NoSuchMethodException {
+    record Station(String name, int id) {}
+
+    var factory = AggregateList.factory(MethodHandles.lookup(), Station.class);
+    var aggregateList = factory.create(List.of("Paris", "Lyon"), List.of(1, 2));
+
+    assertNotNull(aggregateList.getClass().getDeclaredMethod("indexOf", Object.class));
+    assertEquals(1, aggregateList.indexOf(new Station("Lyon", 2)));
+  }
+
+  @Test
+  @DisplayName("indexOf uses equals() if the record has a compact constructor that normalizes a component")
+  public void testIndexOfWithCompactConstructor() {
+    record Trimmed(String name) {
+      Trimmed {
+        name = name.strip();
+      }
+    }
+
+    var factory = AggregateList.factory(MethodHandles.lookup(), Trimmed.class);
+    var aggregateList = factory.create(List.of(" Alice ", "Bob "));
+
+    assertThrows(NoSuchMethodException.class, () -> aggregateList.getClass().getDeclaredMethod("indexOf", Object.class));
+    assertEquals(0, aggregateList.indexOf(new Trimmed("Alice")));
+    assertEquals(1, aggregateList.lastIndexOf(new Trimmed("Bob")));
+  }
+
+  @Test
+  @DisplayName("indexOf uses equals() if the record overrides an accessor")
+  public void testIndexOfWithOverriddenAccessor() {
+    record Upper(String name) {
+      @Override
+      public String name() {
+        return name.toUpperCase(java.util.Locale.ROOT);
+      }
+    }
+
+    var factory = AggregateList.factory(MethodHandles.lookup(), Upper.class);
+    var aggregateList = factory.create(List.of("alice", "bob"));
+
+    assertThrows(NoSuchMethodException.class, () -> aggregateList.getClass().getDeclaredMethod("indexOf", Object.class));
+    assertEquals(0, aggregateList.indexOf(new Upper("alice")));
+    assertEquals(1, aggregateList.lastIndexOf(new Upper("bob")));
+  }
+
+  @Test
+  @DisplayName("containsAll with a few elements and with many elements")
+  public void testContainsAll() {
+    record IdName(int id, String name) {}
+
+    var factory = AggregateList.factory(MethodHandles.lookup(), IdName.class);
+    var ids = new ArrayList<Integer>();
+    var names = new ArrayList<String>();
+    for (var i = 0; i < 100; i++) {
+      ids.add(i);
+      names.add("name" + i);
+    }
+    var aggregateList = factory.create(ids, names);
+    var many = new ArrayList<IdName>();
+    for (var i = 0; i < 50; i++) {
+      many.add(new IdName(i * 2, "name" + i * 2));
+    }
+
+    assertTrue(aggregateList.containsAll(List.of(new IdName(1, "name1"), new IdName(99, "name99"))));
+    assertFalse(aggregateList.containsAll(List.of(new IdName(1, "name1"), new IdName(99, "name1"))));
+    assertTrue(aggregateList.containsAll(many));
+    many.add(new IdName(100, "name100"));
+    assertFalse(aggregateList.containsAll(many));
+    assertTrue(aggregateList.containsAll(List.of()));
+  }
+}
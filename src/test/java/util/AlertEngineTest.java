@@ -0,0 +1,175 @@
+package util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import util.AlertEngine.Alert;
+import util.AlertEngine.RollingSum;
+import util.AlertEngine.Threshold;
+
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static util.AlertEngine.Comparison.GREATER_THAN;
+import static util.AlertEngine.Comparison.LESS_THAN;
+
+public final class AlertEngineTest {
+  private record Wind(float value) {}
+
+  // counts the reads of the values, to check that a block is skipped
+  private record CountedWind(float value) {
+    private static int reads;
+
+    @Override
+    public float value() {
+      reads++;
+      return value;
+    }
+  }
+
+  @Test
+  @DisplayName("Should report a threshold reached during consecutive hours once per run")
+  public void testThreshold() {
+    var engine = AlertEngine.compile(MethodHandles.lookup(), List.of(float[].class),
+        List.of(new Threshold(0, GREATER_THAN, 60f, 3)));
+    var wind = new float[] { 70, 70, 50, 70, 70, 70, 70, 10, 61, 61, 61 };
+
+    assertEquals(List.of(new Alert(0, 5), new Alert(0, 10)), engine.alerts(wind));
+  }
+
+  @Test
+  @DisplayName("Should report a rolling sum when it crosses the threshold")
+  public void testRollingSum() {
+    var engine = AlertEngine.compile(MethodHandles.lookup(), List.of(float[].class),
+        List.of(new RollingSum(0, 3, GREATER_THAN, 10f)));
+    var precipitation = new float[] { 5, 5, 5, 0, 0, 0, 0, 20, 0, 0 };
+
+    // sums: -, -, 15, 10, 5, 0, 0, 20, 20, 20
+    assertEquals(List.of(new Alert(0, 2), new Alert(0, 7)), engine.alerts(precipitation));
+  }
+
+  @Test
+  @DisplayName("Should report the rolling sums of different windows on the same column")
+  public void testRollingSumsOfDifferentWindows() {
+    var engine = AlertEngine.compile(MethodHandles.lookup(), List.of(float[].class),
+        List.of(new RollingSum(0, 3, GREATER_THAN, 10f), new RollingSum(0, 1, GREATER_THAN, 10f)));
+    var precipitation = new float[] { 5, 5, 5, 0, 0, 0, 0, 20, 0, 0 };
+
+    assertEquals(List.of(new Alert(0, 2), new Alert(0, 7), new Alert(1, 7)), engine.alerts(precipitation));
+  }
+
+  @Test
+  @DisplayName("Should evaluate a List of records as a column")
+  public void testRecordColumn() {
+    var engine = AlertEngine.compile(MethodHandles.lookup(), List.of(Wind.class, float[].class),
+        List.of(new Threshold(0, LESS_THAN, 5f, 2), new RollingSum(1, 2, GREATER_THAN, 3f)));
+    var wind = List.of(new Wind(10), new Wind(1), new Wind(2), new Wind(8));
+    var precipitation = new float[] { 1, 1, 2, 2 };
+
+    assertEquals(List.of(new Alert(0, 2), new Alert(1, 3)), engine.alerts(wind, precipitation));
+  }
+
+  @Test
+  @DisplayName("Should evaluate more rules than the rules of one generated class")
+  public void testManyRules() {
+    var rules = IntStream.range(0, 200)
+        .mapToObj(i -> new Threshold(0, GREATER_THAN, i, 1))
+        .toList();
+    var engine = AlertEngine.compile(MethodHandles.lookup(), List.of(float[].class), rules);
+    var values = new float[] { 0, 150.5f };
+
+    var alerts = new ArrayList<Alert>();
+    engine.evaluate(new Object[] { values }, (rule, hour) -> alerts.add(new Alert(rule, hour)));
+
+    assertEquals(200, engine.ruleCount());
+    assertEquals(IntStream.rangeClosed(0, 150).mapToObj(i -> new Alert(i, 1)).toList(), alerts);
+  }
+
+  @Test
+  @DisplayName("Should report the alerts of all the rules in hour order")
+  public void testAlertsInHourOrder() {
+    var rules = IntStream.range(0, 200)
+        .mapToObj(i -> new Threshold(0, GREATER_THAN, i, 1))
+        .toList();
+    var engine = AlertEngine.compile(MethodHandles.lookup(), List.of(float[].class), rules);
+    var values = new float[] { 100.5f, 0, 199.5f };
+
+    // the rules are split in several groups, the alerts of the hour 0 of every group come first
+    var expected = Stream.concat(
+        IntStream.rangeClosed(0, 100).mapToObj(i -> new Alert(i, 0)),
+        IntStream.range(0, 200).mapToObj(i -> new Alert(i, 2)))
+        .toList();
+    assertEquals(expected, engine.alerts(values));
+  }
+
+  @Test
+  @DisplayName("Should skip the blocks where the threshold rules can not become true")
+  public void testZoneMapSkipsBlocks() {
+    var engine = AlertEngine.compile(MethodHandles.lookup(), List.of(CountedWind.class),
+        List.of(new Threshold(0, GREATER_THAN, 60f, 3), new Threshold(0, LESS_THAN, 5f, 2)));
+    var values = new float[] { 10, 10, 10, 10,  10, 70, 70, 70,  70, 10, 10, 10,  10, 10, 10, 10,  1, 1 };
+    var wind = IntStream.range(0, values.length).mapToObj(i -> new CountedWind(values[i])).toList();
+    var zoneMaps = new ZoneMap[] { ZoneMap.of(values, 4) };
+
+    CountedWind.reads = 0;
+    var alerts = engine.alerts(zoneMaps, new Object[] { wind });
+
+    // the run of 70 spans two blocks, only the blocks 1, 2 and 4 are read
+    assertEquals(List.of(new Alert(0, 7), new Alert(1, 17)), alerts);
+    assertEquals(4 + 4 + 2, CountedWind.reads);
+    assertEquals(engine.alerts(wind), alerts);
+  }
+
+  @Test
+  @DisplayName("Should not skip the blocks of a group with a rolling sum")
+  public void testZoneMapRollingSum() {
+    var engine = AlertEngine.compile(MethodHandles.lookup(), List.of(CountedWind.class),
+        List.of(new Threshold(0, GREATER_THAN, 60f, 1), new RollingSum(0, 3, GREATER_THAN, 10f)));
+    var values = new float[] { 5, 5, 0, 0,  0, 0, 0, 0,  0, 4, 4, 4 };
+    var wind = IntStream.range(0, values.length).mapToObj(i -> new CountedWind(values[i])).toList();
+    var zoneMaps = new ZoneMap[] { ZoneMap.of(values, 4) };
+
+    CountedWind.reads = 0;
+    var alerts = engine.alerts(zoneMaps, new Object[] { wind });
+
+    // sums: -, -, 10, 5, 0, 0, 0, 0, 0, 4, 8, 12
+    assertEquals(List.of(new Alert(1, 11)), alerts);
+    assertEquals(values.length, CountedWind.reads);
+  }
+
+  @Test
+  @DisplayName("Should throw IllegalArgumentException for zone maps that do not match the columns")
+  public void testInvalidZoneMaps() {
+    var engine = AlertEngine.compile(MethodHandles.lookup(), List.of(float[].class, float[].class),
+        List.of(new Threshold(0, GREATER_THAN, 1f, 1)));
+    var values = new float[8];
+    assertAll(
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> engine.alerts(new ZoneMap[] { ZoneMap.of(values) }, new Object[] { values, values })),
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> engine.alerts(new ZoneMap[] { ZoneMap.of(new float[4]), null }, new Object[] { values, values })),
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> engine.alerts(new ZoneMap[] { ZoneMap.of(values, 2), ZoneMap.of(values, 4) },
+                new Object[] { values, values })));
+  }
+
+  @Test
+  @DisplayName("Should throw IllegalArgumentException for invalid rules or columns")
+  public void testInvalidArguments() {
+    assertAll(
+        () -> assertThrows(IllegalArgumentException.class, () -> new Threshold(0, GREATER_THAN, 1f, 0)),
+        () -> assertThrows(IllegalArgumentException.class, () -> new RollingSum(0, 0, GREATER_THAN, 1f)),
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> AlertEngine.compile(MethodHandles.lookup(), List.of(String.class), List.of())),
+        () -> assertThrows(IllegalAccessError.class,
+            () -> AlertEngine.compile(MethodHandles.publicLookup(), List.of(Wind.class), List.of())),
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> AlertEngine.compile(MethodHandles.lookup(), List.of(float[].class), List.of(new Threshold(1, GREATER_THAN, 1f, 1)))),
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> AlertEngine.compile(MethodHandles.lookup(), List.of(float[].class, float[].class), List.of())
+                .alerts(new float[2], new float[3])));
+  }
+}
@@ -0,0 +1,123 @@
+package util;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public final class BatchTest {
+  private HttpServer server;
+  private final AtomicInteger running = new AtomicInteger();
+  private final AtomicInteger maxRunning = new AtomicInteger();
+
+  @BeforeEach
+  public void startServer() throws IOException {
+    server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+    server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+    server.createContext("/echo", exchange -> {
+      var current = running.incrementAndGet();
+      maxRunning.accumulateAndGet(current, Math::max);
+      try {
+        Thread.sleep(20);
+        var body = exchange.getRequestURI().getQuery().getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(200, body.length);
+        try (var output = exchange.getResponseBody()) {
+          output.write(body);
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } finally {
+        running.decrementAndGet();
+      }
+    });
+    server.createContext("/error", exchange -> {
+      exchange.sendResponseHeaders(500, -1);
+      exchange.close();
+    });
+    server.start();
+  }
+
+  @AfterEach
+  public void stopServer() {
+    server.stop(0);
+  }
+
+  private URI uri(String path, String query) {
+    return URI.create("http://localhost:" + server.getAddress().getPort() + path + "?" + query);
+  }
+
+  private static String fetchAsString(URI uri) throws IOException {
+    try (var input = Fetch.fetch(uri)) {
+      return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+    }
+  }
+
+  @Test
+  @DisplayName("Should fetch all the URIs and keep the order of the results")
+  public void testMap() throws IOException {
+    var queries = IntStream.range(0, 20).mapToObj(i -> "q=" + i).toList();
+
+    var results = Batch.map(queries, 4, query -> fetchAsString(uri("/echo", query)));
+
+    assertEquals(queries, results);
+    assertTrue(maxRunning.get() <= 4, "max concurrency " + maxRunning.get());
+    assertTrue(maxRunning.get() > 1, "requests were not concurrent");
+  }
+
+  @Test
+  @DisplayName("Should propagate the IOException of a task")
+  public void testMapWithError() {
+    var queries = List.of("q=1", "q=2", "q=3");
+
+    assertThrows(IOException.class,
+        () -> Batch.map(queries, 2,
+            query -> fetchAsString(uri(query.equals("q=2") ? "/error" : "/echo", query))));
+  }
+
+  @Test
+  @DisplayName("Should cancel the other tasks as soon as a task fails")
+  public void testMapCancelOnError() {
+    var queries = List.of("slow", "fail");
+
+    assertTimeoutPreemptively(Duration.ofSeconds(5), () ->
+        assertThrows(IOException.class,
+            () -> Batch.map(queries, 2, query -> {
+              if (query.equals("fail")) {
+                throw new IOException("fail");
+              }
+              try {
+                Thread.sleep(Duration.ofMinutes(1));
+              } catch (InterruptedException e) {
+                throw new InterruptedIOException();
+              }
+              return query;
+            })));
+  }
+
+  @Test
+  @DisplayName("Should return an empty list for no elements")
+  public void testMapEmpty() throws IOException {
+    assertEquals(List.of(), Batch.map(List.<String>of(), 1, query -> query));
+  }
+
+  @Test
+  @DisplayName("Should throw IllegalArgumentException for an invalid concurrency")
+  public void testInvalidConcurrency() {
+    assertThrows(IllegalArgumentException.class, () -> Batch.map(List.of("q"), 0, query -> query));
+  }
+}
@@ -0,0 +1,106 @@
+package util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public final class ColumnFileTest {
+
+  @Test
+  @DisplayName("Should read the columns that were written")
+  public void testWriteAndRead(@TempDir Path dir) throws IOException {
+    var path = Files.createFile(dir.resolve("data.columns"));
+    var column0 = new float[] { 1.5f, -2.0f, Float.NaN };
+    var column1 = new float[] { 0.0f, 42.25f, Float.MAX_VALUE };
+
+    ColumnFile.write(path, column0, column1);
+    var columns = ColumnFile.read(path);
+
+    assertEquals(2, columns.length);
+    assertArrayEquals(column0, columns[0]);
+    assertArrayEquals(column1, columns[1]);
+    assertEquals(16 + 2 * 3 * 4, Files.size(path));
+  }
+
+  @Test
+  @DisplayName("Should write the values in little endian after the header")
+  public void testLayout(@TempDir Path dir) throws IOException {
+    var path = Files.createFile(dir.resolve("data.columns"));
+
+    ColumnFile.write(path, new float[] { 3.0f });
+
+    var buffer = ByteBuffer.wrap(Files.readAllBytes(path)).order(ByteOrder.LITTLE_ENDIAN);
+    assertEquals(0x57414346, buffer.getInt());
+    assertEquals(1, buffer.getInt());
+    assertEquals(1, buffer.getInt());
+    assertEquals(1, buffer.getInt());
+    assertEquals(3.0f, buffer.getFloat());
+  }
+
+  @Test
+  @DisplayName("Should handle empty columns")
+  public void testEmptyColumns(@TempDir Path dir) throws IOException {
+    var path = Files.createFile(dir.resolve("data.columns"));
+
+    ColumnFile.write(path, new float[0], new float[0]);
+    var columns = ColumnFile.read(path);
+
+    assertEquals(2, columns.length);
+    assertEquals(0, columns[0].length);
+  }
+
+  @Test
+  @DisplayName("Should throw IllegalArgumentException for columns of different lengths")
+  public void testDifferentLengths(@TempDir Path dir) throws IOException {
+    var path = Files.createFile(dir.resolve("data.columns"));
+
+    assertThrows(IllegalArgumentException.class,
+        () -> ColumnFile.write(path, new float[1], new float[2]));
+  }
+
+  @Test
+  @DisplayName("Should store the columns into the cache and remove the cached JSON response")
+  public void testStoreIntoCache() throws IOException {
+    var uri = URI.create("https://example.com/v1/archive?test=column-file-store");
+    var jsonPath = Fetch.CACHE_DIR.resolve(uri.getQuery());
+    var columnsPath = Fetch.CACHE_DIR.resolve(uri.getQuery() + ".columns");
+    Files.createDirectories(Fetch.CACHE_DIR);
+    Files.writeString(jsonPath, "{\"hourly\": {}}");
+    try {
+      ColumnFile.storeIntoCache(uri, new float[] { 1.0f, 2.0f });
+
+      assertArrayEquals(new float[] { 1.0f, 2.0f }, ColumnFile.readFromCache(uri)[0]);
+      assertFalse(Files.exists(jsonPath));
+    } finally {
+      Files.deleteIfExists(jsonPath);
+      Files.deleteIfExists(columnsPath);
+    }
+  }
+
+  @Test
+  @DisplayName("Should not store columns of different lengths into the cache")
+  public void testStoreIntoCacheDifferentLengths() {
+    var uri = URI.create("https://example.com/v1/archive?test=column-file-different-lengths");
+
+    ColumnFile.storeIntoCache(uri, new float[1], new float[2]);
+
+    assertNull(ColumnFile.readFromCache(uri));
+  }
+
+  @Test
+  @DisplayName("Should throw IOException for an invalid file")
+  public void testInvalidFile(@TempDir Path dir) throws IOException {
+    var path = Files.write(dir.resolve("data.columns"), "{\"hourly\": {}}".getBytes());
+
+    assertThrows(IOException.class, () -> ColumnFile.read(path));
+  }
+}
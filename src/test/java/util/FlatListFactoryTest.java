@@ -9,7 +9,11 @@ import org.junit.jupiter.api.DisplayName;
 import static org.junit.jupiter.api.Assertions.*;
 import static util.FlatListFactory.NON_ATOMIC_FLAT;
 
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Spliterator;
 
 public final class FlatListFactoryTest {
 
@@ -342,6 +346,81 @@ public final class FlatListFactoryTest {
     assertThrows(NoSuchElementException.class, iterator::next);
   }
 
+  @Test
+  @DisplayName("Should remove the last element returned by the iterator")
+  public void testIteratorRemove() {
+    var list = FlatListFactory.create(TestValue.class, NON_ATOMIC_FLAT);
+    for (var i = 0; i < 5; i++) {
+      list.add(new TestValue("test" + i));
+    }
+
+    var iterator = list.iterator();
+    assertThrows(IllegalStateException.class, iterator::remove);
+    while (iterator.hasNext()) {
+      if (iterator.next().data().equals("test2")) {
+        iterator.remove();
+        assertThrows(IllegalStateException.class, iterator::remove);
+      }
+    }
+
+    assertEquals(List.of(new TestValue("test0"), new TestValue("test1"), new TestValue("test3"), new TestValue("test4")), list);
+  }
+
+  @Test
+  @DisplayName("Should support removeIf")
+  public void testRemoveIf() {
+    var list = FlatListFactory.create(TestValue.class);
+    for (var i = 0; i < 20; i++) {
+      list.add(new TestValue("test" + i));
+    }
+
+    assertTrue(list.removeIf(value -> value.data().length() == 6));
+    assertFalse(list.removeIf(value -> value.data().isEmpty()));
+
+    assertEquals(10, list.size());
+    for (var i = 0; i < 10; i++) {
+      assertEquals("test" + i, list.get(i).data());
+    }
+  }
+
+  @Test
+  @DisplayName("Should fail fast if the list is modified during the iteration")
+  public void testIteratorConcurrentModification() {
+    var list = FlatListFactory.create(TestValue.class);
+    list.add(new TestValue("test1"));
+    list.add(new TestValue("test2"));
+
+    assertThrows(ConcurrentModificationException.class, () -> {
+      for (var value : list) {
+        list.add(value);
+      }
+    });
+    assertThrows(ConcurrentModificationException.class, () -> {
+      for (var value : list) {
+        list.remove(0);
+      }
+    });
+    assertThrows(ConcurrentModificationException.class, () -> {
+      var iterator = list.iterator();
+      list.clear();
+      iterator.next();
+    });
+  }
+
+  @Test
+  @DisplayName("Should not fail if an element is replaced during the iteration")
+  public void testIteratorSet() {
+    var list = FlatListFactory.create(TestValue.class);
+    list.add(new TestValue("test1"));
+    list.add(new TestValue("test2"));
+
+    var iterator = list.iterator();
+    iterator.next();
+    list.set(1, new TestValue("test3"));
+
+    assertEquals(new TestValue("test3"), iterator.next());
+  }
+
   @Test
   @DisplayName("Should support enhanced for loop")
   public void testEnhancedForLoop() {
@@ -420,4 +499,128 @@ public final class FlatListFactoryTest {
     assertEquals(1, twoByteList.size());
     assertEquals(new TwoByteValue(new ByteValue((byte) 1), new ByteValue((byte) 2)), twoByteList.getFirst());
   }
-}
\ No newline at end of file
+
+  @Test
+  @DisplayName("Should replace an element with set")
+  public void testSet() {
+    var list = FlatListFactory.create(TestValue.class);
+    list.add(new TestValue("test1"));
+    list.add(new TestValue("test2"));
+
+    var old = list.set(1, new TestValue("test3"));
+
+    assertEquals(new TestValue("test2"), old);
+    assertEquals(List.of(new TestValue("test1"), new TestValue("test3")), list);
+    assertThrows(IndexOutOfBoundsException.class, () -> list.set(2, new TestValue("test4")));
+  }
+
+  @Test
+  @DisplayName("Should add all elements of a collection")
+  public void testAddAllFromCollection() {
+    var list = FlatListFactory.create(TestValue.class);
+    list.add(new TestValue("test0"));
+    var elements = new ArrayList<TestValue>();
+    for (int i = 1; i < 40; i++) {
+      elements.add(new TestValue("test" + i));
+    }
+
+    assertTrue(list.addAll(elements));
+    assertFalse(list.addAll(List.of()));
+
+    assertEquals(40, list.size());
+    for (int i = 0; i < 40; i++) {
+      assertEquals("test" + i, list.get(i).data());
+    }
+  }
+
+  @Test
+  @DisplayName("Should add all elements of another flat list")
+  public void testAddAllFromFlatList() {
+    var source = FlatListFactory.create(TestValue.class, NON_ATOMIC_FLAT);
+    for (int i = 0; i < 100; i++) {
+      source.add(new TestValue("test" + i));
+    }
+    var list = FlatListFactory.create(TestValue.class);
+
+    assertTrue(list.addAll(source));
+    assertTrue(list.addAll(list));
+
+    assertEquals(200, list.size());
+    for (int i = 0; i < 200; i++) {
+      assertEquals("test" + (i % 100), list.get(i).data());
+    }
+    assertTrue(FlatListFactory.isFlat(list));
+  }
+
+  @Test
+  @DisplayName("Should remove elements by index and by range")
+  public void testRemove() {
+    var list = FlatListFactory.create(TestValue.class, NON_ATOMIC_FLAT);
+    for (int i = 0; i < 10; i++) {
+      list.add(new TestValue("test" + i));
+    }
+
+    assertEquals(new TestValue("test0"), list.remove(0));
+    list.subList(2, 5).clear();
+
+    assertEquals(6, list.size());
+    assertEquals(List.of("test1", "test2", "test6", "test7", "test8", "test9"),
+        list.stream().map(TestValue::data).toList());
+    assertThrows(IndexOutOfBoundsException.class, () -> list.remove(6));
+  }
+
+  @Test
+  @DisplayName("Should clear the list and still accept new elements")
+  public void testClear() {
+    var list = FlatListFactory.create(TestValue.class);
+    for (int i = 0; i < 20; i++) {
+      list.add(new TestValue("test" + i));
+    }
+
+    list.clear();
+
+    assertEquals(0, list.size());
+    assertTrue(list.isEmpty());
+    list.add(new TestValue("test"));
+    assertEquals(List.of(new TestValue("test")), list);
+  }
+
+  @Test
+  @DisplayName("Should copy the elements with toArray")
+  public void testToArray() {
+    var list = FlatListFactory.create(TestValue.class);
+    list.add(new TestValue("test1"));
+    list.add(new TestValue("test2"));
+
+    var array = list.toArray();
+    var typedArray = list.toArray(new TestValue[0]);
+    var largerArray = list.toArray(new TestValue[] {
+        new TestValue("a"), new TestValue("b"), new TestValue("c"), new TestValue("d") });
+
+    assertEquals(Object.class, array.getClass().getComponentType());
+    assertArrayEquals(new Object[] { new TestValue("test1"), new TestValue("test2") }, array);
+    assertArrayEquals(new TestValue[] { new TestValue("test1"), new TestValue("test2") }, typedArray);
+    assertEquals(new TestValue("test2"), largerArray[1]);
+    assertNull(largerArray[2]);
+  }
+
+  @Test
+  @DisplayName("Should provide a sized spliterator that splits in the middle")
+  public void testSpliterator() {
+    var list = FlatListFactory.create(TestValue.class, NON_ATOMIC_FLAT);
+    for (int i = 0; i < 1_000; i++) {
+      list.add(new TestValue("test" + i));
+    }
+
+    var spliterator = list.spliterator();
+    assertTrue(spliterator.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.ORDERED));
+    assertTrue(spliterator.hasCharacteristics(Spliterator.NONNULL));
+    var prefix = spliterator.trySplit();
+    assertNotNull(prefix);
+    assertEquals(500, prefix.estimateSize());
+    assertEquals(500, spliterator.estimateSize());
+
+    assertEquals(list.stream().map(TestValue::data).toList(),
+        list.parallelStream().map(TestValue::data).toList());
+  }
+}
@@ -0,0 +1,46 @@
+package util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.exc.ValueInstantiationException;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public final class FloatConstructorDeserializerModifierTest {
+  public record Speed(float value) {
+    public Speed {
+      if (value < 0) {
+        throw new IllegalArgumentException("value < 0");
+      }
+    }
+  }
+
+  public record Gust(Speed speed) {}
+
+  private static final ObjectReader READER =
+      new ObjectMapper()
+          .registerModule(new SimpleModule().setDeserializerModifier(new FloatConstructorDeserializerModifier()))
+          .readerFor(Gust.class);
+
+  @Test
+  @DisplayName("Should create the value with its float constructor")
+  public void testFloatConstructor() throws Exception {
+    Gust gust = READER.readValue("""
+        { "speed": 72.5 }
+        """);
+
+    assertEquals(new Gust(new Speed(72.5f)), gust);
+  }
+
+  @Test
+  @DisplayName("Should report an exception of the constructor as an IOException")
+  public void testNegativeSpeed() {
+    var e = assertThrows(ValueInstantiationException.class, () -> READER.readValue("""
+        { "speed": -1 }
+        """));
+    assertInstanceOf(IllegalArgumentException.class, e.getCause());
+  }
+}
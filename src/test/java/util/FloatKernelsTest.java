@@ -0,0 +1,113 @@
+package util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public final class FloatKernelsTest {
+
+  private static float[] randomArray(int length) {
+    var random = new Random(length);
+    var array = new float[length];
+    for (var i = 0; i < array.length; i++) {
+      array[i] = -50.0f + 100.0f * random.nextFloat();
+    }
+    return array;
+  }
+
+  @Test
+  @DisplayName("Should compute min, max and sum with any length and offset")
+  public void testAggregations() {
+    for (var length = 0; length < 100; length++) {
+      var array = randomArray(length + 3);
+      var start = 3;
+      var end = array.length;
+      var min = Float.POSITIVE_INFINITY;
+      var max = Float.NEGATIVE_INFINITY;
+      var sum = 0.0f;
+      for (var i = start; i < end; i++) {
+        min = Math.min(min, array[i]);
+        max = Math.max(max, array[i]);
+        sum += array[i];
+      }
+
+      assertEquals(min, FloatKernels.min(array, start, end));
+      assertEquals(max, FloatKernels.max(array, start, end));
+      assertEquals(sum, FloatKernels.sum(array, start, end), 0.01f);
+    }
+  }
+
+  @Test
+  @DisplayName("Should count the values above and below a threshold")
+  public void testCounts() {
+    for (var length = 0; length < 100; length++) {
+      var array = randomArray(length);
+      var greater = 0;
+      var less = 0;
+      for (var value : array) {
+        if (value > 10.0f) {
+          greater++;
+        }
+        if (value < -10.0f) {
+          less++;
+        }
+      }
+
+      assertEquals(greater, FloatKernels.countGreaterThan(array, 0, array.length, 10.0f));
+      assertEquals(less, FloatKernels.countLessThan(array, 0, array.length, -10.0f));
+    }
+  }
+
+  @Test
+  @DisplayName("Should compute the same results with the scalar loops used without the Vector API")
+  public void testScalarLoops() {
+    for (var length = 0; length < 100; length++) {
+      var array = randomArray(length + 3);
+      var start = 3;
+      var end = array.length;
+      var min = Float.POSITIVE_INFINITY;
+      var max = Float.NEGATIVE_INFINITY;
+      var sum = 0.0f;
+      var greater = 0;
+      var less = 0;
+      for (var i = start; i < end; i++) {
+        min = Math.min(min, array[i]);
+        max = Math.max(max, array[i]);
+        sum += array[i];
+        greater += array[i] > 10.0f ? 1 : 0;
+        less += array[i] < -10.0f ? 1 : 0;
+      }
+
+      assertEquals(min, FloatKernels.scalarMin(array, start, end));
+      assertEquals(max, FloatKernels.scalarMax(array, start, end));
+      assertEquals(sum, FloatKernels.scalarSum(array, start, end));
+      assertEquals(greater, FloatKernels.scalarCountGreaterThan(array, start, end, 10.0f));
+      assertEquals(less, FloatKernels.scalarCountLessThan(array, start, end, -10.0f));
+    }
+  }
+
+  @Test
+  @DisplayName("Should return the neutral element for an empty range")
+  public void testEmptyRange() {
+    var array = new float[] { 1.0f, 2.0f };
+
+    assertEquals(Float.POSITIVE_INFINITY, FloatKernels.min(array, 1, 1));
+    assertEquals(Float.NEGATIVE_INFINITY, FloatKernels.max(array, 1, 1));
+    assertEquals(0.0f, FloatKernels.sum(array, 1, 1));
+    assertEquals(0, FloatKernels.countGreaterThan(array, 1, 1, 0.0f));
+  }
+
+  @Test
+  @DisplayName("Should throw IndexOutOfBoundsException for an invalid range")
+  public void testInvalidRange() {
+    var array = new float[10];
+
+    assertAll(
+        () -> assertThrows(IndexOutOfBoundsException.class, () -> FloatKernels.min(array, -1, 5)),
+        () -> assertThrows(IndexOutOfBoundsException.class, () -> FloatKernels.max(array, 5, 11)),
+        () -> assertThrows(IndexOutOfBoundsException.class, () -> FloatKernels.sum(array, 6, 5)));
+  }
+}
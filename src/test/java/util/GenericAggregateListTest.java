@@ -7,6 +7,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Spliterator;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -406,4 +407,22 @@ public final class GenericAggregateListTest {
     // Test exception for index >= size
     assertThrows(IndexOutOfBoundsException.class, () -> aggregateList.get(3));
   }
-}
\ No newline at end of file
+
+  @Test
+  @DisplayName("Testing spliterator characteristics and splitting")
+  public void testSpliterator() {
+    record TestRecord(int id, String name) {}
+
+    var aggregateList = new GenericAggregateList<>(1_000,
+        index -> new TestRecord(index, "name" + index));
+
+    var spliterator = aggregateList.spliterator();
+    assertTrue(spliterator.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.ORDERED));
+    var prefix = spliterator.trySplit();
+    assertNotNull(prefix);
+    assertEquals(500, prefix.estimateSize());
+    assertEquals(500, spliterator.estimateSize());
+
+    assertEquals(499_500, aggregateList.parallelStream().mapToInt(TestRecord::id).sum());
+  }
+}
@@ -11,6 +11,7 @@ import static org.junit.jupiter.api.Assertions.*;
 import static util.GenericFlatList.*;
 
 import java.util.NoSuchElementException;
+import java.util.Spliterator;
 
 public final class GenericFlatListTest {
 
@@ -416,4 +417,23 @@ public final class GenericFlatListTest {
     assertEquals(1, twoByteList.size());
     assertEquals(new TwoByteValue(new ByteValue((byte) 1), new ByteValue((byte) 2)), twoByteList.getFirst());
   }
-}
\ No newline at end of file
+
+  @Test
+  @DisplayName("Should provide a sized spliterator that splits in the middle")
+  public void testSpliterator() {
+    var list = new GenericFlatList<TestValue>(TestValue.class, FLAT);
+    for (int i = 0; i < 1_000; i++) {
+      list.add(new TestValue("test" + i));
+    }
+
+    var spliterator = list.spliterator();
+    assertTrue(spliterator.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.ORDERED));
+    var prefix = spliterator.trySplit();
+    assertNotNull(prefix);
+    assertEquals(500, prefix.estimateSize());
+    assertEquals(500, spliterator.estimateSize());
+
+    assertEquals(list.stream().map(TestValue::data).toList(),
+        list.parallelStream().map(TestValue::data).toList());
+  }
+}
@@ -0,0 +1,130 @@
+package util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public final class MemoryCacheTest {
+
+  @Test
+  @DisplayName("Should return the stored values and count hits and misses")
+  public void testGetAndPut() {
+    var cache = new MemoryCache<String, String>(100, String::length);
+
+    assertNull(cache.get("foo"));
+    cache.put("foo", "bar");
+
+    assertEquals("bar", cache.get("foo"));
+    assertEquals(new MemoryCache.Stats(1, 1, 0, 3, 100), cache.stats());
+  }
+
+  @Test
+  @DisplayName("Should evict the least recently used values")
+  public void testEviction() {
+    var cache = new MemoryCache<String, String>(10, String::length);
+    cache.put("a", "aaaa");
+    cache.put("b", "bbbb");
+    cache.get("a");  // b is now the least recently used
+    cache.put("c", "cccc");
+
+    assertEquals("aaaa", cache.get("a"));
+    assertNull(cache.get("b"));
+    assertEquals("cccc", cache.get("c"));
+    assertEquals(1, cache.stats().evictions());
+    assertEquals(8, cache.stats().weight());
+  }
+
+  @Test
+  @DisplayName("Should not store a value heavier than the maximum weight")
+  public void testTooHeavy() {
+    var cache = new MemoryCache<String, String>(2, String::length);
+    cache.put("a", "aaaa");
+
+    assertNull(cache.get("a"));
+    assertEquals(0, cache.stats().weight());
+  }
+
+  @Test
+  @DisplayName("Should replace a value and update the weight")
+  public void testReplace() {
+    var cache = new MemoryCache<String, String>(10, String::length);
+    cache.put("a", "aaaa");
+    cache.put("a", "aa");
+
+    assertEquals("aa", cache.get("a"));
+    assertEquals(2, cache.stats().weight());
+  }
+
+  @Test
+  @DisplayName("Should load a missing value only once")
+  public void testLoader() throws IOException {
+    var cache = new MemoryCache<String, String>(100, String::length);
+    var counter = new int[1];
+    MemoryCache.Loader<String, String> loader = key -> {
+      counter[0]++;
+      return key.repeat(2);
+    };
+
+    assertEquals("foofoo", cache.get("foo", loader));
+    assertEquals("foofoo", cache.get("foo", loader));
+    assertEquals(1, counter[0]);
+  }
+
+  @Test
+  @DisplayName("Should call the loader only once if the same key is loaded concurrently")
+  public void testConcurrentLoader() throws InterruptedException, ExecutionException {
+    var cache = new MemoryCache<String, String>(100, String::length);
+    var counter = new AtomicInteger();
+    var release = new CountDownLatch(1);
+    MemoryCache.Loader<String, String> loader = key -> {
+      counter.incrementAndGet();
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        throw new AssertionError(e);
+      }
+      return key.repeat(2);
+    };
+
+    try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      var futures = new ArrayList<Future<String>>();
+      for (var i = 0; i < 10; i++) {
+        futures.add(executor.submit(() -> cache.get("foo", loader)));
+      }
+      // all callers have missed the value, only one of them is loading it
+      while (cache.stats().misses() != 10) {
+        Thread.onSpinWait();
+      }
+      release.countDown();
+
+      for (var future : futures) {
+        assertEquals("foofoo", future.get());
+      }
+    }
+    assertEquals(1, counter.get());
+  }
+
+  @Test
+  @DisplayName("Should propagate the exception of the loader")
+  public void testLoaderException() {
+    var cache = new MemoryCache<String, String>(100, String::length);
+
+    assertThrows(IOException.class, () -> cache.get("foo", _ -> { throw new IOException(); }));
+    assertNull(cache.get("foo"));
+  }
+
+  @Test
+  @DisplayName("Should throw IllegalArgumentException for a negative maximum weight")
+  public void testInvalidMaxWeight() {
+    assertThrows(IllegalArgumentException.class, () -> new MemoryCache<String, String>(-1, String::length));
+  }
+}
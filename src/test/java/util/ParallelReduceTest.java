@@ -0,0 +1,55 @@
+package util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public final class ParallelReduceTest {
+
+  @Test
+  @DisplayName("Should reduce all the indexes")
+  public void testReduce() {
+    var sum = ParallelReduce.reduce(100_000, 1_000,
+        (start, end) -> IntStream.range(start, end).asLongStream().sum(),
+        Long::sum);
+
+    assertEquals(100_000L * 99_999 / 2, sum);
+  }
+
+  @Test
+  @DisplayName("Should combine the ranges in order")
+  public void testReduceInOrder() {
+    var list = ParallelReduce.<List<Integer>>reduce(1_000, 7,
+        (start, end) -> IntStream.range(start, end).boxed().toList(),
+        (list1, list2) -> {
+          var result = new ArrayList<>(list1);
+          result.addAll(list2);
+          return result;
+        });
+
+    assertEquals(IntStream.range(0, 1_000).boxed().toList(), list);
+  }
+
+  @Test
+  @DisplayName("Should not split a range smaller than the threshold")
+  public void testSmallRange() {
+    var range = ParallelReduce.reduce(10, 16, (start, end) -> start + ".." + end, String::concat);
+
+    assertEquals("0..10", range);
+  }
+
+  @Test
+  @DisplayName("Should throw IllegalArgumentException for an invalid size or threshold")
+  public void testInvalidArguments() {
+    assertAll(
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> ParallelReduce.reduce(-1, 16, (start, end) -> 0, Integer::sum)),
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> ParallelReduce.reduce(10, 0, (start, end) -> 0, Integer::sum)));
+  }
+}
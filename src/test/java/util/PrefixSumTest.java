@@ -0,0 +1,41 @@
+package util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public final class PrefixSumTest {
+
+  @Test
+  @DisplayName("Should answer the sum of a range")
+  public void testSum() {
+    var prefixSum = new PrefixSum(new float[] { 1.0f, 2.0f, 3.0f, 4.0f });
+
+    assertEquals(10.0f, prefixSum.sum(0, 4));
+    assertEquals(5.0f, prefixSum.sum(1, 3));
+    assertEquals(0.0f, prefixSum.sum(2, 2));
+    assertEquals(4, prefixSum.size());
+    assertEquals(5 * Double.BYTES, prefixSum.memoryBytes());
+  }
+
+  @Test
+  @DisplayName("Should not accumulate rounding errors on a long array")
+  public void testLongArray() {
+    var values = new float[1_000_000];
+    Arrays.fill(values, 0.1f);
+    var prefixSum = new PrefixSum(values);
+
+    assertEquals(0.1f * 10, prefixSum.sum(999_990, 1_000_000), 1e-5f);
+  }
+
+  @Test
+  @DisplayName("Should throw IndexOutOfBoundsException for an invalid range")
+  public void testInvalidRange() {
+    var prefixSum = new PrefixSum(new float[4]);
+
+    assertThrows(IndexOutOfBoundsException.class, () -> prefixSum.sum(0, 5));
+  }
+}
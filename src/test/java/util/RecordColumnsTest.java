@@ -0,0 +1,79 @@
+package util;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.invoke.MethodHandles;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public final class RecordColumnsTest {
+  public value record Celsius(float value) {}
+
+  public record Speed(float value) {}
+
+  public record Sample(
+      @JsonProperty("temperature") List<Celsius> temperatures,
+      @JsonProperty("speed") List<Speed> speeds,
+      @JsonProperty("rain") float[] rains) {
+    public Sample {
+      temperatures = temperatures == null ? List.of() : temperatures;
+      speeds = speeds == null ? List.of() : speeds;
+      rains = rains == null ? new float[0] : rains;
+    }
+  }
+
+  public record NoProperty(float[] values) {}
+
+  private static final RecordColumns<Sample> COLUMNS = RecordColumns.of(MethodHandles.lookup(), Sample.class);
+
+  @Test
+  @DisplayName("Should name the columns with the @JsonProperty of the components")
+  public void testNames() {
+    assertEquals(List.of("temperature", "speed", "rain"), COLUMNS.names());
+  }
+
+  @Test
+  @DisplayName("Should return the values of each column")
+  public void testColumn() {
+    var sample = new Sample(
+        List.of(new Celsius(1f), new Celsius(2f)), List.of(new Speed(3f)), new float[] { 4f, 5f, 6f });
+
+    assertArrayEquals(new float[] { 1f, 2f }, COLUMNS.column(sample, "temperature"));
+    assertArrayEquals(new float[] { 3f }, COLUMNS.column(sample, "speed"));
+    assertArrayEquals(new float[] { 4f, 5f, 6f }, COLUMNS.column(sample, "rain"));
+    assertEquals(3, COLUMNS.rowCount(sample));
+    assertEquals(1, COLUMNS.size(sample, "speed"));
+    assertEquals(2, COLUMNS.size(sample, "temperature"));
+    assertThrows(IllegalArgumentException.class, () -> COLUMNS.column(sample, "wind"));
+  }
+
+  @Test
+  @DisplayName("Should create a record from some columns, the other components are null")
+  public void testCreate() {
+    var sample = COLUMNS.create(List.of("rain", "temperature"), new float[][] { { 4f }, { 1f, 2f } });
+
+    assertEquals(List.of(new Celsius(1f), new Celsius(2f)), sample.temperatures());
+    assertTrue(FlatListFactory.isFlat(sample.temperatures()));
+    assertEquals(List.of(), sample.speeds());
+    assertArrayEquals(new float[] { 4f }, sample.rains());
+  }
+
+  @Test
+  @DisplayName("Should check that the names are names of columns without duplicates")
+  public void testCheckNames() {
+    assertEquals(List.of("speed", "rain"), COLUMNS.checkNames(List.of("speed", "rain")));
+    assertThrows(IllegalArgumentException.class, () -> COLUMNS.checkNames(List.of()));
+    assertThrows(IllegalArgumentException.class, () -> COLUMNS.checkNames(List.of("wind")));
+    assertThrows(IllegalArgumentException.class, () -> COLUMNS.checkNames(List.of("rain", "rain")));
+  }
+
+  @Test
+  @DisplayName("Should throw IllegalArgumentException for a component without @JsonProperty")
+  public void testNoProperty() {
+    assertThrows(IllegalArgumentException.class,
+        () -> RecordColumns.of(MethodHandles.lookup(), NoProperty.class));
+  }
+}
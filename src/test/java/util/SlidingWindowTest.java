@@ -0,0 +1,83 @@
+package util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public final class SlidingWindowTest {
+  @Test
+  @DisplayName("Should aggregate the values appended while the window is not full")
+  public void testNotFull() {
+    var window = new SlidingWindow(4);
+    window.append(3);
+    window.append(-1);
+    window.append(5);
+
+    assertEquals(3, window.size());
+    assertEquals(-1, window.min());
+    assertEquals(5, window.max());
+    assertEquals(7, window.sum());
+  }
+
+  @Test
+  @DisplayName("Should evict the oldest value when the window is full")
+  public void testEviction() {
+    var window = new SlidingWindow(3);
+    for (var value : new float[] { 1, 9, 2, 3, 4 }) {
+      window.append(value);
+    }
+
+    assertEquals(3, window.size());
+    assertEquals(2, window.min());
+    assertEquals(4, window.max());
+    assertEquals(9, window.sum());
+  }
+
+  @Test
+  @DisplayName("Should have the same min, max and sum as a scan of the last values")
+  public void testSameResultAsScan() {
+    var random = new Random(0);
+    var values = new float[10_000];
+    for (var i = 0; i < values.length; i++) {
+      values[i] = random.nextInt(100) - 50.5f;
+    }
+    var capacity = 24;
+    var window = new SlidingWindow(capacity);
+    for (var i = 0; i < values.length; i++) {
+      window.append(values[i]);
+
+      var min = Float.POSITIVE_INFINITY;
+      var max = Float.NEGATIVE_INFINITY;
+      var sum = 0.0f;
+      for (var j = Math.max(0, i - capacity + 1); j <= i; j++) {
+        min = Math.min(min, values[j]);
+        max = Math.max(max, values[j]);
+        sum += values[j];
+      }
+      assertEquals(min, window.min());
+      assertEquals(max, window.max());
+      assertEquals(sum, window.sum(), 0.001f);
+    }
+  }
+
+  @Test
+  @DisplayName("Should return the neutral elements for an empty window")
+  public void testEmpty() {
+    var window = new SlidingWindow(8);
+
+    assertEquals(0, window.size());
+    assertEquals(Float.POSITIVE_INFINITY, window.min());
+    assertEquals(Float.NEGATIVE_INFINITY, window.max());
+    assertEquals(0, window.sum());
+    assertEquals(8 * 3 * 4, window.memoryBytes());
+  }
+
+  @Test
+  @DisplayName("Should throw IllegalArgumentException for an invalid capacity")
+  public void testInvalidCapacity() {
+    assertThrows(IllegalArgumentException.class, () -> new SlidingWindow(0));
+  }
+}
@@ -0,0 +1,78 @@
+package util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public final class SparseTableTest {
+
+  @Test
+  @DisplayName("Should answer the min and the max of all the ranges")
+  public void testAllRanges() {
+    var random = new Random(0);
+    var values = new float[37];
+    for (var i = 0; i < values.length; i++) {
+      values[i] = random.nextFloat() * 100.0f - 50.0f;
+    }
+    var minTable = SparseTable.ofMin(values);
+    var maxTable = SparseTable.ofMax(values);
+
+    for (var from = 0; from < values.length; from++) {
+      var min = Float.POSITIVE_INFINITY;
+      var max = Float.NEGATIVE_INFINITY;
+      for (var to = from + 1; to <= values.length; to++) {
+        min = Math.min(min, values[to - 1]);
+        max = Math.max(max, values[to - 1]);
+        assertEquals(min, minTable.query(from, to));
+        assertEquals(max, maxTable.query(from, to));
+      }
+    }
+  }
+
+  @Test
+  @DisplayName("Should return infinity for an empty range")
+  public void testEmptyRange() {
+    var values = new float[] { 1.0f, 2.0f };
+
+    assertEquals(Float.POSITIVE_INFINITY, SparseTable.ofMin(values).query(1, 1));
+    assertEquals(Float.NEGATIVE_INFINITY, SparseTable.ofMax(new float[0]).query(0, 0));
+  }
+
+  @Test
+  @DisplayName("Should report the memory of all the levels")
+  public void testMemoryBytes() {
+    var table = SparseTable.ofMin(new float[8]);
+
+    // levels of 8, 7, 5 and 1 values
+    assertEquals((8 + 7 + 5 + 1) * Float.BYTES, table.memoryBytes());
+    assertEquals(8, table.size());
+  }
+
+  @Test
+  @DisplayName("Should not be changed by a modification of the array of values")
+  public void testCopyOfValues() {
+    var values = new float[] { 3, 1, 2 };
+    var minTable = SparseTable.ofMin(values);
+    var maxTable = SparseTable.ofMax(values);
+    values[0] = -10;
+    values[1] = 10;
+
+    assertEquals(3f, minTable.query(0, 1));
+    assertEquals(1f, minTable.query(0, 3));
+    assertEquals(3f, maxTable.query(0, 3));
+  }
+
+  @Test
+  @DisplayName("Should throw IndexOutOfBoundsException for an invalid range")
+  public void testInvalidRange() {
+    var table = SparseTable.ofMax(new float[8]);
+
+    assertAll(
+        () -> assertThrows(IndexOutOfBoundsException.class, () -> table.query(-1, 2)),
+        () -> assertThrows(IndexOutOfBoundsException.class, () -> table.query(2, 9)),
+        () -> assertThrows(IndexOutOfBoundsException.class, () -> table.query(3, 2)));
+  }
+}
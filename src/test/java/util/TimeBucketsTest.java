@@ -0,0 +1,80 @@
+package util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public final class TimeBucketsTest {
+
+  @Test
+  @DisplayName("Should split the hours in days")
+  public void testDays() {
+    var buckets = TimeBuckets.of(LocalDate.of(2023, 1, 1), 60, ChronoUnit.DAYS);
+
+    assertEquals(3, buckets.size());
+    assertEquals(0, buckets.start(0));
+    assertEquals(24, buckets.end(0));
+    assertEquals(48, buckets.start(2));
+    assertEquals(60, buckets.end(2));
+    assertEquals(LocalDate.of(2023, 1, 3), buckets.date(2));
+  }
+
+  @Test
+  @DisplayName("Should split the hours in calendar months, the first month is partial")
+  public void testMonths() {
+    var buckets = TimeBuckets.of(LocalDate.of(2024, 1, 15), (17 + 29 + 31) * 24, ChronoUnit.MONTHS);
+
+    assertEquals(3, buckets.size());
+    assertEquals(17 * 24, buckets.end(0));
+    assertEquals((17 + 29) * 24, buckets.end(1));
+    assertEquals((17 + 29 + 31) * 24, buckets.end(2));
+    assertEquals(LocalDate.of(2024, 1, 1), buckets.date(0));
+    assertEquals(LocalDate.of(2024, 2, 1), buckets.date(1));
+  }
+
+  @Test
+  @DisplayName("Should split the hours in calendar years")
+  public void testYears() {
+    var buckets = TimeBuckets.of(LocalDate.of(2023, 1, 1), (365 + 366) * 24, ChronoUnit.YEARS);
+
+    assertEquals(2, buckets.size());
+    assertEquals(365 * 24, buckets.end(0));
+    assertEquals(LocalDate.of(2024, 1, 1), buckets.date(1));
+  }
+
+  @Test
+  @DisplayName("Should have no bucket if there is no hour")
+  public void testEmpty() {
+    var buckets = TimeBuckets.of(LocalDate.of(2023, 1, 1), 0, ChronoUnit.DAYS);
+
+    assertEquals(0, buckets.size());
+  }
+
+  @Test
+  @DisplayName("Should compare the offsets by content and not expose them")
+  public void testOffsetsAreCopied() {
+    var offsets = new int[] { 0, 24, 48 };
+    var buckets = new TimeBuckets(LocalDate.of(2023, 1, 1), ChronoUnit.DAYS, offsets);
+    offsets[1] = 12;
+    buckets.offsets()[1] = 12;
+
+    assertEquals(24, buckets.end(0));
+    assertEquals(TimeBuckets.of(LocalDate.of(2023, 1, 1), 48, ChronoUnit.DAYS), buckets);
+    assertEquals(TimeBuckets.of(LocalDate.of(2023, 1, 1), 48, ChronoUnit.DAYS).hashCode(), buckets.hashCode());
+    assertEquals("TimeBuckets[startDate=2023-01-01, unit=Days, offsets=[0, 24, 48]]", buckets.toString());
+  }
+
+  @Test
+  @DisplayName("Should throw IllegalArgumentException for an invalid unit or hour count")
+  public void testInvalidArguments() {
+    assertAll(
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> TimeBuckets.of(LocalDate.of(2023, 1, 1), 24, ChronoUnit.HOURS)),
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> TimeBuckets.of(LocalDate.of(2023, 1, 1), -1, ChronoUnit.DAYS)));
+  }
+}
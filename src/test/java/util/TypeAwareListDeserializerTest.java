@@ -0,0 +1,64 @@
+package util;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import com.fasterxml.jackson.databind.exc.ValueInstantiationException;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public final class TypeAwareListDeserializerTest {
+  public value record Celsius(float value) {}
+
+  public record Readings(List<Celsius> values) {}
+
+  public value record Speed(float value) {
+    public Speed {
+      if (value < 0) {
+        throw new IllegalArgumentException("value < 0");
+      }
+    }
+  }
+
+  public record Speeds(List<Speed> values) {}
+
+  private static final ObjectReader READER =
+      new ObjectMapper()
+          .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+          .registerModule(new SimpleModule().setDeserializerModifier(new FloatConstructorDeserializerModifier()))
+          .registerModule(new SimpleModule().addDeserializer(List.class, new TypeAwareListDeserializer(null)))
+          .readerFor(Readings.class);
+
+  @Test
+  @DisplayName("Should read the floats of a value class column")
+  public void testFloats() throws Exception {
+    Readings readings = READER.readValue("""
+        { "values": [12.5, -3, 0.25] }
+        """);
+
+    assertEquals(List.of(new Celsius(12.5f), new Celsius(-3f), new Celsius(0.25f)), readings.values());
+  }
+
+  @Test
+  @DisplayName("Should report an exception of the constructor (a negative wind speed) as an IOException")
+  public void testNegativeWindspeed() {
+    var e = assertThrows(ValueInstantiationException.class, () -> READER.forType(Speeds.class).readValue("""
+        { "values": [12.5, -3, 0.25] }
+        """));
+    assertInstanceOf(IllegalArgumentException.class, e.getCause());
+  }
+
+  @Test
+  @DisplayName("Should reject a null (a missing hour) instead of reading 0")
+  public void testNull() {
+    assertThrows(MismatchedInputException.class, () -> READER.readValue("""
+        { "values": [12.5, null, 0.25] }
+        """));
+  }
+}
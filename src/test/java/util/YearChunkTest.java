@@ -0,0 +1,102 @@
+package util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public final class YearChunkTest {
+
+  @Test
+  @DisplayName("Should keep a date range inside a year as one chunk")
+  public void testSameYear() {
+    var chunks = YearChunk.split(LocalDate.of(2023, 3, 1), LocalDate.of(2023, 3, 2));
+
+    assertEquals(List.of(new YearChunk(LocalDate.of(2023, 3, 1), LocalDate.of(2023, 3, 2), 0, 48)), chunks);
+  }
+
+  @Test
+  @DisplayName("Should split a date range at each new year")
+  public void testSeveralYears() {
+    var chunks = YearChunk.split(LocalDate.of(2022, 12, 1), LocalDate.of(2024, 1, 15));
+
+    assertEquals(List.of(
+        new YearChunk(LocalDate.of(2022, 12, 1), LocalDate.of(2022, 12, 31), 0, 31 * 24),
+        new YearChunk(LocalDate.of(2023, 1, 1), LocalDate.of(2023, 12, 31), 0, 365 * 24),
+        new YearChunk(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 15), 0, 15 * 24)),
+        chunks);
+  }
+
+  @Test
+  @DisplayName("Should share the full years of overlapping date ranges")
+  public void testOverlappingRanges() {
+    var chunks1 = YearChunk.split(LocalDate.of(2005, 1, 1), LocalDate.of(2025, 1, 1));
+    var chunks2 = YearChunk.split(LocalDate.of(2006, 1, 1), LocalDate.of(2025, 1, 1));
+
+    assertEquals(21, chunks1.size());
+    assertEquals(chunks1.subList(1, chunks1.size()), chunks2);
+  }
+
+  @Test
+  @DisplayName("Should fetch the whole month of the start date and the day before for a single day chunk")
+  public void testSingleDayChunk() {
+    var chunks = YearChunk.split(LocalDate.of(2024, 12, 31), LocalDate.of(2025, 1, 1));
+
+    assertEquals(List.of(
+        new YearChunk(LocalDate.of(2024, 12, 1), LocalDate.of(2024, 12, 31), 30 * 24, 31 * 24),
+        new YearChunk(LocalDate.of(2024, 12, 31), LocalDate.of(2025, 1, 1), 24, 48)),
+        chunks);
+  }
+
+  @Test
+  @DisplayName("Should split the partial years in calendar months")
+  public void testPartialYears() {
+    var chunks = YearChunk.split(LocalDate.of(2022, 11, 15), LocalDate.of(2024, 2, 10));
+
+    assertEquals(List.of(
+        new YearChunk(LocalDate.of(2022, 11, 1), LocalDate.of(2022, 11, 30), 14 * 24, 30 * 24),
+        new YearChunk(LocalDate.of(2022, 12, 1), LocalDate.of(2022, 12, 31), 0, 31 * 24),
+        new YearChunk(LocalDate.of(2023, 1, 1), LocalDate.of(2023, 12, 31), 0, 365 * 24),
+        new YearChunk(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31), 0, 31 * 24),
+        new YearChunk(LocalDate.of(2024, 2, 1), LocalDate.of(2024, 2, 10), 0, 10 * 24)),
+        chunks);
+  }
+
+  @Test
+  @DisplayName("Should share the edge months of date ranges with different start dates")
+  public void testOffsetRangesShareEdgeChunks() {
+    var chunks1 = YearChunk.split(LocalDate.of(2024, 3, 5), LocalDate.of(2025, 6, 1));
+    var chunks2 = YearChunk.split(LocalDate.of(2024, 3, 20), LocalDate.of(2025, 6, 2));
+
+    // the fetched days are the keys of the caches
+    var fetched1 = chunks1.stream().map(chunk -> List.of(chunk.startDate(), chunk.endDate())).toList();
+    var fetched2 = chunks2.stream().map(chunk -> List.of(chunk.startDate(), chunk.endDate())).toList();
+    assertEquals(16, fetched1.size());
+    assertEquals(List.of(LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 31)), fetched1.getFirst());
+    assertEquals(fetched1.subList(0, 15), fetched2.subList(0, 15));
+    assertEquals(4 * 24, chunks1.getFirst().fromHour());
+    assertEquals(19 * 24, chunks2.getFirst().fromHour());
+  }
+
+  @Test
+  @DisplayName("Should clamp the slice to the number of fetched hours")
+  public void testSlice() {
+    var chunk = new YearChunk(LocalDate.of(2024, 12, 30), LocalDate.of(2024, 12, 31), 24, 48);
+
+    assertEquals(24, chunk.sliceStart(48));
+    assertEquals(48, chunk.sliceEnd(48));
+    assertEquals(24, chunk.sliceStart(30));
+    assertEquals(30, chunk.sliceEnd(30));
+    assertEquals(10, chunk.sliceStart(10));
+  }
+
+  @Test
+  @DisplayName("Should throw IllegalArgumentException for an invalid date range")
+  public void testInvalidRange() {
+    assertThrows(IllegalArgumentException.class,
+        () -> YearChunk.split(LocalDate.of(2023, 1, 2), LocalDate.of(2023, 1, 1)));
+  }
+}
@@ -0,0 +1,66 @@
+package util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public final class ZoneMapTest {
+  public record Wind(float value) {}
+
+  @Test
+  @DisplayName("Should summarize each block, the last block may be partial")
+  public void testSummaries() {
+    var zoneMap = ZoneMap.of(new float[] { 1, 5, 3, 2, 8, 4, 7 }, 3);
+
+    assertEquals(3, zoneMap.blockCount());
+    assertEquals(6, zoneMap.blockStart(2));
+    assertEquals(7, zoneMap.blockEnd(2));
+    assertEquals(1, zoneMap.min(0));
+    assertEquals(5, zoneMap.max(0));
+    assertEquals(9, zoneMap.sum(0));
+    assertEquals(2, zoneMap.min(1));
+    assertEquals(8, zoneMap.max(1));
+    assertEquals(7, zoneMap.sum(2));
+    assertEquals(3 * 3 * Float.BYTES, zoneMap.memoryBytes());
+  }
+
+  @Test
+  @DisplayName("Should count the values greater than a threshold")
+  public void testCountGreaterThan() {
+    var values = new float[10_000];
+    for (var i = 0; i < values.length; i++) {
+      values[i] = (i * 7919) % 1000;
+    }
+    var zoneMap = ZoneMap.of(values);
+    var expected = (int) IntStream.range(0, values.length).filter(i -> values[i] > 990).count();
+
+    assertEquals(expected, zoneMap.countGreaterThan(values, 990));
+    assertEquals(0, zoneMap.countGreaterThan(values, 1000));
+    assertEquals(values.length, zoneMap.countGreaterThan(values, -1));
+  }
+
+  @Test
+  @DisplayName("Should summarize and scan a list using an accessor")
+  public void testList() {
+    var winds = List.of(new Wind(10), new Wind(80), new Wind(20), new Wind(90), new Wind(5));
+    var zoneMap = ZoneMap.of(winds, Wind::value, 2);
+
+    assertEquals(80, zoneMap.max(0));
+    assertEquals(5, zoneMap.min(2));
+    assertEquals(2, zoneMap.countGreaterThan(winds, Wind::value, 60));
+  }
+
+  @Test
+  @DisplayName("Should throw IllegalArgumentException for an invalid block size or values of another size")
+  public void testInvalidArguments() {
+    var zoneMap = ZoneMap.of(new float[10]);
+
+    assertAll(
+        () -> assertThrows(IllegalArgumentException.class, () -> ZoneMap.of(new float[10], 0)),
+        () -> assertThrows(IllegalArgumentException.class, () -> zoneMap.countGreaterThan(new float[11], 0)));
+  }
+}
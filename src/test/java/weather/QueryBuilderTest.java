@@ -6,6 +6,7 @@ import org.junit.jupiter.params.provider.MethodSource;
 import java.lang.reflect.InvocationTargetException;
 import java.net.URI;
 import java.time.LocalDate;
+import java.util.List;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -134,6 +135,77 @@ public class QueryBuilderTest {
         uri.toString());
   }
 
+  @ParameterizedTest(name = "{0} implementation")
+  @MethodSource("queryBuilderImplementations")
+  public void testHourCount(QueryBuilderFactory factory) {
+    var latLong = factory.createLatLong(52.5, 13.4);
+    var startDate = LocalDate.of(2023, 1, 1);
+    var endDate = LocalDate.of(2023, 1, 2);
+
+    var queryBuilder = factory.createQueryBuilder(latLong, startDate, endDate);
+    var yearQueryBuilder = factory.dateRange(queryBuilder, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31));
+
+    assertEquals(48, factory.hourCount(queryBuilder));
+    assertEquals(366 * 24, factory.hourCount(yearQueryBuilder));
+  }
+
+  @ParameterizedTest(name = "{0} implementation")
+  @MethodSource("queryBuilderImplementations")
+  public void testBatchedToURI(QueryBuilderFactory factory) {
+    var latLongs = List.of(factory.createLatLong(52.5, 13.4), factory.createLatLong(48.8, 2.3));
+    var startDate = LocalDate.of(2023, 1, 1);
+    var endDate = LocalDate.of(2023, 1, 2);
+
+    var uri = factory.toURI(latLongs, startDate, endDate);
+
+    assertEquals(
+        "https://archive-api.open-meteo.com/v1/archive?latitude=52.5,48.8&longitude=13.4,2.3&start_date=2023-01-01&end_date=2023-01-02&hourly=temperature_2m,wind_speed_10m,precipitation",
+        uri.toString());
+  }
+
+  @ParameterizedTest(name = "{0} implementation")
+  @MethodSource("queryBuilderImplementations")
+  public void testBatchedToURIWithNoLatLong(QueryBuilderFactory factory) {
+    var startDate = LocalDate.of(2023, 1, 1);
+    var endDate = LocalDate.of(2023, 1, 2);
+
+    assertThrows(
+        IllegalArgumentException.class, () -> factory.toURI(List.of(), startDate, endDate));
+  }
+
+  @ParameterizedTest(name = "{0} implementation")
+  @MethodSource("queryBuilderImplementations")
+  public void testVariables(QueryBuilderFactory factory) {
+    var latLong = factory.createLatLong(52.5, 13.4);
+    var startDate = LocalDate.of(2023, 1, 1);
+    var endDate = LocalDate.of(2023, 1, 2);
+
+    var queryBuilder = factory.createQueryBuilder(latLong, startDate, endDate);
+    var windQueryBuilder = factory.variables(queryBuilder, List.of("wind_speed_10m"));
+    var uri = factory.toURI(windQueryBuilder);
+
+    assertEquals(
+        "https://archive-api.open-meteo.com/v1/archive?latitude=52.5&longitude=13.4&start_date=2023-01-01&end_date=2023-01-02&hourly=wind_speed_10m",
+        uri.toString());
+  }
+
+  @ParameterizedTest(name = "{0} implementation")
+  @MethodSource("queryBuilderImplementations")
+  public void testInvalidVariables(QueryBuilderFactory factory) {
+    var latLong = factory.createLatLong(52.5, 13.4);
+    var startDate = LocalDate.of(2023, 1, 1);
+    var endDate = LocalDate.of(2023, 1, 2);
+
+    var queryBuilder = factory.createQueryBuilder(latLong, startDate, endDate);
+
+    assertAll(
+        () -> assertThrows(IllegalArgumentException.class, () -> factory.variables(queryBuilder, List.of())),
+        () -> assertThrows(IllegalArgumentException.class, () -> factory.variables(queryBuilder, List.of("foo"))),
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> factory.variables(queryBuilder, List.of("precipitation", "precipitation"))),
+        () -> assertThrows(NullPointerException.class, () -> factory.variables(queryBuilder, null)));
+  }
+
   public record QueryBuilderFactory(Class<?> queryBuilderClass) {
 
     private static AssertionError rethrow(InvocationTargetException e) {
@@ -194,6 +266,28 @@ public class QueryBuilderTest {
       }
     }
 
+    public Object variables(Object queryBuilder, List<String> variables) {
+      try {
+        var method = queryBuilderClass.getMethod("variables", List.class);
+        return method.invoke(queryBuilder, variables);
+      } catch (InvocationTargetException e) {
+        throw rethrow(e);
+      } catch (ReflectiveOperationException e) {
+        throw new AssertionError(e);
+      }
+    }
+
+    public int hourCount(Object queryBuilder) {
+      try {
+        var method = queryBuilderClass.getMethod("hourCount");
+        return (int) method.invoke(queryBuilder);
+      } catch (InvocationTargetException e) {
+        throw rethrow(e);
+      } catch (ReflectiveOperationException e) {
+        throw new AssertionError(e);
+      }
+    }
+
     public URI toURI(Object queryBuilder) {
       try {
         var method = queryBuilderClass.getMethod("toURI");
@@ -204,5 +298,16 @@ public class QueryBuilderTest {
         throw new AssertionError(e);
       }
     }
+
+    public URI toURI(List<?> latLongs, LocalDate startDate, LocalDate endDate) {
+      try {
+        var method = queryBuilderClass.getMethod("toURI", List.class, LocalDate.class, LocalDate.class);
+        return (URI) method.invoke(null, latLongs, startDate, endDate);
+      } catch (InvocationTargetException e) {
+        throw rethrow(e);
+      } catch (ReflectiveOperationException e) {
+        throw new AssertionError(e);
+      }
+    }
   }
 }
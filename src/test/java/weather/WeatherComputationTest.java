@@ -2,8 +2,14 @@ package weather;
 
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
+import util.AggregateList;
+import util.TimeBuckets;
 
+import java.lang.invoke.MethodHandles;
 import java.lang.reflect.InvocationTargetException;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
 import java.util.List;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
@@ -94,6 +100,44 @@ public class WeatherComputationTest {
     assertEquals(0f, unwrap(totalPrecipitation));
   }
 
+  @ParameterizedTest(name = "{0} implementation")
+  @MethodSource("weatherComputationImplementations")
+  public void testComputeWeatherDataWithAggregateList(WeatherComputationFactory factory) {
+    var weatherDataList = IntStream.range(0, 1_000)
+        .mapToObj(i -> WeatherComputationFactory.createWeatherData(
+            (i * 37) % 50 - 20.5f, (i * 13) % 80, (i % 7) * 0.25f, factory.weatherComputationClass))
+        .toList();
+    var aggregateList = factory.aggregateList(weatherDataList);
+
+    // the value implementation reduces the columns of an AggregateList
+    assertInstanceOf(AggregateList.class, aggregateList);
+    assertEquals(weatherDataList, aggregateList);
+    assertEquals(factory.computeWeatherData(weatherDataList), factory.computeWeatherData(aggregateList));
+  }
+
+  @ParameterizedTest(name = "{0} implementation")
+  @MethodSource("weatherComputationImplementations")
+  public void testComputeWeatherDataParallelWithAggregateList(WeatherComputationFactory factory) {
+    var weatherDataList = IntStream.range(0, 1_000)
+        .mapToObj(i -> WeatherComputationFactory.createWeatherData(
+            (i * 37) % 50 - 20.5f, (i * 13) % 80, (i % 7) * 0.25f, factory.weatherComputationClass))
+        .toList();
+    var aggregateList = factory.aggregateList(weatherDataList);
+
+    // each range is folded by the reduce() of the AggregateList, not by a sublist that creates the elements
+    var expected = factory.computeWeatherData(aggregateList);
+    var result = factory.computeWeatherDataParallel(aggregateList, 10);
+
+    assertEquals(unwrap(factory.getWeatherDataAccessor(expected, "minTemperature")),
+        unwrap(factory.getWeatherDataAccessor(result, "minTemperature")));
+    assertEquals(unwrap(factory.getWeatherDataAccessor(expected, "maxTemperature")),
+        unwrap(factory.getWeatherDataAccessor(result, "maxTemperature")));
+    assertEquals(unwrap(factory.getWeatherDataAccessor(expected, "maxWindspeed")),
+        unwrap(factory.getWeatherDataAccessor(result, "maxWindspeed")));
+    assertEquals((float) unwrap(factory.getWeatherDataAccessor(expected, "totalPrecipitation")),
+        (float) unwrap(factory.getWeatherDataAccessor(result, "totalPrecipitation")), 0.01f);
+  }
+
   @ParameterizedTest(name = "{0} implementation")
   @MethodSource("weatherComputationImplementations")
   public void testComputeWeatherDataWithNullList(WeatherComputationFactory factory) {
@@ -173,6 +217,207 @@ public class WeatherComputationTest {
   }
 
 
+  @ParameterizedTest(name = "{0} implementation")
+  @MethodSource("weatherComputationImplementations")
+  public void testComputeHourlyDataParallel(WeatherComputationFactory factory) {
+    var size = 10_000;
+    var temperatures = new float[size];
+    var windspeeds = new float[size];
+    var precipitations = new float[size];
+    for (var i = 0; i < size; i++) {
+      temperatures[i] = (i * 37) % 50 - 20.5f;
+      windspeeds[i] = (i * 13) % 80;
+      precipitations[i] = (i % 7) * 0.25f;
+    }
+    var hourlyData = WeatherComputationFactory.createHourlyData(
+        temperatures, windspeeds, precipitations, factory.weatherComputationClass);
+
+    var expected = factory.computeHourlyData(hourlyData);
+    var result = factory.computeHourlyDataParallel(hourlyData, 100);
+
+    assertEquals(unwrap(factory.getWeatherDataAccessor(expected, "minTemperature")),
+        unwrap(factory.getWeatherDataAccessor(result, "minTemperature")));
+    assertEquals(unwrap(factory.getWeatherDataAccessor(expected, "maxTemperature")),
+        unwrap(factory.getWeatherDataAccessor(result, "maxTemperature")));
+    assertEquals(unwrap(factory.getWeatherDataAccessor(expected, "maxWindspeed")),
+        unwrap(factory.getWeatherDataAccessor(result, "maxWindspeed")));
+    assertEquals((float) unwrap(factory.getWeatherDataAccessor(expected, "totalPrecipitation")),
+        (float) unwrap(factory.getWeatherDataAccessor(result, "totalPrecipitation")), 0.01f);
+  }
+
+  @ParameterizedTest(name = "{0} implementation")
+  @MethodSource("weatherComputationImplementations")
+  public void testComputeWeatherDataParallel(WeatherComputationFactory factory) {
+    var weatherDataList = IntStream.range(0, 1_000)
+        .mapToObj(i -> WeatherComputationFactory.createWeatherData(
+            (i * 37) % 50 - 20.5f, (i * 13) % 80, (i % 7) * 0.25f, factory.weatherComputationClass))
+        .toList();
+
+    var expected = factory.computeWeatherData(weatherDataList);
+    var result = factory.computeWeatherDataParallel(weatherDataList, 10);
+
+    assertEquals(unwrap(factory.getWeatherDataAccessor(expected, "minTemperature")),
+        unwrap(factory.getWeatherDataAccessor(result, "minTemperature")));
+    assertEquals(unwrap(factory.getWeatherDataAccessor(expected, "maxTemperature")),
+        unwrap(factory.getWeatherDataAccessor(result, "maxTemperature")));
+    assertEquals(unwrap(factory.getWeatherDataAccessor(expected, "maxWindspeed")),
+        unwrap(factory.getWeatherDataAccessor(result, "maxWindspeed")));
+    assertEquals((float) unwrap(factory.getWeatherDataAccessor(expected, "totalPrecipitation")),
+        (float) unwrap(factory.getWeatherDataAccessor(result, "totalPrecipitation")), 0.01f);
+  }
+
+  @ParameterizedTest(name = "{0} implementation")
+  @MethodSource("weatherComputationImplementations")
+  public void testComputeParallelWithInvalidThreshold(WeatherComputationFactory factory) {
+    var hourlyData = WeatherComputationFactory.createHourlyData(
+        new float[]{20.5f}, new float[]{15.2f}, new float[]{2.3f}, factory.weatherComputationClass);
+
+    assertThrows(IllegalArgumentException.class, () -> factory.computeHourlyDataParallel(hourlyData, 0));
+  }
+
+  @ParameterizedTest(name = "{0} implementation")
+  @MethodSource("weatherComputationImplementations")
+  public void testRollup(WeatherComputationFactory factory) {
+    var temperatures = new float[72];
+    var windspeeds = new float[72];
+    var precipitations = new float[72];
+    for (var i = 0; i < 72; i++) {
+      temperatures[i] = i;
+      windspeeds[i] = i % 24;
+      precipitations[i] = 1.0f;
+    }
+    var hourlyData = WeatherComputationFactory.createHourlyData(
+        temperatures, windspeeds, precipitations, factory.weatherComputationClass);
+
+    var sequential = factory.rollup(hourlyData, LocalDate.of(2023, 1, 1), ChronoUnit.DAYS, false);
+    var parallel = factory.rollup(hourlyData, LocalDate.of(2023, 1, 1), ChronoUnit.DAYS, true);
+
+    var buckets = (TimeBuckets) factory.getWeatherDataAccessor(sequential, "buckets");
+    assertEquals(3, buckets.size());
+    assertEquals(24, buckets.start(1));
+    assertEquals(48, buckets.end(1));
+    assertEquals(buckets.size(), ((TimeBuckets) factory.getWeatherDataAccessor(parallel, "buckets")).size());
+
+    // the second day is the same as the hourly data of the same slice
+    var results = (List<?>) factory.getWeatherDataAccessor(sequential, "results");
+    var expected = factory.computeHourlyData(WeatherComputationFactory.createHourlyData(
+        Arrays.copyOfRange(temperatures, 24, 48), Arrays.copyOfRange(windspeeds, 24, 48),
+        Arrays.copyOfRange(precipitations, 24, 48), factory.weatherComputationClass));
+    var day = results.get(1);
+    assertEquals(24f, unwrap(factory.getWeatherDataAccessor(day, "minTemperature")));
+    assertEquals(47f, unwrap(factory.getWeatherDataAccessor(day, "maxTemperature")));
+    assertEquals(23f, unwrap(factory.getWeatherDataAccessor(day, "maxWindspeed")));
+    assertEquals(24f, unwrap(factory.getWeatherDataAccessor(day, "totalPrecipitation")));
+    for (var accessor : List.of("minTemperature", "maxTemperature", "maxWindspeed", "totalPrecipitation")) {
+      assertEquals(unwrap(factory.getWeatherDataAccessor(expected, accessor)),
+          unwrap(factory.getWeatherDataAccessor(day, accessor)));
+    }
+
+    // the parallel rollup is the same as the sequential one
+    assertEquals(results, factory.getWeatherDataAccessor(parallel, "results"));
+  }
+
+  @ParameterizedTest(name = "{0} implementation")
+  @MethodSource("weatherComputationImplementations")
+  public void testComputeHourlyDataWithZoneMaps(WeatherComputationFactory factory) {
+    var size = 5_000;
+    var temperatures = new float[size];
+    var windspeeds = new float[size];
+    var precipitations = new float[size];
+    for (var i = 0; i < size; i++) {
+      temperatures[i] = (i * 37) % 50 - 20.5f;
+      windspeeds[i] = (i * 13) % 80;
+      precipitations[i] = (i % 7) * 0.25f;
+    }
+    var hourlyData = WeatherComputationFactory.createHourlyData(
+        temperatures, windspeeds, precipitations, factory.weatherComputationClass);
+    var zoneMaps = factory.zoneMaps(hourlyData);
+
+    var result = factory.computeHourlyData(hourlyData, zoneMaps, 100, 4_900);
+
+    var minTemperature = Float.MAX_VALUE;
+    var maxWindspeed = 0.0f;
+    var totalPrecipitation = 0.0f;
+    for (var i = 100; i < 4_900; i++) {
+      minTemperature = Math.min(minTemperature, temperatures[i]);
+      maxWindspeed = Math.max(maxWindspeed, windspeeds[i]);
+      totalPrecipitation += precipitations[i];
+    }
+    assertEquals(minTemperature, unwrap(factory.getWeatherDataAccessor(result, "minTemperature")));
+    assertEquals(maxWindspeed, unwrap(factory.getWeatherDataAccessor(result, "maxWindspeed")));
+    assertEquals(totalPrecipitation,
+        (float) unwrap(factory.getWeatherDataAccessor(result, "totalPrecipitation")), 0.01f);
+  }
+
+  @ParameterizedTest(name = "{0} implementation")
+  @MethodSource("weatherComputationImplementations")
+  public void testRollingWindow(WeatherComputationFactory factory) {
+    var size = 100;
+    var temperatures = new float[size];
+    var windspeeds = new float[size];
+    var precipitations = new float[size];
+    for (var i = 0; i < size; i++) {
+      temperatures[i] = (i * 37) % 50 - 20.5f;
+      windspeeds[i] = (i * 13) % 80;
+      precipitations[i] = (i % 7) * 0.25f;
+    }
+    var hourlyData = WeatherComputationFactory.createHourlyData(
+        temperatures, windspeeds, precipitations, factory.weatherComputationClass);
+    var lastDayData = WeatherComputationFactory.createHourlyData(
+        Arrays.copyOfRange(temperatures, size - 24, size),
+        Arrays.copyOfRange(windspeeds, size - 24, size),
+        Arrays.copyOfRange(precipitations, size - 24, size),
+        factory.weatherComputationClass);
+
+    var result = factory.rollingWindowResult(24, hourlyData);
+    var expected = factory.computeHourlyData(lastDayData);
+
+    assertEquals(unwrap(factory.getWeatherDataAccessor(expected, "minTemperature")),
+        unwrap(factory.getWeatherDataAccessor(result, "minTemperature")));
+    assertEquals(unwrap(factory.getWeatherDataAccessor(expected, "maxTemperature")),
+        unwrap(factory.getWeatherDataAccessor(result, "maxTemperature")));
+    assertEquals(unwrap(factory.getWeatherDataAccessor(expected, "maxWindspeed")),
+        unwrap(factory.getWeatherDataAccessor(result, "maxWindspeed")));
+    assertEquals((float) unwrap(factory.getWeatherDataAccessor(expected, "totalPrecipitation")),
+        (float) unwrap(factory.getWeatherDataAccessor(result, "totalPrecipitation")), 0.001f);
+  }
+
+  @ParameterizedTest(name = "{0} implementation")
+  @MethodSource("weatherComputationImplementations")
+  public void testRangeIndex(WeatherComputationFactory factory) {
+    var size = 1_000;
+    var temperatures = new float[size];
+    var windspeeds = new float[size];
+    var precipitations = new float[size];
+    for (var i = 0; i < size; i++) {
+      temperatures[i] = (i * 37) % 50 - 20.5f;
+      windspeeds[i] = (i * 13) % 80;
+      precipitations[i] = (i % 7) * 0.25f;
+    }
+    var hourlyData = WeatherComputationFactory.createHourlyData(
+        temperatures, windspeeds, precipitations, factory.weatherComputationClass);
+    var rangeIndex = factory.rangeIndex(hourlyData);
+
+    for (var range : List.of(new int[] { 0, size }, new int[] { 100, 900 }, new int[] { 17, 18 },
+                             new int[] { 500, 524 }, new int[] { 42, 42 })) {
+      var from = range[0];
+      var to = range[1];
+      var result = factory.queryRangeIndex(rangeIndex, from, to);
+      var expected = factory.computeHourlyData(WeatherComputationFactory.createHourlyData(
+          Arrays.copyOfRange(temperatures, from, to), Arrays.copyOfRange(windspeeds, from, to),
+          Arrays.copyOfRange(precipitations, from, to), factory.weatherComputationClass));
+
+      assertEquals(unwrap(factory.getWeatherDataAccessor(expected, "minTemperature")),
+          unwrap(factory.getWeatherDataAccessor(result, "minTemperature")));
+      assertEquals(unwrap(factory.getWeatherDataAccessor(expected, "maxTemperature")),
+          unwrap(factory.getWeatherDataAccessor(result, "maxTemperature")));
+      assertEquals(unwrap(factory.getWeatherDataAccessor(expected, "maxWindspeed")),
+          unwrap(factory.getWeatherDataAccessor(result, "maxWindspeed")));
+      assertEquals((float) unwrap(factory.getWeatherDataAccessor(expected, "totalPrecipitation")),
+          (float) unwrap(factory.getWeatherDataAccessor(result, "totalPrecipitation")), 0.01f);
+    }
+  }
+
   public record WeatherComputationFactory(Class<?> weatherComputationClass) {
     private static Class<?> weatherServiceClassOf(String packageName, String className) throws ClassNotFoundException {
       return Class.forName(packageName + ".WeatherService$" + className);
@@ -252,6 +497,22 @@ public class WeatherComputationTest {
       }
     }
 
+    // an AggregateList with one column per component of the WeatherData
+    public List<?> aggregateList(List<?> weatherDataList) {
+      try {
+        var weatherDataClass = Class.forName(weatherComputationClass.getPackageName() + ".WeatherComputation$WeatherData");
+        var components = weatherDataClass.getRecordComponents();
+        var columns = new List<?>[components.length];
+        for (var i = 0; i < components.length; i++) {
+          var name = components[i].getName();
+          columns[i] = weatherDataList.stream().map(weatherData -> getWeatherDataAccessor(weatherData, name)).toList();
+        }
+        return AggregateList.factory(MethodHandles.lookup(), weatherDataClass).createFromLists(columns);
+      } catch (ClassNotFoundException e) {
+        throw new AssertionError(e);
+      }
+    }
+
     public Object computeHourlyData(Object hourlyData) {
       try {
         var method = weatherComputationClass.getMethod("computeHourlyData", hourlyData.getClass());
@@ -263,6 +524,98 @@ public class WeatherComputationTest {
       }
     }
 
+    public Object computeWeatherDataParallel(List<?> weatherDataList, int threshold) {
+      try {
+        var method = weatherComputationClass.getMethod("computeWeatherDataParallel", List.class, int.class);
+        return method.invoke(null, weatherDataList, threshold);
+      } catch (InvocationTargetException e) {
+        throw rethrow(e);
+      } catch (ReflectiveOperationException e) {
+        throw new AssertionError(e);
+      }
+    }
+
+    public Object computeHourlyDataParallel(Object hourlyData, int threshold) {
+      try {
+        var method = weatherComputationClass.getMethod("computeHourlyDataParallel", hourlyData.getClass(), int.class);
+        return method.invoke(null, hourlyData, threshold);
+      } catch (InvocationTargetException e) {
+        throw rethrow(e);
+      } catch (ReflectiveOperationException e) {
+        throw new AssertionError(e);
+      }
+    }
+
+    public Object rollup(Object hourlyData, LocalDate startDate, ChronoUnit unit, boolean parallel) {
+      try {
+        var method = weatherComputationClass.getMethod(
+            "rollup", hourlyData.getClass(), LocalDate.class, ChronoUnit.class, boolean.class);
+        return method.invoke(null, hourlyData, startDate, unit, parallel);
+      } catch (InvocationTargetException e) {
+        throw rethrow(e);
+      } catch (ReflectiveOperationException e) {
+        throw new AssertionError(e);
+      }
+    }
+
+    public Object zoneMaps(Object hourlyData) {
+      try {
+        var method = weatherComputationClass.getMethod("zoneMaps", hourlyData.getClass());
+        return method.invoke(null, hourlyData);
+      } catch (InvocationTargetException e) {
+        throw rethrow(e);
+      } catch (ReflectiveOperationException e) {
+        throw new AssertionError(e);
+      }
+    }
+
+    public Object computeHourlyData(Object hourlyData, Object zoneMaps, int fromHour, int toHour) {
+      try {
+        var method = weatherComputationClass.getMethod(
+            "computeHourlyData", hourlyData.getClass(), zoneMaps.getClass(), int.class, int.class);
+        return method.invoke(null, hourlyData, zoneMaps, fromHour, toHour);
+      } catch (InvocationTargetException e) {
+        throw rethrow(e);
+      } catch (ReflectiveOperationException e) {
+        throw new AssertionError(e);
+      }
+    }
+
+    public Object rollingWindowResult(int hours, Object hourlyData) {
+      try {
+        var rollingWindowClass = Class.forName(weatherComputationClass.getName() + "$RollingWindow");
+        var rollingWindow = rollingWindowClass.getConstructor(int.class).newInstance(hours);
+        rollingWindowClass.getMethod("appendAll", hourlyData.getClass()).invoke(rollingWindow, hourlyData);
+        return rollingWindowClass.getMethod("result").invoke(rollingWindow);
+      } catch (InvocationTargetException e) {
+        throw rethrow(e);
+      } catch (ReflectiveOperationException e) {
+        throw new AssertionError(e);
+      }
+    }
+
+    public Object rangeIndex(Object hourlyData) {
+      try {
+        var method = weatherComputationClass.getMethod("rangeIndex", hourlyData.getClass());
+        return method.invoke(null, hourlyData);
+      } catch (InvocationTargetException e) {
+        throw rethrow(e);
+      } catch (ReflectiveOperationException e) {
+        throw new AssertionError(e);
+      }
+    }
+
+    public Object queryRangeIndex(Object rangeIndex, int fromHour, int toHour) {
+      try {
+        var method = rangeIndex.getClass().getMethod("query", int.class, int.class);
+        return method.invoke(rangeIndex, fromHour, toHour);
+      } catch (InvocationTargetException e) {
+        throw rethrow(e);
+      } catch (ReflectiveOperationException e) {
+        throw new AssertionError(e);
+      }
+    }
+
     public List<?> toWeatherData(Object hourlyData) {
       try {
         var method = weatherComputationClass.getMethod("toWeatherData", hourlyData.getClass());
@@ -0,0 +1,244 @@
+package weather;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import util.ColumnFile;
+import util.MemoryCache;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WeatherServiceTest {
+
+  // Test data provider for all three implementations
+  static Stream<WeatherServiceFactory> weatherServiceImplementations() {
+    return Stream.of(
+        new WeatherServiceFactory(identity.weather.WeatherService.class),
+        new WeatherServiceFactory(primitive.weather.WeatherService.class),
+        new WeatherServiceFactory(value.weather.WeatherService.class));
+  }
+
+  private static final LocalDate START_DATE = LocalDate.of(2023, 1, 1);
+  private static final LocalDate END_DATE = LocalDate.of(2023, 1, 2);
+  private static final int HOUR_COUNT = 48;
+
+  @ParameterizedTest(name = "{0} implementation")
+  @MethodSource("weatherServiceImplementations")
+  public void testGetHourlyDataOfSeveralLocations(WeatherServiceFactory factory) throws IOException {
+    // store the columns of each location into the cache, so nothing is fetched
+    var queryBuilderFactory = factory.queryBuilderFactory();
+    var latLongs = new ArrayList<Object>();
+    var cachePaths = new ArrayList<Path>();
+    for (var i = 0; i < 5; i++) {
+      var latLong = queryBuilderFactory.createLatLong(-89.5 + i, 179.5);
+      var queryBuilder = queryBuilderFactory.variables(
+          queryBuilderFactory.createQueryBuilder(latLong, START_DATE, END_DATE), factory.variables());
+      var uri = queryBuilderFactory.toURI(queryBuilder);
+      var temperatures = new float[HOUR_COUNT];
+      var windspeeds = new float[HOUR_COUNT];
+      var precipitations = new float[HOUR_COUNT];
+      for (var hour = 0; hour < HOUR_COUNT; hour++) {
+        temperatures[hour] = i * 100 + hour;
+        windspeeds[hour] = i;
+        precipitations[hour] = hour;
+      }
+      ColumnFile.storeIntoCache(uri, temperatures, windspeeds, precipitations);
+      latLongs.add(latLong);
+      cachePaths.add(Path.of("cache", uri.getQuery() + ".columns"));
+    }
+
+    try {
+      var dataList = factory.getHourlyData(latLongs, 2);
+
+      // same data, in the same order, as the single location queries
+      assertEquals(latLongs.size(), dataList.size());
+      for (var i = 0; i < latLongs.size(); i++) {
+        assertEquals(factory.getHourlyData(latLongs.get(i)), dataList.get(i));
+      }
+    } finally {
+      for (var cachePath : cachePaths) {
+        Files.deleteIfExists(cachePath);
+      }
+    }
+  }
+
+  @ParameterizedTest(name = "{0} implementation")
+  @MethodSource("weatherServiceImplementations")
+  public void testBatchedHourlyDataIsReusedBySingleLocationQueries(WeatherServiceFactory factory) throws IOException {
+    // the date range spans two years, so it is split in two chunks, the whole month of December and two days
+    var startDate = LocalDate.of(2022, 12, 1);
+    var endDate = LocalDate.of(2023, 1, 2);
+    var hourCount = 33 * 24;
+
+    // store the JSON response of the batched query into the cache, so nothing is fetched
+    var queryBuilderFactory = factory.queryBuilderFactory();
+    var latLongs = List.of(
+        queryBuilderFactory.createLatLong(-60.25, -170.25),
+        queryBuilderFactory.createLatLong(-60.5, -170.5));
+    var uri = queryBuilderFactory.toURI(latLongs, startDate, endDate);
+    var response = new StringJoiner(",", "[", "]");
+    for (var i = 0; i < latLongs.size(); i++) {
+      var values = new StringJoiner(",", "[", "]");
+      for (var hour = 0; hour < hourCount; hour++) {
+        values.add(String.valueOf(i * 100 + hour));
+      }
+      response.add("{\"hourly\": {\"temperature_2m\": %1$s, \"wind_speed_10m\": %1$s, \"precipitation\": %1$s}}"
+          .formatted(values));
+    }
+    var cachePath = Path.of("cache", uri.getQuery());
+    Files.createDirectories(cachePath.getParent());
+    Files.writeString(cachePath, response.toString());
+
+    try {
+      var dataList = factory.getBatchedHourlyData(latLongs, startDate, endDate);
+      assertEquals(latLongs.size(), dataList.size());
+
+      // each location is found in the memory cache, one hit per chunk and no miss
+      for (var latLong : latLongs) {
+        var stats = factory.memoryCacheStats();
+        factory.getHourlyData(latLong, startDate, endDate);
+        var newStats = factory.memoryCacheStats();
+
+        assertEquals(stats.misses(), newStats.misses());
+        assertEquals(stats.hits() + 2, newStats.hits());
+      }
+    } finally {
+      Files.deleteIfExists(cachePath);
+    }
+  }
+
+  @ParameterizedTest(name = "{0} implementation")
+  @MethodSource("weatherServiceImplementations")
+  public void testBatchedHourlyDataWithMissingHours(WeatherServiceFactory factory) throws IOException {
+    var queryBuilderFactory = factory.queryBuilderFactory();
+    var latLongs = List.of(
+        queryBuilderFactory.createLatLong(-61.25, -171.25),
+        queryBuilderFactory.createLatLong(-61.5, -171.5));
+    var uri = queryBuilderFactory.toURI(latLongs, START_DATE, END_DATE);
+    // the second location has one hour less
+    var response = new StringJoiner(",", "[", "]");
+    for (var i = 0; i < latLongs.size(); i++) {
+      var values = new StringJoiner(",", "[", "]");
+      for (var hour = 0; hour < HOUR_COUNT - i; hour++) {
+        values.add(String.valueOf(hour));
+      }
+      response.add("{\"hourly\": {\"temperature_2m\": %1$s, \"wind_speed_10m\": %1$s, \"precipitation\": %1$s}}"
+          .formatted(values));
+    }
+    var cachePath = Path.of("cache", uri.getQuery());
+    Files.createDirectories(cachePath.getParent());
+    Files.writeString(cachePath, response.toString());
+
+    try {
+      var stats = factory.memoryCacheStats();
+      assertThrows(IOException.class, () -> factory.getBatchedHourlyData(latLongs, START_DATE, END_DATE));
+
+      // nothing is cached
+      assertEquals(stats.weight(), factory.memoryCacheStats().weight());
+    } finally {
+      Files.deleteIfExists(cachePath);
+    }
+  }
+
+  @ParameterizedTest(name = "{0} implementation")
+  @MethodSource("weatherServiceImplementations")
+  public void testGetHourlyDataOfSeveralLocationsWithInvalidConcurrency(WeatherServiceFactory factory) {
+    var latLong = factory.queryBuilderFactory().createLatLong(52.5, 13.4);
+
+    assertThrows(IllegalArgumentException.class, () -> factory.getHourlyData(List.of(latLong), 0));
+  }
+
+  public record WeatherServiceFactory(Class<?> weatherServiceClass) {
+
+    private static AssertionError rethrow(InvocationTargetException e) throws IOException {
+      var cause = e.getCause();
+      if (cause instanceof IOException ioException) {
+        throw ioException;
+      }
+      if (cause instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      if (cause instanceof Error error) {
+        throw error;
+      }
+      throw new AssertionError(cause);
+    }
+
+    public QueryBuilderTest.QueryBuilderFactory queryBuilderFactory() {
+      try {
+        var packageName = weatherServiceClass.getPackageName();
+        return new QueryBuilderTest.QueryBuilderFactory(Class.forName(packageName + ".QueryBuilder"));
+      } catch (ClassNotFoundException e) {
+        throw new AssertionError(e);
+      }
+    }
+
+    @SuppressWarnings("unchecked")
+    public List<String> variables() {
+      try {
+        var hourlyDataClass = Class.forName(weatherServiceClass.getName() + "$HourlyData");
+        return (List<String>) hourlyDataClass.getField("VARIABLES").get(null);
+      } catch (ReflectiveOperationException e) {
+        throw new AssertionError(e);
+      }
+    }
+
+    public Object getHourlyData(Object latLong) throws IOException {
+      return getHourlyData(latLong, START_DATE, END_DATE);
+    }
+
+    public Object getHourlyData(Object latLong, LocalDate startDate, LocalDate endDate) throws IOException {
+      try {
+        var method = weatherServiceClass.getMethod("getHourlyData",
+            latLong.getClass(), LocalDate.class, LocalDate.class);
+        return method.invoke(null, latLong, startDate, endDate);
+      } catch (InvocationTargetException e) {
+        throw rethrow(e);
+      } catch (ReflectiveOperationException e) {
+        throw new AssertionError(e);
+      }
+    }
+
+    public List<?> getBatchedHourlyData(List<?> latLongs, LocalDate startDate, LocalDate endDate) throws IOException {
+      try {
+        var method = weatherServiceClass.getMethod("getBatchedHourlyData",
+            List.class, LocalDate.class, LocalDate.class);
+        return (List<?>) method.invoke(null, latLongs, startDate, endDate);
+      } catch (InvocationTargetException e) {
+        throw rethrow(e);
+      } catch (ReflectiveOperationException e) {
+        throw new AssertionError(e);
+      }
+    }
+
+    public MemoryCache.Stats memoryCacheStats() {
+      try {
+        var method = weatherServiceClass.getMethod("memoryCacheStats");
+        return (MemoryCache.Stats) method.invoke(null);
+      } catch (ReflectiveOperationException e) {
+        throw new AssertionError(e);
+      }
+    }
+
+    public List<?> getHourlyData(List<?> latLongs, int maxConcurrency) throws IOException {
+      try {
+        var method = weatherServiceClass.getMethod("getHourlyData",
+            List.class, LocalDate.class, LocalDate.class, int.class);
+        return (List<?>) method.invoke(null, latLongs, START_DATE, END_DATE, maxConcurrency);
+      } catch (InvocationTargetException e) {
+        throw rethrow(e);
+      } catch (ReflectiveOperationException e) {
+        throw new AssertionError(e);
+      }
+    }
+  }
+}